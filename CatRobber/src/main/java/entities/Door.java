@@ -4,29 +4,32 @@ import interfaces.*;
 import javafx.geometry.Bounds;
 import javafx.geometry.BoundingBox;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
 import managers.SoundManager;
 import org.json.JSONObject;
 import puzzles.*;
+import utils.AABB;
 import utils.GameLoader;
+import utils.SpriteFrame;
 import utils.Vector2D;
 import managers.GameManager;
 import managers.UIManager;
-import main.GameWindow;
 import java.util.HashMap;
 import java.util.Map;
 
-public class Door implements GameObject, Interactable {
+public class Door implements GameObject, Interactable, StaticRenderable {
     private double imageX, imageY, imageWidth, imageHeight; //координати, ширина та висота дверей
     private boolean isOpen, isLocked, isLaser; //чи відкриті, заблоковані, лазерні двері
     private boolean isRoomLink, isFloorLink; //двері ведуть до іншої кімнати чи на інший поверх
     String direction; // напрямок дверей (left, right, up, down)
-    private Map<String, Image> sprites; //зображення дверей
+    private Map<String, SpriteFrame> sprites; //зображення дверей
     private String[] spritePaths; // шляхи до файлів зі спрайтами
     private final String path = "background/doors/"; //дефолтний шлях до будь-якої картинки з дверми
     private int sharedId; //ID, який об’єднує двері
     private LockType lockType; //тип замка: CODE_LOCK, PICK_LOCK, LASER_LOCK, NONE
     private final SoundManager soundManager = SoundManager.getInstance();
+    private static final double INTERACTION_OFFSET = 5; //на скільки пікселів по горизонталі гравець дістає до дверей
+    private final AABB interactionBounds = new AABB(); //область взаємодії для перевірки в canInteract
+    private final AABB playerBounds = new AABB(); //межі гравця для перевірки в canInteract
 
     /**
      * Конструктор, що приймає координати та JSON з інформацією про двері
@@ -57,18 +60,21 @@ public class Door implements GameObject, Interactable {
         GameLoader loader = new GameLoader();
         this.sprites = new HashMap<>();
         //встановлює ключ заначення: put(текстовий індифікатор, об'єкт(зображення))
-        sprites.put("stairsClosed", loader.loadImage(spritePaths[0]));
-        sprites.put("closedLeft", loader.loadImage(spritePaths[1]));
-        sprites.put("closedRight", loader.loadImage(spritePaths[2]));
-        sprites.put("lockedLeft", loader.loadImage(spritePaths[3]));
-        sprites.put("openLeft", loader.loadImage(spritePaths[4]));
-        sprites.put("openRight", loader.loadImage(spritePaths[5]));
-        sprites.put("lockedRight", loader.loadImage(spritePaths[6]));
-        sprites.put("stairsUp", loader.loadImage(spritePaths[7]));
-        sprites.put("stairsDown", loader.loadImage(spritePaths[8]));
-        sprites.put("stairsLocked", loader.loadImage(spritePaths[9]));
-        sprites.put("laserLocked", loader.loadImage(spritePaths[10]));
-        sprites.put("laserUnlocked", loader.loadImage(spritePaths[11]));
+        sprites.put("stairsClosed", loader.getSprite(spritePaths[0]));
+        sprites.put("closedLeft", loader.getSprite(spritePaths[1]));
+        sprites.put("closedRight", loader.getSprite(spritePaths[2]));
+        sprites.put("lockedLeft", loader.getSprite(spritePaths[3]));
+        sprites.put("openLeft", loader.getSprite(spritePaths[4]));
+        sprites.put("openRight", loader.getSprite(spritePaths[5]));
+        sprites.put("lockedRight", loader.getSprite(spritePaths[6]));
+        sprites.put("stairsUp", loader.getSprite(spritePaths[7]));
+        sprites.put("stairsDown", loader.getSprite(spritePaths[8]));
+        sprites.put("stairsLocked", loader.getSprite(spritePaths[9]));
+        sprites.put("laserLocked", loader.getSprite(spritePaths[10]));
+        sprites.put("laserUnlocked", loader.getSprite(spritePaths[11]));
+        //віддзеркалені лазерні двері для напрямку праворуч створюються один раз, а не трансформацією щокадру
+        sprites.put("laserLockedMirrored", loader.getMirroredSprite(spritePaths[10]));
+        sprites.put("laserUnlockedMirrored", loader.getMirroredSprite(spritePaths[11]));
     }
 
     public String getDirection() {
@@ -113,9 +119,7 @@ public class Door implements GameObject, Interactable {
      * залежно від їхнього стану (заблоковані чи ні) та типу замка
      */
     public void open() {
-        UIManager uiManager = GameWindow.getInstance().getUIManager();
-        if (uiManager == null) return;
-
+        UIManager uiManager = GameManager.getInstance().getInteractionUIManager(); // null у безголовому режимі та під час повтору
         Player player = GameManager.getInstance().getPlayer();
 
         if (isLocked) {
@@ -127,6 +131,7 @@ public class Door implements GameObject, Interactable {
                 System.out.println("Двері відкрито за допомогою активованого ключа.");
                 return;
             }
+            if (uiManager == null) return; // Головоломку можна показати лише в інтерфейсі
             Puzzle puzzle = null;
             switch (lockType) {
                 case CODE_LOCK:
@@ -143,7 +148,7 @@ public class Door implements GameObject, Interactable {
             if (puzzle != null) {
                 puzzle.setLinkedDoor(this, (solved, door) -> {
                     if (solved) {
-                        door.unlock();
+                        GameManager.getInstance().onPuzzleSolved(door); // Записується в повтор
                         uiManager.hidePuzzleUI();
                         System.out.println("Puzzle solved, door unlocked: " + sharedId);
                     }
@@ -157,14 +162,12 @@ public class Door implements GameObject, Interactable {
     }
 
     public void openLinkedDoors() {
-        for (Interactable interactable : GameManager.getInstance().getInteractables()) {
-            if (interactable instanceof Door otherDoor && otherDoor.getSharedId() == this.sharedId) {
-                if (!otherDoor.isOpen) {
-                    soundManager.playSound(SoundManager.SoundType.DOOR_OPEN);
-                }
-                otherDoor.isOpen = true;
-                System.out.println("Linked door opened: " + otherDoor.getSharedId());
+        for (Door otherDoor : GameManager.getInstance().getDoorRegistry().getLinkedDoors(sharedId)) {
+            if (!otherDoor.isOpen) {
+                soundManager.playSound(SoundManager.SoundType.DOOR_OPEN);
             }
+            otherDoor.isOpen = true;
+            System.out.println("Linked door opened: " + otherDoor.getSharedId());
         }
     }
 
@@ -172,27 +175,31 @@ public class Door implements GameObject, Interactable {
     public void unlock() {
         this.isLocked = false;
         this.isOpen = true;
-        for (Interactable interactable : GameManager.getInstance().getInteractables()) {
-            if (interactable instanceof Door otherDoor && otherDoor.getSharedId() == this.sharedId) {
-                if (otherDoor.getLockType() != LockType.LASER_LOCK) {
-                    soundManager.playSound(SoundManager.SoundType.DOOR_OPEN);
-                }
-                otherDoor.isLocked = false;
-                otherDoor.isOpen = true;
-                System.out.println("Linked door unlocked: " + otherDoor.getSharedId());
+        for (Door otherDoor : GameManager.getInstance().getDoorRegistry().getLinkedDoors(sharedId)) {
+            if (otherDoor.getLockType() != LockType.LASER_LOCK) {
+                soundManager.playSound(SoundManager.SoundType.DOOR_OPEN);
             }
+            otherDoor.isLocked = false;
+            otherDoor.isOpen = true;
+            System.out.println("Linked door unlocked: " + otherDoor.getSharedId());
         }
     }
 
     @Override
     public boolean canInteract(Player player) {
-        Bounds playerBounds = player.getBounds();
-        Bounds doorBounds = this.getBounds();
-        double offset = 5;
-        Bounds bounds = new BoundingBox(playerBounds.getMinX() - offset, playerBounds.getMinY(),
-                playerBounds.getWidth() + offset * 2, playerBounds.getHeight());
-        boolean hasOverlap = bounds.intersects(doorBounds);
-        return hasOverlap;
+        getInteractionBounds(interactionBounds);
+        return player.getCollisionBounds(playerBounds).touches(interactionBounds);
+    }
+
+    /**
+     * Записує область взаємодії: межі дверей, розширені на 5 пікселів ліворуч і праворуч
+     * @param out прямокутник для меж
+     * @return true
+     */
+    @Override
+    public boolean getInteractionBounds(AABB out) {
+        out.setRect(imageX - INTERACTION_OFFSET, imageY, imageWidth + INTERACTION_OFFSET * 2, imageHeight);
+        return true;
     }
 
 
@@ -211,8 +218,80 @@ public class Door implements GameObject, Interactable {
      */
     @Override
     public void render(GraphicsContext gc) {
-        Image sprite = null; //змінна в яку буде завантажено спрайт
-        boolean shouldMirror = false; //флаг для відзеркалювання
+        renderStatic(gc);
+    }
+
+    /**
+     * Метод, що малює двері у статичний шар (двері не мають частин, що змінюються щокадру)
+     * @param gc графічний компонент статичного шару
+     */
+    @Override
+    public void renderStatic(GraphicsContext gc) {
+        SpriteFrame sprite = selectSprite();
+        if (sprite != null) {
+            drawSprite(gc, sprite, imageX, imageY, imageWidth, imageHeight);
+        }
+    }
+
+    /**
+     * Метод, що повертає ключ візуального стану дверей: змінюється, коли двері відчиняються,
+     * відмикаються або переміщуються
+     * @return ключ стану для статичного шару
+     */
+    @Override
+    public long getStaticStateKey() {
+        return stateKey(selectSprite(), imageX, imageY, imageWidth, imageHeight);
+    }
+
+    /**
+     * Метод, що записує межі спрайта дверей на екрані
+     * @param out прямокутник для меж
+     * @return true — межі відомі
+     */
+    @Override
+    public boolean getRenderBounds(AABB out) {
+        if (selectSprite() != null) {
+            out.setRect(imageX, imageY, imageWidth, imageHeight);
+        }
+        return true;
+    }
+
+    /**
+     * Метод, що повертає ключ вигляду дверей (збігається з ключем статичного стану)
+     * @return ключ вигляду
+     */
+    @Override
+    public long getRenderStateKey() {
+        return getStaticStateKey();
+    }
+
+    /**
+     * Створює незмінну копію стану рендерингу дверей для потоку рендерингу
+     * @return стан рендерингу дверей
+     */
+    @Override
+    public Renderable captureRenderState() {
+        return new RenderState(selectSprite(), imageX, imageY, imageWidth, imageHeight,
+                getStaticStateKey());
+    }
+
+    /**
+     * Обчислює ключ візуального стану зі спрайта (віддзеркалені спрайти мають окремий ідентифікатор анімації), позиції та розміру
+     */
+    private static long stateKey(SpriteFrame sprite, double x, double y, double width, double height) {
+        long key = SpriteFrame.stateKey(sprite);
+        key = key * 31 + Double.hashCode(x);
+        key = key * 31 + Double.hashCode(y);
+        key = key * 31 + Double.hashCode(width);
+        return key * 31 + Double.hashCode(height);
+    }
+
+    /**
+     * Вибирає спрайт дверей відповідно до типу, стану та напрямку
+     * @return спрайт або null, якщо відповідного спрайта немає
+     */
+    private SpriteFrame selectSprite() {
+        SpriteFrame sprite = null; //змінна в яку буде завантажено спрайт
 
         if (isFloorLink) {
             if (isLocked) {
@@ -231,9 +310,7 @@ public class Door implements GameObject, Interactable {
         } else {
             if (isLocked) {
                 if (isLaser) {
-                    sprite = sprites.get("laserLocked");
-                    // Відзеркалюємо лазерні двері якщо вони направо
-                    shouldMirror = direction.equals("right");
+                    sprite = laserSprite("laserLocked");
                 } else {
                     if (direction.equals("left")) {
                         sprite = sprites.get("lockedLeft");
@@ -244,9 +321,7 @@ public class Door implements GameObject, Interactable {
             } else {
                 if (isOpen) {
                     if (isLaser) {
-                        sprite = sprites.get("laserUnlocked");
-                        // Відзеркалюємо лазерні двері якщо вони направо
-                        shouldMirror = direction.equals("right");
+                        sprite = laserSprite("laserUnlocked");
                     } else {
                         if (direction.equals("left")) {
                             sprite = sprites.get("openLeft");
@@ -256,9 +331,7 @@ public class Door implements GameObject, Interactable {
                     }
                 } else {
                     if (isLaser) {
-                        sprite = sprites.get("laserUnlocked");
-                        // Відзеркалюємо лазерні двері якщо вони направо
-                        shouldMirror = direction.equals("right");
+                        sprite = laserSprite("laserUnlocked");
                     } else {
                         if (direction.equals("left")) {
                             sprite = sprites.get("closedLeft");
@@ -269,34 +342,79 @@ public class Door implements GameObject, Interactable {
                 }
             }
         }
+        return sprite;
+    }
 
-        if (sprite != null) {
-            gc.setImageSmoothing(false); //вимикаємо згладжування
-            Bounds bounds = getImageBounds(); //отримаємо координати, де треба малювати
-            double renderX = bounds.getMinX();
-            double renderY = bounds.getMinY();
-            double renderWidth = imageWidth;
-            double renderHeight = imageHeight;
+    /**
+     * Повертає спрайт лазерних дверей; для дверей, направлених праворуч, — заздалегідь віддзеркалену копію
+     * @param name назва спрайта лазерних дверей
+     * @return спрайт з урахуванням напрямку
+     */
+    private SpriteFrame laserSprite(String name) {
+        return sprites.get(shouldMirror() ? name + "Mirrored" : name);
+    }
 
-            if (shouldMirror) {
-                // Зберігаємо поточний стан трансформації
-                gc.save();
+    /**
+     * Перевіряє, чи потрібно відзеркалити спрайт
+     * @return true для лазерних дверей, направлених праворуч
+     */
+    private boolean shouldMirror() {
+        // Відзеркалюємо лазерні двері якщо вони направо
+        return !isFloorLink && isLaser && direction.equals("right");
+    }
 
-                // Переміщуємо початок координат до центру зображення
-                gc.translate(renderX + renderWidth / 2, renderY + renderHeight / 2);
+    /**
+     * Малює спрайт дверей; віддзеркалені спрайти вже підготовлені при завантаженні
+     */
+    private static void drawSprite(GraphicsContext gc, SpriteFrame sprite, double renderX, double renderY,
+                                   double renderWidth, double renderHeight) {
+        gc.setImageSmoothing(false); //вимикаємо згладжування
+        sprite.draw(gc, renderX, renderY, renderWidth, renderHeight);
+    }
 
-                // Відзеркалюємо по горизонталі
-                gc.scale(-1, 1);
+    /**
+     * Незмінний стан рендерингу дверей, зафіксований після кроку симуляції
+     */
+    private record RenderState(SpriteFrame sprite, double x, double y, double width, double height,
+                               long staticStateKey) implements StaticRenderable {
+        @Override
+        public void render(GraphicsContext gc) {
+            renderStatic(gc);
+        }
 
-                // Малюємо зображення відносно нового центру
-                gc.drawImage(sprite, -renderWidth / 2, -renderHeight / 2, renderWidth, renderHeight);
+        @Override
+        public void renderStatic(GraphicsContext gc) {
+            if (sprite != null) {
+                drawSprite(gc, sprite, x, y, width, height);
+            }
+        }
 
-                // Відновлюємо стан трансформації
-                gc.restore();
-            } else {
-                // Звичайне малювання без відзеркалювання
-                gc.drawImage(sprite, renderX, renderY, renderWidth, renderHeight);
+        @Override
+        public long getStaticStateKey() {
+            return staticStateKey;
+        }
+
+        @Override
+        public boolean getRenderBounds(AABB out) {
+            if (sprite != null) {
+                out.setRect(x, y, width, height);
             }
+            return true;
+        }
+
+        @Override
+        public long getRenderStateKey() {
+            return staticStateKey;
+        }
+
+        @Override
+        public int getRenderLayer() {
+            return 0;
+        }
+
+        @Override
+        public boolean isVisible() {
+            return true;
         }
     }
 
@@ -333,6 +451,8 @@ public class Door implements GameObject, Interactable {
         this.imageY = data.optDouble("y", imageY + imageHeight) - imageHeight;
         this.imageWidth = data.optDouble("width", imageWidth);
         this.imageHeight = data.optDouble("height", imageHeight);
+        GameManager.getInstance().invalidateInteractableIndex(); // Двері могли переміститися
+        GameManager.getInstance().invalidateDoorRegistry(); // Могли змінитися sharedId чи тип дверей
         this.sharedId = data.optInt("sharedId", sharedId);
         this.isOpen = data.optBoolean("isOpen", isOpen);
         this.isLocked = data.optBoolean("isLocked", isLocked);
@@ -382,6 +502,7 @@ public class Door implements GameObject, Interactable {
     public void setPosition(Vector2D position) {
         this.imageX = position.getX();
         this.imageY = position.getY();
+        GameManager.getInstance().invalidateInteractableIndex();
     }
 
     /**
@@ -392,6 +513,7 @@ public class Door implements GameObject, Interactable {
     public void setImagePosition(Vector2D position) {
         this.imageX = position.getX();
         this.imageY = position.getY();
+        GameManager.getInstance().invalidateInteractableIndex();
     }
 
     /**
@@ -412,6 +534,62 @@ public class Door implements GameObject, Interactable {
         return new BoundingBox(imageX, imageY, imageWidth, imageHeight);
     }
 
+    /**
+     * Метод, що записує позицію дверей у переданий вектор
+     * @param out вектор для позиції
+     * @return той самий об'єкт
+     */
+    @Override
+    public Vector2D getPosition(Vector2D out) {
+        return out.set(imageX, imageY);
+    }
+
+    /**
+     * Метод, що повертає лівий край дверей
+     * @return координата x
+     */
+    @Override
+    public double getMinX() {
+        return imageX;
+    }
+
+    /**
+     * Метод, що повертає верхній край дверей
+     * @return координата y
+     */
+    @Override
+    public double getMinY() {
+        return imageY;
+    }
+
+    /**
+     * Метод, що повертає правий край дверей
+     * @return координата x
+     */
+    @Override
+    public double getMaxX() {
+        return imageX + imageWidth;
+    }
+
+    /**
+     * Метод, що повертає нижній край дверей
+     * @return координата y
+     */
+    @Override
+    public double getMaxY() {
+        return imageY + imageHeight;
+    }
+
+    /**
+     * Метод, що записує межі зображення дверей без створення нового об'єкта
+     * @param out прямокутник для меж
+     * @return той самий об'єкт
+     */
+    @Override
+    public AABB getImageBounds(AABB out) {
+        return out.setRect(imageX, imageY, imageWidth, imageHeight);
+    }
+
     /**
      * Метод, що повертає текст підказки для взаємодії з дверима
      * @return підказка у вигляді рядка або null, якщо взаємодія не потрібна
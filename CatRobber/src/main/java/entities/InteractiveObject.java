@@ -5,17 +5,17 @@ import javafx.animation.TranslateTransition;
 import javafx.geometry.Bounds;
 import javafx.geometry.BoundingBox;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
 import javafx.util.Duration;
-import main.GameWindow;
 import managers.GameManager;
 import managers.SoundManager;
 import managers.UIManager;
 import org.json.JSONObject;
 import puzzles.LaserLockPuzzle;
 import puzzles.Puzzle;
+import utils.AABB;
 import utils.GameLoader;
+import utils.SpriteFrame;
 import utils.Vector2D;
 
 import java.util.Random;
@@ -26,10 +26,10 @@ import java.util.Random;
  * наприклад, записки, картини, комп'ютери, електрощити тощо.
  * Реалізує інтерфейси {@link GameObject} та {@link Interactable}.
  */
-public class InteractiveObject implements GameObject, Interactable {
+public class InteractiveObject implements GameObject, Interactable, StaticRenderable {
     private final String path = "interactiveObjects/";
     private double imageX, imageY, imageWidth, imageHeight;
-    private Image sprite;
+    private SpriteFrame sprite;
     private String spritePath;
     private Type type;
     private JSONObject properties;
@@ -37,6 +37,9 @@ public class InteractiveObject implements GameObject, Interactable {
     private boolean isPictureMoved = false;
     private double targetImageX;
     private final SoundManager soundManager = SoundManager.getInstance();
+    private static final double HIGHLIGHT_MARGIN = 4; // Кутики підсвічування виступають за спрайт на 4 пікселі
+    private final AABB interactionBounds = new AABB(); // Область взаємодії для перевірки в canInteract
+    private final AABB playerBounds = new AABB(); // Межі гравця для перевірки в canInteract
 
     /**
      * Типи інтерактивних об'єктів.
@@ -70,7 +73,7 @@ public class InteractiveObject implements GameObject, Interactable {
         this.type = Type.valueOf(properties.optString("typeObj", "NOTE"));
         this.spritePath = path + properties.getString("fileName");
         GameLoader loader = new GameLoader();
-        this.sprite = loader.loadImage(spritePath);
+        this.sprite = loader.getSprite(spritePath);
 
         // Генеруємо код для нотатки при створенні об'єкта
         if ((type == Type.NOTE||type == Type.PICTURE||type == Type.COMPUTER) && !properties.has("code")) {
@@ -87,7 +90,7 @@ public class InteractiveObject implements GameObject, Interactable {
      * @return Рядок з 4 цифрами
      */
     private String generateRandomCode() {
-        Random random = new Random();
+        Random random = GameManager.getInstance().getRandom(); // Засіяний генератор: коди відтворюються в повторах
         int code = random.nextInt(9000) + 1000;
         return String.valueOf(code);
     }
@@ -100,47 +103,41 @@ public class InteractiveObject implements GameObject, Interactable {
      */
     @Override
     public void interact(Player player) {
-        UIManager uiManager = GameWindow.getInstance().getUIManager();
-        if (uiManager == null) {
-            System.err.println("UIManager не доступний");
-            return;
-        }
+        // Без інтерфейсу (безголовий режим, повтор) змінюється лише стан гри, вікна не створюються
+        UIManager uiManager = GameManager.getInstance().getInteractionUIManager();
 
         switch (type) {
             case NOTE:
                 soundManager.playSound(SoundManager.SoundType.TAKE_NOTE);
-                uiManager.createWindow(UIManager.WindowType.NOTE, properties);
+                if (uiManager != null) {
+                    uiManager.createWindow(UIManager.WindowType.NOTE, properties);
+                }
                 break;
             case PICTURE:
                 if (!isPictureMoved) {
                     soundManager.playSound(SoundManager.SoundType.MOVE_PICTURE);
-                    animatePicture(uiManager);
-                } else {
+                    if (uiManager != null) {
+                        animatePicture(uiManager);
+                    } else {
+                        finishPictureMove();
+                    }
+                } else if (uiManager != null) {
                     uiManager.createWindow(UIManager.WindowType.PICTURE, properties);
                 }
                 break;
             case COMPUTER:
-                uiManager.createWindow(UIManager.WindowType.COMPUTER, properties);
+                if (uiManager != null) {
+                    uiManager.createWindow(UIManager.WindowType.COMPUTER, properties);
+                }
                 break;
             case ELECTRICAL_PANEL:
-                Door laserDoor = null;
-                for (Interactable obj : GameManager.getInstance().getInteractables()) {
-                    if (obj instanceof Door && ((Door) obj).isLaser()) {
-                        laserDoor = (Door) obj;
-                        break;
-                    }
-                }
+                Door laserDoor = GameManager.getInstance().getDoorRegistry().getLaserDoor();
                 if (laserDoor != null) {
-                    Puzzle puzzle = null;
-                    for (Puzzle puzzleLock : GameManager.getInstance().getPuzzles()) {
-                        if (puzzleLock instanceof LaserLockPuzzle) {
-                            puzzle = puzzleLock;
-                        }
-                    }
-                    if (puzzle != null) {
+                    Puzzle puzzle = GameManager.getInstance().getPuzzle(LaserLockPuzzle.class);
+                    if (puzzle != null && uiManager != null) {
                         puzzle.setLinkedDoor(laserDoor, (solved, door) -> {
                             if (solved) {
-                                door.unlock();
+                                GameManager.getInstance().onPuzzleSolved(door); // Записується в повтор
                                 uiManager.hidePuzzleUI();
                             }
                         });
@@ -155,18 +152,24 @@ public class InteractiveObject implements GameObject, Interactable {
                 if (!isMoneyGiven) {
                     soundManager.playSound(SoundManager.SoundType.COLLECT_MONEY);
                     GameManager.getInstance().addTemporaryMoney(100);
-                    UIManager.getInstance().updateMoneyDisplay(); // Оновлюємо moneyLabel
+                    if (uiManager != null) {
+                        uiManager.updateMoneyDisplay(); // Оновлюємо moneyLabel
+                    }
                     isMoneyGiven = true;
                 }
                 break;
             case FINAL_PRIZE:
                 if (!isMoneyGiven) {
                     GameManager.getInstance().addTemporaryMoney(200);
-                    UIManager.getInstance().updateMoneyDisplay(); // Оновлюємо moneyLabel
+                    if (uiManager != null) {
+                        uiManager.updateMoneyDisplay(); // Оновлюємо moneyLabel
+                    }
                     isMoneyGiven = true;
                 }
                 GameManager.getInstance().setGameState(GameManager.GameState.VICTORY);
-                uiManager.createWindow(UIManager.WindowType.VICTORY, properties);
+                if (uiManager != null) {
+                    uiManager.createWindow(UIManager.WindowType.VICTORY, properties);
+                }
                 break;
         }
     }
@@ -182,13 +185,22 @@ public class InteractiveObject implements GameObject, Interactable {
         transition.setFromX(0);
         transition.setToX(targetImageX - imageX); // Відносне зміщення вліво
         transition.setOnFinished(event -> {
-            imageX = targetImageX; // Оновлюємо позицію X після анімації
-            isPictureMoved = true;
+            finishPictureMove(); // Оновлюємо позицію X після анімації
             uiManager.createWindow(UIManager.WindowType.PICTURE, properties);
         });
         transition.play();
     }
 
+    /**
+     * Переносить картину в кінцеву позицію (після анімації або одразу в безголовому режимі).
+     */
+    private void finishPictureMove() {
+        targetImageX = imageX - 50;
+        imageX = targetImageX;
+        GameManager.getInstance().invalidateInteractableIndex();
+        isPictureMoved = true;
+    }
+
 
     /**
      * Повертає об'єкт збережених даних, які можна серіалізувати у файл.
@@ -235,13 +247,14 @@ public class InteractiveObject implements GameObject, Interactable {
         } else {
             this.targetImageX = imageY;
         }
+        GameManager.getInstance().invalidateInteractableIndex(); // Об'єкт міг переміститися
         try {
             this.type = Type.valueOf(data.optString("typeObj", type.toString()));
         } catch (IllegalArgumentException e) {
             System.err.println("Невірне значення типу: " + data.optString("typeObj") + ". Залишаю поточний.");
         }
         GameLoader loader = new GameLoader();
-        this.sprite = loader.loadImage(spritePath);
+        this.sprite = loader.getSprite(spritePath);
         // Відновлюємо код нотатки
         if (data.has("code")) {
             properties.put("code", data.getString("code"));
@@ -261,23 +274,171 @@ public class InteractiveObject implements GameObject, Interactable {
      */
     @Override
     public void render(GraphicsContext gc) {
+        renderStatic(gc);
+        renderDynamic(gc);
+    }
+
+    /**
+     * Малює спрайт об'єкта у статичний шар.
+     *
+     * @param gc GraphicsContext статичного шару
+     */
+    @Override
+    public void renderStatic(GraphicsContext gc) {
+        drawSprite(gc, sprite, imageX, imageY, imageWidth, imageHeight);
+    }
+
+    /**
+     * Малює підсвічування, якщо об'єкт найближчий до гравця. Підсвічування змінюється
+     * разом із рухом гравця, тому не запікається у статичний шар.
+     *
+     * @param gc GraphicsContext динамічного шару
+     */
+    @Override
+    public void renderDynamic(GraphicsContext gc) {
+        if (GameManager.getInstance().getClosestInteractable() == this) {
+            drawHighlight(gc, imageX, imageY, imageWidth, imageHeight);
+        }
+    }
+
+    /**
+     * Повертає ключ візуального стану спрайта: змінюється, коли картину посунуто або спрайт перезавантажено.
+     *
+     * @return ключ стану для статичного шару
+     */
+    @Override
+    public long getStaticStateKey() {
+        return stateKey(sprite, imageX, imageY, imageWidth, imageHeight);
+    }
+
+    /**
+     * Записує межі об'єкта разом із кутиками підсвічування.
+     *
+     * @param out прямокутник для меж
+     * @return true — межі відомі
+     */
+    @Override
+    public boolean getRenderBounds(AABB out) {
+        highlightedBounds(out, imageX, imageY, imageWidth, imageHeight);
+        return true;
+    }
+
+    /**
+     * Повертає ключ вигляду об'єкта: статичний стан і підсвічування.
+     *
+     * @return ключ вигляду
+     */
+    @Override
+    public long getRenderStateKey() {
+        return getStaticStateKey() * 31 + (GameManager.getInstance().getClosestInteractable() == this ? 1 : 0);
+    }
+
+    /**
+     * Записує межі спрайта, розширені на товщину кутиків підсвічування.
+     */
+    private static void highlightedBounds(AABB out, double x, double y, double width, double height) {
+        out.setRect(x - HIGHLIGHT_MARGIN, y - HIGHLIGHT_MARGIN,
+                width + HIGHLIGHT_MARGIN * 2, height + HIGHLIGHT_MARGIN * 2);
+    }
+
+    /**
+     * Створює незмінну копію стану рендерингу об'єкта (спрайт і підсвічування) для потоку рендерингу.
+     *
+     * @return стан рендерингу об'єкта
+     */
+    @Override
+    public Renderable captureRenderState() {
+        return new RenderState(sprite, imageX, imageY, imageWidth, imageHeight,
+                GameManager.getInstance().getClosestInteractable() == this, getStaticStateKey());
+    }
+
+    /**
+     * Обчислює ключ візуального стану зі спрайта, позиції та розміру.
+     */
+    private static long stateKey(SpriteFrame sprite, double x, double y, double width, double height) {
+        long key = SpriteFrame.stateKey(sprite);
+        key = key * 31 + Double.hashCode(x);
+        key = key * 31 + Double.hashCode(y);
+        key = key * 31 + Double.hashCode(width);
+        return key * 31 + Double.hashCode(height);
+    }
+
+    /**
+     * Малює спрайт об'єкта.
+     */
+    private static void drawSprite(GraphicsContext gc, SpriteFrame sprite, double imageX, double imageY,
+                                   double imageWidth, double imageHeight) {
         if (sprite != null) {
             gc.setImageSmoothing(false);
-            gc.drawImage(sprite, imageX, imageY, imageWidth, imageHeight);
+            sprite.draw(gc, imageX, imageY, imageWidth, imageHeight);
         }
+    }
 
-        if (GameManager.getInstance().getClosestInteractable() == this) {
-            gc.setStroke(Color.WHITE);
-            gc.setLineWidth(4);
-            double cornerLength = 10;
-            gc.strokeLine(imageX - 2, imageY - 2, imageX - 2 + cornerLength, imageY - 2);
-            gc.strokeLine(imageX - 2, imageY - 2, imageX - 2, imageY - 2 + cornerLength);
-            gc.strokeLine(imageX + imageWidth + 2 - cornerLength, imageY - 2, imageX + imageWidth + 2, imageY - 2);
-            gc.strokeLine(imageX + imageWidth + 2, imageY - 2, imageX + imageWidth + 2, imageY - 2 + cornerLength);
-            gc.strokeLine(imageX - 2, imageY + imageHeight + 2 - cornerLength, imageX - 2, imageY + imageHeight + 2);
-            gc.strokeLine(imageX - 2, imageY + imageHeight + 2, imageX - 2 + cornerLength, imageY + imageHeight + 2);
-            gc.strokeLine(imageX + imageWidth + 2 - cornerLength, imageY + imageHeight + 2, imageX + imageWidth + 2, imageY + imageHeight + 2);
-            gc.strokeLine(imageX + imageWidth + 2, imageY + imageHeight + 2 - cornerLength, imageX + imageWidth + 2, imageY + imageHeight + 2);
+    /**
+     * Малює білі кутики підсвічування навколо об'єкта.
+     */
+    private static void drawHighlight(GraphicsContext gc, double imageX, double imageY,
+                                      double imageWidth, double imageHeight) {
+        gc.setStroke(Color.WHITE);
+        gc.setLineWidth(4);
+        double cornerLength = 10;
+        gc.strokeLine(imageX - 2, imageY - 2, imageX - 2 + cornerLength, imageY - 2);
+        gc.strokeLine(imageX - 2, imageY - 2, imageX - 2, imageY - 2 + cornerLength);
+        gc.strokeLine(imageX + imageWidth + 2 - cornerLength, imageY - 2, imageX + imageWidth + 2, imageY - 2);
+        gc.strokeLine(imageX + imageWidth + 2, imageY - 2, imageX + imageWidth + 2, imageY - 2 + cornerLength);
+        gc.strokeLine(imageX - 2, imageY + imageHeight + 2 - cornerLength, imageX - 2, imageY + imageHeight + 2);
+        gc.strokeLine(imageX - 2, imageY + imageHeight + 2, imageX - 2 + cornerLength, imageY + imageHeight + 2);
+        gc.strokeLine(imageX + imageWidth + 2 - cornerLength, imageY + imageHeight + 2, imageX + imageWidth + 2, imageY + imageHeight + 2);
+        gc.strokeLine(imageX + imageWidth + 2, imageY + imageHeight + 2 - cornerLength, imageX + imageWidth + 2, imageY + imageHeight + 2);
+    }
+
+    /**
+     * Незмінний стан рендерингу інтерактивного об'єкта, зафіксований після кроку симуляції.
+     */
+    private record RenderState(SpriteFrame sprite, double x, double y, double width, double height,
+                               boolean highlighted, long staticStateKey) implements StaticRenderable {
+        @Override
+        public void render(GraphicsContext gc) {
+            renderStatic(gc);
+            renderDynamic(gc);
+        }
+
+        @Override
+        public void renderStatic(GraphicsContext gc) {
+            drawSprite(gc, sprite, x, y, width, height);
+        }
+
+        @Override
+        public void renderDynamic(GraphicsContext gc) {
+            if (highlighted) {
+                drawHighlight(gc, x, y, width, height);
+            }
+        }
+
+        @Override
+        public long getStaticStateKey() {
+            return staticStateKey;
+        }
+
+        @Override
+        public boolean getRenderBounds(AABB out) {
+            highlightedBounds(out, x, y, width, height);
+            return true;
+        }
+
+        @Override
+        public long getRenderStateKey() {
+            return staticStateKey * 31 + (highlighted ? 1 : 0);
+        }
+
+        @Override
+        public int getRenderLayer() {
+            return 0;
+        }
+
+        @Override
+        public boolean isVisible() {
+            return true;
         }
     }
 
@@ -291,16 +452,20 @@ public class InteractiveObject implements GameObject, Interactable {
      */
     @Override
     public boolean canInteract(Player player) {
-        Bounds playerBounds = player.getBounds();
-        Bounds objectBounds = this.getBounds();
-        double interactionRange = getInteractionRange();
-        Bounds extendedBounds = new BoundingBox(
-                playerBounds.getMinX(),
-                playerBounds.getMinY(),
-                playerBounds.getWidth(),
-                playerBounds.getHeight()
-        );
-        return extendedBounds.intersects(objectBounds);
+        getInteractionBounds(interactionBounds);
+        return player.getCollisionBounds(playerBounds).touches(interactionBounds);
+    }
+
+    /**
+     * Записує область взаємодії — межі об'єкта.
+     *
+     * @param out Прямокутник для меж
+     * @return true
+     */
+    @Override
+    public boolean getInteractionBounds(AABB out) {
+        out.setRect(imageX, imageY, imageWidth, imageHeight);
+        return true;
     }
 
     /**
@@ -349,6 +514,7 @@ public class InteractiveObject implements GameObject, Interactable {
         this.imageX = position.x;
         this.imageY = position.y;
         this.targetImageX = isPictureMoved ? imageY - 50 : imageY;
+        GameManager.getInstance().invalidateInteractableIndex();
     }
 
     /**
@@ -362,6 +528,7 @@ public class InteractiveObject implements GameObject, Interactable {
         this.imageX = position.x;
         this.imageY = position.y;
         this.targetImageX = isPictureMoved ? imageY - 50 : imageY;
+        GameManager.getInstance().invalidateInteractableIndex();
     }
 
 
@@ -385,6 +552,68 @@ public class InteractiveObject implements GameObject, Interactable {
         return new BoundingBox(imageX, imageY, imageWidth, imageHeight);
     }
 
+    /**
+     * Записує позицію об'єкта у переданий вектор.
+     *
+     * @param out Вектор для позиції
+     * @return Той самий об'єкт
+     */
+    @Override
+    public Vector2D getPosition(Vector2D out) {
+        return out.set(imageX, imageY);
+    }
+
+    /**
+     * Повертає лівий край об'єкта.
+     *
+     * @return Координата x
+     */
+    @Override
+    public double getMinX() {
+        return imageX;
+    }
+
+    /**
+     * Повертає верхній край об'єкта.
+     *
+     * @return Координата y
+     */
+    @Override
+    public double getMinY() {
+        return imageY;
+    }
+
+    /**
+     * Повертає правий край об'єкта.
+     *
+     * @return Координата x
+     */
+    @Override
+    public double getMaxX() {
+        return imageX + imageWidth;
+    }
+
+    /**
+     * Повертає нижній край об'єкта.
+     *
+     * @return Координата y
+     */
+    @Override
+    public double getMaxY() {
+        return imageY + imageHeight;
+    }
+
+    /**
+     * Записує межі зображення об'єкта без створення нового об'єкта.
+     *
+     * @param out Прямокутник для меж
+     * @return Той самий об'єкт
+     */
+    @Override
+    public AABB getImageBounds(AABB out) {
+        return out.setRect(imageX, imageY, imageWidth, imageHeight);
+    }
+
     /**
      * Повертає відстань, на якій гравець може взаємодіяти з об'єктом.
      *
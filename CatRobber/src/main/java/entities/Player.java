@@ -4,13 +4,14 @@ import interfaces.*;
 import javafx.geometry.Bounds;
 import javafx.geometry.BoundingBox;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
 import managers.GameManager;
 import managers.SoundManager;
 import org.json.JSONObject;
 import ui.ShopItem;
+import utils.AABB;
 import utils.GameLoader;
+import utils.SpriteFrame;
 import utils.Vector2D;
 
 import java.util.HashMap;
@@ -20,7 +21,7 @@ import java.util.Map;
  * Представляє ігрового персонажа (гравця), який може рухатися, атакувати,
  * взаємодіяти з об’єктами та керувати своїм інвентарем.
  */
-public class Player implements Animatable, GameObject, Interactable {
+public class Player implements Animatable, GameObject, Interactable, Interpolatable, RoomOccupant {
     private boolean isAttacking;
     private String attackAnimationType;
     private double attackAnimationDuration;
@@ -34,6 +35,10 @@ public class Player implements Animatable, GameObject, Interactable {
     private double imageHeight;
     private double collWidth;
     private double collHeight;
+    private double prevImageX; // Позиція зображення на попередньому кроці симуляції
+    private double prevImageY;
+    private double renderAlpha = 1.0; // Коефіцієнт інтерполяції для рендерингу
+    private int currentRoomId = NO_ROOM; // Кімната гравця, оновлюється GameManager при перетині межі
     private Direction direction;
     private PlayerState state;
     private double speed;
@@ -41,9 +46,11 @@ public class Player implements Animatable, GameObject, Interactable {
     private String currentAnimation;
     private int animationFrame;
     private double animationTime;
-    private Map<String, Image[]> animations;
+    private Map<String, SpriteFrame[]> animations;
+    private Map<String, SpriteFrame[]> mirroredAnimations; // Віддзеркалені кадри для погляду ліворуч, створені при завантаженні
     private String[] spritePaths;
     private boolean canMove;
+    private boolean placedOutsideMove; // Позицію змінено поза move() (телепорт, сходи, завантаження), тож гравець може стояти поза кімнатою
     private int detectionCount;
     private Map<ShopItem, Integer> inventory; // Інвентар: предмет -> кількість
     private Map<ShopItem, Boolean> itemUsage; // Стан використання: предмет -> чи використовується
@@ -89,6 +96,8 @@ public class Player implements Animatable, GameObject, Interactable {
         this.imageY = jsonImageY - imageHeight;
         this.collX = jsonCollX;
         this.collY = jsonCollY;
+        this.placedOutsideMove = true;
+        storePreviousPosition();
         this.detectionCount = defaultData.optInt("detectionCount", 0);
         this.inventory = new HashMap<>();
         this.itemUsage = new HashMap<>();
@@ -134,11 +143,15 @@ public class Player implements Animatable, GameObject, Interactable {
         // Завантаження анімацій через GameLoader
         this.animations = new HashMap<>();
         this.spritePaths = new String[]{"player/idle.png", "player/run.png", "player/beating.png", "player/shoot.png"};
+        this.mirroredAnimations = new HashMap<>();
+        // Кадри беруться зі спільного кешу, тому спрайт-листи декодуються один раз на процес
         GameLoader loader = new GameLoader();
-        animations.put("idle", loader.splitSpriteSheet(spritePaths[0], 8));
-        animations.put("run", loader.splitSpriteSheet(spritePaths[1], 10));
-        animations.put("hit", loader.splitSpriteSheet(spritePaths[2], 13));
-        animations.put("shoot", loader.splitSpriteSheet(spritePaths[3], 2));
+        String[] names = {"idle", "run", "hit", "shoot"};
+        int[] frameCounts = {8, 10, 13, 2};
+        for (int i = 0; i < names.length; i++) {
+            animations.put(names[i], loader.getAnimationClip(spritePaths[i], frameCounts[i]));
+            mirroredAnimations.put(names[i], loader.getMirroredAnimationClip(spritePaths[i], frameCounts[i]));
+        }
     }
 
 
@@ -258,7 +271,9 @@ public class Player implements Animatable, GameObject, Interactable {
 
 
     /**
-     * Рухає гравця в заданому напрямку, розбиваючи рух на менші кроки при високій швидкості.
+     * Рухає гравця в заданому напрямку. Дозволене переміщення обчислюється за один прохід
+     * (GameManager.resolvePlayerMovement): гравець зупиняється точно біля стіни чи перешкоди
+     * за будь-якої швидкості.
      * @param direction Напрямок руху.
      * @param deltaTime Час, що минув з останнього кадру.
      */
@@ -267,30 +282,19 @@ public class Player implements Animatable, GameObject, Interactable {
             this.direction = direction;
             setAnimationState("run");
 
-            // Обчислюємо базове переміщення
+            // Обчислюємо бажане переміщення
             double movement = speed * deltaTime;
-
-            // Визначаємо кількість мікрокроків (залежить від швидкості)
-            double speedRatio = speed / Math.max(baseSpeed, 1.0); // Відношення поточної швидкості до базової
-            int steps = (int) Math.ceil(speedRatio); // Кількість кроків (округлюємо вгору)
-            double stepMovement = movement / steps; // Переміщення за один крок
-
             double deltaX = 0;
             if (direction == Direction.LEFT) {
-                deltaX = -stepMovement;
+                deltaX = -movement;
             } else if (direction == Direction.RIGHT) {
-                deltaX = stepMovement;
+                deltaX = movement;
             }
 
-            // Виконуємо рух по кроках
-            for (int i = 0; i < steps; i++) {
-                // Оновлюємо позицію
-                collX += deltaX;
-                imageX += deltaX;
-
-                // Викликаємо перевірку колізій після кожного кроку
-                GameManager.getInstance().checkPlayerCollisions();
-            }
+            // Обмежуємо переміщення стінами кімнати та перешкодами
+            deltaX = GameManager.getInstance().resolvePlayerMovement(this, deltaX);
+            collX += deltaX;
+            imageX += deltaX;
         }
     }
 
@@ -336,7 +340,7 @@ public class Player implements Animatable, GameObject, Interactable {
         }
 
 
-        Image[] frames = animations.getOrDefault(currentAnimation, animations.get("idle"));
+        SpriteFrame[] frames = animations.getOrDefault(currentAnimation, animations.get("idle"));
         if (frames == null || frames.length == 0) return;
 
         //  Розраховуємо кадр анімації, використовуючи вже оновлений animationTime
@@ -364,7 +368,7 @@ public class Player implements Animatable, GameObject, Interactable {
         if (!isAttacking) {
             isAttacking = true;
             setAnimationState(isRanged ? "shoot" : "hit");
-            Image[] frames = animations.get(currentAnimation);
+            SpriteFrame[] frames = animations.get(currentAnimation);
             if (frames != null) {
                 attackAnimationDuration = frames.length * 0.2;
             }
@@ -387,6 +391,7 @@ public class Player implements Animatable, GameObject, Interactable {
         Direction currentDirection = this.getDirection();
         if (!door.isLaser()) {
             adjustPlayerPosition(140.0, currentDirection);
+            storePreviousPosition(); // Телепорт не інтерполюємо
         }
         System.out.println("Teleported to room: x=" + getPosition().x + ", y=" + getPosition().y);
     }
@@ -414,6 +419,7 @@ public class Player implements Animatable, GameObject, Interactable {
         } else {
             adjustPlayerPosition(113, teleportDirection);
         }
+        storePreviousPosition(); // Телепорт не інтерполюємо
         System.out.println("Teleported to floor: x=" + getPosition().x + ", y=" + getPosition().y);
     }
 
@@ -425,8 +431,6 @@ public class Player implements Animatable, GameObject, Interactable {
      * @param direction Напрямок зміщення.
      */
     public void adjustPlayerPosition(double offset, Direction direction) {
-        Vector2D currentPosition = getPosition();
-        Vector2D currentImaginePosition = getImagePosition();
         double adjustmentX = 0;
         double adjustmentY = 0;
         double backOffDistance = offset;
@@ -439,49 +443,137 @@ public class Player implements Animatable, GameObject, Interactable {
         } else if (direction == Direction.UP) {
             adjustmentY = -backOffDistance;
         }
-        Vector2D newPosition = new Vector2D(currentPosition.x + adjustmentX, currentPosition.y + adjustmentY);
-        setPosition(newPosition);
-        Vector2D newImaginePosition = new Vector2D(currentImaginePosition.x + adjustmentX, currentImaginePosition.y + adjustmentY);
-        setImagePosition(newImaginePosition);
+        // Зсуваємо поля напряму, без проміжних Vector2D
+        collX += adjustmentX;
+        collY += adjustmentY;
+        imageX += adjustmentX;
+        imageY += adjustmentY;
+        placedOutsideMove = true;
+    }
+
+    /**
+     * Повертає і скидає ознаку того, що позицію змінено поза {@link #move(Direction, double)}
+     * (телепорт, сходи, завантаження, виштовхування). Рух у move() не виводить гравця за межі кімнати,
+     * тому перевіряти, чи гравець стоїть у кімнаті, потрібно лише після таких змін.
+     * @return true, якщо позицію змінено поза move() після попереднього виклику
+     */
+    public boolean consumePlacementChange() {
+        boolean changed = placedOutsideMove;
+        placedOutsideMove = false;
+        return changed;
     }
 
     /**
      * Рендерить поточний кадр анімації гравця на екрані.
-     * Враховує напрямок погляду для віддзеркалення спрайту.
+     * Враховує напрямок погляду, вибираючи заздалегідь віддзеркалений кадр.
      * @param gc Графічний контекст для рендерингу.
      */
     @Override
     public void render(GraphicsContext gc) {
-        Image frame = getCurrentFrame();
+        SpriteFrame frame = getFacingFrame();
         if (frame != null && isVisible) {
-            gc.setImageSmoothing(false);
-            Bounds bounds = getImageBounds();
-            double renderX = bounds.getMinX();
-            double renderY = bounds.getMinY();
-            double renderWidth = imageWidth;
-            double renderHeight = imageHeight;
-            if (direction == Direction.LEFT) {
-                gc.save();
-                gc.translate(renderX + renderWidth, renderY);
-                gc.scale(-1, 1);
-                gc.drawImage(frame, 0, 0, renderWidth, renderHeight);
-                gc.restore();
-            } else {
-                gc.drawImage(frame, renderX, renderY, renderWidth, renderHeight);
+            double renderX = prevImageX + (imageX - prevImageX) * renderAlpha;
+            double renderY = prevImageY + (imageY - prevImageY) * renderAlpha;
+            drawFrame(gc, frame, renderX, renderY, imageWidth, imageHeight);
+        }
+    }
+
+    /**
+     * Записує межі кадру гравця в інтерпольованій позиції, у якій його намалює render().
+     * @param out Прямокутник для меж; залишається порожнім, якщо гравець невидимий.
+     * @return true — межі відомі.
+     */
+    @Override
+    public boolean getRenderBounds(AABB out) {
+        if (getFacingFrame() != null && isVisible) {
+            double renderX = prevImageX + (imageX - prevImageX) * renderAlpha;
+            double renderY = prevImageY + (imageY - prevImageY) * renderAlpha;
+            out.setRect(renderX, renderY, imageWidth, imageHeight);
+        }
+        return true;
+    }
+
+    /**
+     * Повертає ключ вигляду гравця: кадр анімації з урахуванням напрямку погляду.
+     * @return Ключ вигляду.
+     */
+    @Override
+    public long getRenderStateKey() {
+        return frameKey(isVisible ? getFacingFrame() : null);
+    }
+
+    /**
+     * Обчислює ключ вигляду з кадру; віддзеркалені кадри мають окремий ідентифікатор анімації.
+     */
+    private static long frameKey(SpriteFrame frame) {
+        return SpriteFrame.stateKey(frame);
+    }
+
+    /**
+     * Створює незмінну копію стану рендерингу гравця для потоку рендерингу.
+     * Позиція береться з останнього кроку симуляції без інтерполяції.
+     * @return Стан рендерингу гравця.
+     */
+    @Override
+    public Renderable captureRenderState() {
+        SpriteFrame frame = isVisible ? getFacingFrame() : null;
+        return new RenderState(frame, imageX, imageY, imageWidth, imageHeight);
+    }
+
+    /**
+     * Малює кадр гравця; кадр уже віддзеркалений відповідно до напрямку погляду.
+     */
+    private static void drawFrame(GraphicsContext gc, SpriteFrame frame, double x, double y,
+                                  double width, double height) {
+        gc.setImageSmoothing(false);
+        frame.draw(gc, x, y, width, height);
+    }
+
+    /**
+     * Незмінний стан рендерингу гравця, зафіксований після кроку симуляції.
+     */
+    private record RenderState(SpriteFrame frame, double x, double y, double width, double height)
+            implements Renderable {
+        @Override
+        public void render(GraphicsContext gc) {
+            if (frame != null) {
+                drawFrame(gc, frame, x, y, width, height);
+            }
+        }
+
+        @Override
+        public int getRenderLayer() {
+            return 2;
+        }
+
+        @Override
+        public boolean isVisible() {
+            return frame != null;
+        }
+
+        @Override
+        public boolean getRenderBounds(AABB out) {
+            if (frame != null) {
+                out.setRect(x, y, width, height);
             }
+            return true;
+        }
 
-             }
+        @Override
+        public long getRenderStateKey() {
+            return frameKey(frame);
+        }
     }
 
 
 
     /**
      * Повертає поточне зображення (кадр) для поточної анімації.
-     * @return Об'єкт Image, що представляє поточний кадр.
+     * @return Кадр спрайта (прямокутник у спільному спрайт-листі).
      */
     @Override
-    public Image getCurrentFrame() {
-        Image[] frames = animations.getOrDefault(currentAnimation, animations.get("idle"));
+    public SpriteFrame getCurrentFrame() {
+        SpriteFrame[] frames = animations.getOrDefault(currentAnimation, animations.get("idle"));
         if (frames == null || frames.length == 0) {
             System.err.println("Немає кадрів для анімації: " + currentAnimation);
             return null;
@@ -489,6 +581,21 @@ public class Player implements Animatable, GameObject, Interactable {
         return frames[animationFrame];
     }
 
+    /**
+     * Повертає поточний кадр з урахуванням напрямку погляду: для погляду ліворуч —
+     * віддзеркалену копію, створену при завантаженні.
+     */
+    private SpriteFrame getFacingFrame() {
+        if (direction != Direction.LEFT) {
+            return getCurrentFrame();
+        }
+        SpriteFrame[] frames = mirroredAnimations.getOrDefault(currentAnimation, mirroredAnimations.get("idle"));
+        if (frames == null || frames.length == 0) {
+            return getCurrentFrame();
+        }
+        return frames[animationFrame];
+    }
+
     /**
      * Встановлює поточний стан анімації гравця.
      * @param state Назва стану анімації (наприклад, "run", "idle").
@@ -525,6 +632,16 @@ public class Player implements Animatable, GameObject, Interactable {
         return false;
     }
 
+    /**
+     * Гравець не має області взаємодії.
+     * @param out Прямокутник для меж (не змінюється).
+     * @return false.
+     */
+    @Override
+    public boolean getInteractionBounds(AABB out) {
+        return false;
+    }
+
 
 
     /**
@@ -585,6 +702,8 @@ public class Player implements Animatable, GameObject, Interactable {
         this.imageHeight = data.optDouble("height", imageHeight);
         this.collWidth = data.optDouble("widthColl", collWidth);
         this.collHeight = data.optDouble("hightColl", collHeight);
+        this.placedOutsideMove = true;
+        storePreviousPosition();
         this.canMove = data.optBoolean("canMove", true);
         this.detectionCount = data.optInt("detectionCount", 0);
         this.mapData = data;
@@ -646,6 +765,7 @@ public class Player implements Animatable, GameObject, Interactable {
     public void setPosition(Vector2D position) {
         this.collX = position.getX();
         this.collY = position.getY();
+        this.placedOutsideMove = true;
     }
 
 
@@ -659,6 +779,24 @@ public class Player implements Animatable, GameObject, Interactable {
         this.imageY = position.getY();
     }
 
+    /**
+     * Запам'ятовує поточну позицію спрайту як попередню перед кроком симуляції.
+     */
+    @Override
+    public void storePreviousPosition() {
+        this.prevImageX = imageX;
+        this.prevImageY = imageY;
+    }
+
+    /**
+     * Встановлює коефіцієнт інтерполяції між попередньою та поточною позицією.
+     * @param alpha Значення від 0 (попередній крок) до 1 (поточний крок).
+     */
+    @Override
+    public void setRenderAlpha(double alpha) {
+        this.renderAlpha = alpha;
+    }
+
     /**
      * Повертає межі колізійного прямокутника гравця.
      * @return Об'єкт Bounds.
@@ -668,6 +806,34 @@ public class Player implements Animatable, GameObject, Interactable {
         return new BoundingBox(collX, collY, collWidth, collHeight);
     }
 
+    /**
+     * Записує межі колізійного прямокутника гравця без створення нового об'єкта.
+     * @param out Прямокутник для меж.
+     * @return Той самий прямокутник.
+     */
+    @Override
+    public AABB getCollisionBounds(AABB out) {
+        return out.setRect(collX, collY, collWidth, collHeight);
+    }
+
+    /**
+     * Повертає ID кімнати, у якій перебуває гравець.
+     * @return ID кімнати або NO_ROOM.
+     */
+    @Override
+    public int getCurrentRoomId() {
+        return currentRoomId;
+    }
+
+    /**
+     * Встановлює ID кімнати гравця.
+     * @param roomId ID кімнати або NO_ROOM.
+     */
+    @Override
+    public void setCurrentRoomId(int roomId) {
+        this.currentRoomId = roomId;
+    }
+
     /**
      * Повертає межі візуального спрайту гравця.
      * @return Об'єкт Bounds.
@@ -677,6 +843,62 @@ public class Player implements Animatable, GameObject, Interactable {
         return new BoundingBox(imageX, imageY, imageWidth, imageHeight);
     }
 
+    /**
+     * Записує позицію колізійного прямокутника гравця у переданий вектор.
+     * @param out Вектор для позиції.
+     * @return Той самий об'єкт.
+     */
+    @Override
+    public Vector2D getPosition(Vector2D out) {
+        return out.set(collX, collY);
+    }
+
+    /**
+     * Повертає лівий край колізійного прямокутника гравця.
+     * @return Координата x.
+     */
+    @Override
+    public double getMinX() {
+        return collX;
+    }
+
+    /**
+     * Повертає верхній край колізійного прямокутника гравця.
+     * @return Координата y.
+     */
+    @Override
+    public double getMinY() {
+        return collY;
+    }
+
+    /**
+     * Повертає правий край колізійного прямокутника гравця.
+     * @return Координата x.
+     */
+    @Override
+    public double getMaxX() {
+        return collX + collWidth;
+    }
+
+    /**
+     * Повертає нижній край колізійного прямокутника гравця.
+     * @return Координата y.
+     */
+    @Override
+    public double getMaxY() {
+        return collY + collHeight;
+    }
+
+    /**
+     * Записує межі візуального спрайту гравця без створення нового об'єкта.
+     * @param out Прямокутник для меж.
+     * @return Той самий об'єкт.
+     */
+    @Override
+    public AABB getImageBounds(AABB out) {
+        return out.setRect(imageX, imageY, imageWidth, imageHeight);
+    }
+
     /**
      * Повертає радіус взаємодії. Для гравця він дорівнює 0.
      * @return 0.0
@@ -4,23 +4,22 @@ import interfaces.*;
 import javafx.geometry.Bounds;
 import javafx.geometry.BoundingBox;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
-import main.GameWindow;
 import managers.GameManager;
 import managers.SoundManager;
-import managers.UIManager;
 import org.json.JSONObject;
+import utils.AABB;
 import utils.GameLoader;
+import utils.RoomGrid;
+import utils.SpriteFrame;
 import utils.Vector2D;
 
 import javax.swing.*;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 // Представляє поліцейського NPC, який патрулює або переслідує гравця
-public class Police implements Animatable, GameObject, Interactable {
+public class Police implements Animatable, GameObject, Interactable, Interpolatable, RoomOccupant {
     // Поля
     private double imageX; // Верхній лівий кут зображення по X
     private double imageY; // Верхній лівий кут зображення по Y
@@ -30,12 +29,19 @@ public class Police implements Animatable, GameObject, Interactable {
     private double imageHeight; // Висота зображення, з JSON
     private double collWidth; // Ширина колізійної області, з JSON
     private double collHeight; // Висота колізійної області, з JSON
+    private double prevImageX; // Позиція зображення на попередньому кроці симуляції по X
+    private double prevImageY; // Позиція зображення на попередньому кроці симуляції по Y
+    private double renderAlpha = 1.0; // Коефіцієнт інтерполяції для рендерингу
+    private int currentRoomId = NO_ROOM; // Кімната поліцейського, оновлюється GameManager при перетині межі
+    private final AABB interactionBounds = new AABB(); // Область взаємодії для перевірки в canInteract
+    private final AABB playerBounds = new AABB(); // Межі гравця для перевірки в canInteract
     private PoliceDirection direction; // Напрям руху (LEFT, RIGHT), з JSON
     private PoliceState state; // Стан (PATROL, CHASE, ALERT, STUNNED, IDLE), з JSON
     private String currentAnimation; // Поточна анімація ("idle", "patrol", "stunned", "alarm")
     private int animationFrame; // Поточний кадр анімації
     private double animationTime; // Час для анімації
-    private Map<String, Image[]> animations; // Анімації, завантажені через GameLoader
+    private Map<String, SpriteFrame[]> animations; // Анімації, завантажені через GameLoader
+    private Map<String, SpriteFrame[]> mirroredAnimations; // Віддзеркалені кадри анімацій, створені при завантаженні
     private String[] spritePaths; // Шляхи до спрайтів
     private double normalSpeed = 40.0; // Швидкість патрулювання
     private double chaseSpeed = 70.0; // Швидкість переслідування
@@ -64,11 +70,9 @@ public class Police implements Animatable, GameObject, Interactable {
      */
     @Override
     public boolean canInteract(Player player) {
-        Bounds playerBounds = player.getBounds();
-        Bounds policeBounds = this.getBounds();
-        Bounds newBounds = new BoundingBox(playerBounds.getMinX(), playerBounds.getMinY(), playerBounds.getWidth(), playerBounds.getHeight());
+        getInteractionBounds(interactionBounds);
         // Перевіряємо перекриття bounds'ів
-        boolean hasOverlap = newBounds.intersects(policeBounds);
+        boolean hasOverlap = player.getCollisionBounds(playerBounds).touches(interactionBounds);
 
         if (!hasOverlap) {
             return false;
@@ -80,6 +84,17 @@ public class Police implements Animatable, GameObject, Interactable {
         return true;
     }
 
+    /**
+     * Записує область взаємодії — колізійні межі поліцейського
+     * @param out прямокутник для меж
+     * @return true
+     */
+    @Override
+    public boolean getInteractionBounds(AABB out) {
+        getCollisionBounds(out);
+        return true;
+    }
+
     /**
      * Метод, що вказує максимальнк відстань, з якої гравець може взаємодіяти з поліцейським
      * @return 0 - взаємодія можлива при безпосередньому зіткненні
@@ -114,17 +129,21 @@ public class Police implements Animatable, GameObject, Interactable {
         this.imageWidth = defaultData.getDouble("width");
         this.collWidth = defaultData.getDouble("widthColl");
         this.collHeight = defaultData.getDouble("hightColl");
+        storePreviousPosition();
         this.direction = PoliceDirection.valueOf(defaultData.optString("direction", "LEFT"));
         this.state = PoliceState.valueOf(defaultData.optString("state", "PATROL"));
         this.currentAnimation = defaultData.optString("currentAnimation", "patrol");
         this.animations = new HashMap<>();
         this.spritePaths = new String[]{"police/idle.png", "police/run.png", "police/lay.png", "police/alarm.png", "police/question.png"};
+        this.mirroredAnimations = new HashMap<>();
+        // Кадри беруться зі спільного кешу: усі поліцейські використовують ті самі зображення
         GameLoader loader = new GameLoader();
-        animations.put("idle", loader.splitSpriteSheet(spritePaths[0], 12));
-        animations.put("patrol", loader.splitSpriteSheet(spritePaths[1], 9));
-        animations.put("stunned", loader.splitSpriteSheet(spritePaths[2], 1));
-        animations.put("alarm", loader.splitSpriteSheet(spritePaths[3], 2));
-        animations.put("question", loader.splitSpriteSheet(spritePaths[4], 1));
+        String[] names = {"idle", "patrol", "stunned", "alarm", "question"};
+        int[] frameCounts = {12, 9, 1, 2, 1};
+        for (int i = 0; i < names.length; i++) {
+            animations.put(names[i], loader.getAnimationClip(spritePaths[i], frameCounts[i]));
+            mirroredAnimations.put(names[i], loader.getMirroredAnimationClip(spritePaths[i], frameCounts[i]));
+        }
 
         this.animationFrame = 0;
         this.animationTime = 0;
@@ -132,41 +151,31 @@ public class Police implements Animatable, GameObject, Interactable {
 
 
     /**
-     * Перевіряє, чи гравець у тій самій кімнаті
+     * Перевіряє, чи гравець у тій самій кімнаті: порівнює ID кімнат, які GameManager
+     * оновлює на початку стадії AI
      */
-    private boolean isPlayerInSameRoom(List<GameManager.Room> rooms, Player player) {
-        Bounds playerBounds = player.getBounds();
-        Bounds policeBounds = getBounds();
-        for (GameManager.Room room : rooms) {
-            if (room.getBounds().contains(policeBounds.getCenterX(), policeBounds.getCenterY()) &&
-                    room.getBounds().contains(playerBounds.getCenterX(), playerBounds.getCenterY())) {
-                return true;
-            }
-        }
-        return false;
+    private boolean isPlayerInSameRoom(Player player) {
+        return currentRoomId != NO_ROOM && currentRoomId == player.getCurrentRoomId();
     }
 
-    // Оновлює логіку поліцейського (викликається з GameManager.update())
+    // Оновлює логіку поліцейського (викликається зі стадії AI конвеєра кроку GameManager)
 
     /**
      * Оновлює стан поліцейського на кожному кадрі гри
      * @param deltaTime скільки часу пройшло з минулого кадру
-     * @param rooms список кімнат, у яких може перебувати гравець або поліцейський
+     * @param rooms індекс кімнат, у яких може перебувати гравець або поліцейський
      * @param player об'єкт гравця
      */
-    public void update(double deltaTime, List rooms, Player player) {
-        UIManager uiManager = GameWindow.getInstance().getUIManager();
+    public void update(double deltaTime, RoomGrid rooms, Player player) {
         if (state == PoliceState.STUNNED) {
             stunDuration -= deltaTime;
             if (stunDuration <= 0) {
-                inSameRoom = isPlayerInSameRoom(rooms, player);
+                inSameRoom = isPlayerInSameRoom(player);
                 if (inSameRoom) {
                     state = PoliceState.CHASE;
                     setAnimationState("patrol");
                     // Визначаємо напрямок до гравця
-                    double playerX = player.getPosition().x;
-                    double policeX = getPosition().x;
-                    if (playerX < policeX) {
+                    if (player.getMinX() < collX) {
                         direction = PoliceDirection.LEFT;
                     } else {
                         direction = PoliceDirection.RIGHT;
@@ -189,18 +198,22 @@ public class Police implements Animatable, GameObject, Interactable {
         }
 
         // Перевірка, чи гравець у тій самій кімнаті
-        inSameRoom = isPlayerInSameRoom(rooms, player);
+        inSameRoom = isPlayerInSameRoom(player);
 
         // Якщо гравець у тій самій кімнаті, перевіряємо виявлення
         if (inSameRoom) {
             canSeePlayer = false;
-            double playerX = player.getPosition().x;
-            double policeX = getPosition().x;
-            double playerCenterX = player.getBounds().getCenterX();
-            double policeMinX = getBounds().getMinX();
-            double policeMaxX = getBounds().getMaxX();
-            double policeMidX = policeMinX + getBounds().getWidth() / 2.0;
-            double policeWidth = getBounds().getWidth();
+            // Межі читаються як примітиви, без створення Bounds на кожному кадрі
+            double playerX = player.getMinX();
+            double policeX = collX;
+            double playerMinX = playerX;
+            double playerMaxX = player.getMaxX();
+            double playerWidth = playerMaxX - playerMinX;
+            double playerCenterX = playerMinX + playerWidth * 0.5;
+            double policeMinX = collX;
+            double policeMaxX = getMaxX();
+            double policeMidX = policeMinX + collWidth / 2.0;
+            double policeWidth = collWidth;
 
             // Перевірка позиції гравця (лівіше для LEFT, правіше для RIGHT)
             if (direction == PoliceDirection.LEFT && playerX < policeX ||
@@ -209,17 +222,14 @@ public class Police implements Animatable, GameObject, Interactable {
             }
 
             // Перевірка перетину меж
-            if (player.getBounds().intersects(getBounds())) {
+            if (playerMinX <= policeMaxX && policeMinX <= playerMaxX
+                    && player.getMinY() <= getMaxY() && collY <= player.getMaxY()) {
                 // Перевірка на майже повний перетин - гра програна
-                double playerMinX = player.getBounds().getMinX();
-                double playerMaxX = player.getBounds().getMaxX();
                 double overlapWidth = Math.min(playerMaxX, policeMaxX) - Math.max(playerMinX, policeMinX);
-                double playerWidth = player.getBounds().getWidth();
 
                 // Якщо гравець перетинається більш ніж на 80% своєї ширини
                 if (overlapWidth >= playerWidth * 0.8) {
-                    GameManager.getInstance().setTemporaryMoney(0);
-                    uiManager.createWindow(UIManager.WindowType.GAME_OVER, new JSONObject());
+                    GameManager.getInstance().triggerGameOver();
                     return;
                 }
 
@@ -282,8 +292,9 @@ public class Police implements Animatable, GameObject, Interactable {
      * Метод оновлює позиції зображення та колізійної області на основі напрямку руху.
      * @param deltaTime час, що пройшов з останнього оновлення
      * @param speed швидкість руху
+     * @param rooms індекс кімнат рівня
      */
-    public void patrol(double deltaTime, double speed, List<GameManager.Room> rooms) {
+    public void patrol(double deltaTime, double speed, RoomGrid rooms) {
         setAnimationState("patrol");
         double movement = speed * deltaTime;
         double deltaX = 0;
@@ -299,21 +310,8 @@ public class Police implements Animatable, GameObject, Interactable {
         double futureCollX = collX + deltaX;
         double futureImageX = imageX + deltaX;
 
-        // Створюємо майбутні межі
-        Bounds futureBounds = new BoundingBox(futureCollX, collY, collWidth, collHeight);
-
         // Перевіряємо, чи майбутня позиція буде в межах якоїсь кімнати
-        boolean willBeInRoom = false;
-        for (GameManager.Room room : rooms) {
-            Bounds roomBounds = room.getBounds();
-            if (futureBounds.getMinX() >= roomBounds.getMinX() &&
-                    futureBounds.getMinY() >= roomBounds.getMinY() &&
-                    futureBounds.getMaxX() <= roomBounds.getMaxX() &&
-                    futureBounds.getMaxY() <= roomBounds.getMaxY()) {
-                willBeInRoom = true;
-                break;
-            }
-        }
+        boolean willBeInRoom = rooms.containsRect(futureCollX, collY, futureCollX + collWidth, collY + collHeight);
 
         // Якщо майбутня позиція буде поза кімнатою, змінюємо напрямок
         if (!willBeInRoom) {
@@ -340,7 +338,7 @@ public class Police implements Animatable, GameObject, Interactable {
     public void updateAnimation(double deltaTime) {
 
         animationTime += deltaTime;
-        Image[] frames = animations.getOrDefault(currentAnimation, animations.get("idle"));
+        SpriteFrame[] frames = animations.getOrDefault(currentAnimation, animations.get("idle"));
         if (frames == null || frames.length == 0) return;
         int frameCount = frames.length;
         animationFrame = (int) (animationTime / frameDuration) % frameCount;
@@ -390,48 +388,138 @@ public class Police implements Animatable, GameObject, Interactable {
      */
     @Override
     public void render(GraphicsContext gc) {
-        Image frame = getCurrentFrame();
+        SpriteFrame frame = getFacingFrame();
         if (frame != null) {
-            gc.setImageSmoothing(false);
-            Bounds bounds = getImageBounds();
-            double renderX = bounds.getMinX();
-            double renderY = bounds.getMinY();
-            double renderWidth = imageWidth;
-            double renderHeight = imageHeight;
-
-            // Рендеримо основне зображення поліцейського
-            //якщо LEFT, то віддзеркалює зображення по горизонталі
-            if (direction == PoliceDirection.LEFT) {
-                gc.save();
-                gc.translate(renderX + renderWidth, renderY);
-                gc.scale(-1, 1);
-                gc.drawImage(frame, 0, 0, renderWidth, renderHeight);
-                gc.restore();
-            } else {
-                gc.drawImage(frame, renderX, renderY, renderWidth, renderHeight);
+            double renderX = prevImageX + (imageX - prevImageX) * renderAlpha;
+            double renderY = prevImageY + (imageY - prevImageY) * renderAlpha;
+            drawPolice(gc, frame, renderX, renderY, imageWidth, imageHeight, getQuestionFrame(false),
+                    getQuestionFrame(true), collX + (renderX - imageX), collY + (renderY - imageY), collWidth);
+        }
+    }
+
+    /**
+     * Записує межі поліцейського (і знака питання над головою) в інтерпольованій позиції
+     * @param out прямокутник для меж
+     * @return true — межі відомі
+     */
+    @Override
+    public boolean getRenderBounds(AABB out) {
+        SpriteFrame frame = getFacingFrame();
+        if (frame != null) {
+            double renderX = prevImageX + (imageX - prevImageX) * renderAlpha;
+            double renderY = prevImageY + (imageY - prevImageY) * renderAlpha;
+            policeBounds(out, renderX, renderY, imageWidth, imageHeight, state == PoliceState.ALERT,
+                    collX + (renderX - imageX), collY + (renderY - imageY), collWidth);
+        }
+        return true;
+    }
+
+    /**
+     * Повертає ключ вигляду поліцейського: кадр з урахуванням напрямку і знак питання
+     * @return ключ вигляду
+     */
+    @Override
+    public long getRenderStateKey() {
+        return policeKey(getFacingFrame(), getQuestionFrame(false));
+    }
+
+    /**
+     * Обчислює межі, які займе drawPolice: спрайт і, за потреби, знак питання над головою
+     */
+    private static void policeBounds(AABB out, double x, double y, double width, double height,
+                                     boolean withQuestion, double collX, double collY, double collWidth) {
+        out.setRect(x, y, width, height);
+        if (withQuestion) {
+            double questionWidth = width * 0.2;
+            out.unionRect(collX + (collWidth - questionWidth) / 2, collY - 25, questionWidth, height * 0.2);
+        }
+    }
+
+    /**
+     * Обчислює ключ вигляду з кадру (віддзеркалені кадри мають окремий ідентифікатор анімації) та кадру знака питання
+     */
+    private static long policeKey(SpriteFrame frame, SpriteFrame questionFrame) {
+        long key = SpriteFrame.stateKey(frame);
+        return key * 31 + SpriteFrame.stateKey(questionFrame);
+    }
+
+    /**
+     * Створює незмінну копію стану рендерингу поліцейського для потоку рендерингу
+     * Позиція береться з останнього кроку симуляції без інтерполяції
+     * @return стан рендерингу поліцейського
+     */
+    @Override
+    public Renderable captureRenderState() {
+        return new RenderState(getFacingFrame(), imageX, imageY, imageWidth, imageHeight,
+                getQuestionFrame(false), getQuestionFrame(true), collX, collY, collWidth);
+    }
+
+    /**
+     * Малює поліцейського і, якщо передано кадр знака питання, знак питання над головою
+     */
+    private static void drawPolice(GraphicsContext gc, SpriteFrame frame, double x, double y, double width, double height,
+                                   SpriteFrame questionFrame, SpriteFrame mirroredQuestionFrame,
+                                   double collX, double collY, double collWidth) {
+        gc.setImageSmoothing(false);
+
+        // Рендеримо основне зображення поліцейського; для LEFT кадр уже віддзеркалений при завантаженні
+        frame.draw(gc, x, y, width, height);
+
+        // Рендеримо знак питання, якщо поліцейський у стані ALERT
+        if (questionFrame != null) {
+            double questionWidth = width * 0.2; // Зменшуємо розмір знака питання
+            double questionHeight = height * 0.2;
+            double questionX = collX + (collWidth - questionWidth) / 2; // Центруємо над головою
+            double questionY = collY - 25; // Розміщуємо над головою з відступом
+            if (mirroredQuestionFrame != null) {
+                mirroredQuestionFrame.draw(gc, questionX, questionY, questionWidth, questionHeight);
             }
+            questionFrame.draw(gc, questionX, questionY, questionWidth, questionHeight);
+        }
+    }
 
-            // Рендеримо знак питання, якщо поліцейський у стані ALERT
-            if (state == PoliceState.ALERT) {
-                Image questionFrame = animations.get("question")[0]; // Беремо перший кадр question
-                double questionWidth = imageWidth * 0.2; // Зменшуємо розмір знака питання
-                double questionHeight = imageHeight * 0.2;
-                double questionX = collX + (collWidth - questionWidth) / 2; // Центруємо над головою
-                double questionY = collY - 25; // Розміщуємо над головою з відступом
-                gc.save();
-                gc.translate(questionX + questionWidth, questionY);
-                gc.scale(-1, 1);
-                gc.drawImage(questionFrame, 0, 0, questionWidth, questionHeight);
-                gc.restore();
-                gc.drawImage(questionFrame, questionX, questionY, questionWidth, questionHeight);
+    /**
+     * Незмінний стан рендерингу поліцейського, зафіксований після кроку симуляції
+     */
+    private record RenderState(SpriteFrame frame, double x, double y, double width, double height, SpriteFrame questionFrame,
+                               SpriteFrame mirroredQuestionFrame, double collX, double collY, double collWidth)
+            implements Renderable {
+        @Override
+        public void render(GraphicsContext gc) {
+            if (frame != null) {
+                drawPolice(gc, frame, x, y, width, height, questionFrame, mirroredQuestionFrame,
+                        collX, collY, collWidth);
             }
         }
+
+        @Override
+        public int getRenderLayer() {
+            return 1;
+        }
+
+        @Override
+        public boolean isVisible() {
+            return true;
+        }
+
+        @Override
+        public boolean getRenderBounds(AABB out) {
+            if (frame != null) {
+                policeBounds(out, x, y, width, height, questionFrame != null, collX, collY, collWidth);
+            }
+            return true;
+        }
+
+        @Override
+        public long getRenderStateKey() {
+            return policeKey(frame, questionFrame);
+        }
     }
 
     // Повертає поточний кадр анімації
     @Override
-    public Image getCurrentFrame() {
-        Image[] frames = animations.getOrDefault(currentAnimation, animations.get("idle"));
+    public SpriteFrame getCurrentFrame() {
+        SpriteFrame[] frames = animations.getOrDefault(currentAnimation, animations.get("idle"));
         if (frames == null || frames.length == 0) {
             System.err.println("Немає кадрів для анімації: " + currentAnimation);
             return null;
@@ -439,6 +527,24 @@ public class Police implements Animatable, GameObject, Interactable {
         return frames[animationFrame];
     }
 
+    // Повертає поточний кадр з урахуванням напрямку: для LEFT — віддзеркалену копію, створену при завантаженні
+    private SpriteFrame getFacingFrame() {
+        if (direction != PoliceDirection.LEFT) {
+            return getCurrentFrame();
+        }
+        SpriteFrame[] frames = mirroredAnimations.getOrDefault(currentAnimation, mirroredAnimations.get("idle"));
+        if (frames == null || frames.length == 0) {
+            return getCurrentFrame();
+        }
+        return frames[animationFrame];
+    }
+
+    // Повертає кадр знака питання (звичайний або віддзеркалений) у стані ALERT, інакше null
+    private SpriteFrame getQuestionFrame(boolean mirrored) {
+        if (state != PoliceState.ALERT) return null;
+        SpriteFrame[] frames = (mirrored ? mirroredAnimations : animations).get("question");
+        return frames == null || frames.length == 0 ? null : frames[0];
+    }
 
     /**
      * Метод, що встановлює стан анімації
@@ -498,6 +604,7 @@ public class Police implements Animatable, GameObject, Interactable {
         this.imageHeight = data.optDouble("height", imageHeight);
         this.collWidth = data.optDouble("widthColl", collWidth);
         this.collHeight = data.optDouble("hightColl", collHeight);
+        storePreviousPosition();
         this.stunDuration = data.optDouble("stunDuration", stunDuration);
         this.wasPlayerDetectedLastFrame = data.optBoolean("wasPlayerDetectedLastFrame", false); // Відновлюємо нове поле
         try {
@@ -561,6 +668,24 @@ public class Police implements Animatable, GameObject, Interactable {
         this.imageY = position.y;
     }
 
+    /**
+     * Запам'ятовує поточну позицію зображення як попередню перед кроком симуляції
+     */
+    @Override
+    public void storePreviousPosition() {
+        this.prevImageX = imageX;
+        this.prevImageY = imageY;
+    }
+
+    /**
+     * Встановлює коефіцієнт інтерполяції між попередньою та поточною позицією
+     * @param alpha значення від 0 (попередній крок) до 1 (поточний крок)
+     */
+    @Override
+    public void setRenderAlpha(double alpha) {
+        this.renderAlpha = alpha;
+    }
+
     /**
      * Повертає межі колізійної області поліцейського
      * @return Bounds, що описує прямокутник колізії (collX, collY, collWidth, collHeight)
@@ -570,6 +695,34 @@ public class Police implements Animatable, GameObject, Interactable {
         return new BoundingBox(collX, collY, collWidth, collHeight);
     }
 
+    /**
+     * Записує межі колізійного прямокутника без створення нового об'єкта
+     * @param out прямокутник для меж
+     * @return той самий прямокутник
+     */
+    @Override
+    public AABB getCollisionBounds(AABB out) {
+        return out.setRect(collX, collY, collWidth, collHeight);
+    }
+
+    /**
+     * Повертає ID кімнати, у якій перебуває поліцейський
+     * @return ID кімнати або NO_ROOM
+     */
+    @Override
+    public int getCurrentRoomId() {
+        return currentRoomId;
+    }
+
+    /**
+     * Встановлює ID кімнати поліцейського
+     * @param roomId ID кімнати або NO_ROOM
+     */
+    @Override
+    public void setCurrentRoomId(int roomId) {
+        this.currentRoomId = roomId;
+    }
+
     /**
      * Повертає межі області зображення для рендерингу
      * @return Bounds, що описує прямокутник зображення (imageX, imageY, imageWidth, imageHeight)
@@ -579,6 +732,62 @@ public class Police implements Animatable, GameObject, Interactable {
         return new BoundingBox(imageX, imageY, imageWidth, imageHeight);
     }
 
+    /**
+     * Записує колізійну позицію поліцейського у переданий вектор
+     * @param out вектор для позиції
+     * @return той самий об'єкт
+     */
+    @Override
+    public Vector2D getPosition(Vector2D out) {
+        return out.set(collX, collY);
+    }
+
+    /**
+     * Повертає лівий край колізійного прямокутника
+     * @return координата x
+     */
+    @Override
+    public double getMinX() {
+        return collX;
+    }
+
+    /**
+     * Повертає верхній край колізійного прямокутника
+     * @return координата y
+     */
+    @Override
+    public double getMinY() {
+        return collY;
+    }
+
+    /**
+     * Повертає правий край колізійного прямокутника
+     * @return координата x
+     */
+    @Override
+    public double getMaxX() {
+        return collX + collWidth;
+    }
+
+    /**
+     * Повертає нижній край колізійного прямокутника
+     * @return координата y
+     */
+    @Override
+    public double getMaxY() {
+        return collY + collHeight;
+    }
+
+    /**
+     * Записує межі області зображення без створення нового об'єкта
+     * @param out прямокутник для меж
+     * @return той самий об'єкт
+     */
+    @Override
+    public AABB getImageBounds(AABB out) {
+        return out.setRect(imageX, imageY, imageWidth, imageHeight);
+    }
+
     /**
      * Повертає номер шару, на якому виконується рендеринг поліцейського
      * @return 1 — номер шару рендерингу
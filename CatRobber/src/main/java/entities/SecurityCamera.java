@@ -3,14 +3,13 @@ package entities;
 import interfaces.*;
 import javafx.geometry.Bounds;
 import javafx.geometry.BoundingBox;
-import javafx.geometry.Point2D;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Polygon;
 import managers.GameManager;
 import org.json.JSONObject;
+import utils.AABB;
 import utils.GameLoader;
+import utils.SpriteFrame;
 import utils.Vector2D;
 
 import java.util.List;
@@ -19,18 +18,24 @@ public class SecurityCamera implements GameObject, Animatable {
     // Поля
     private CameraDirection direction; // поточний напрямок, у якому дивиться камера
     private String currentAnimation; // поточна анімація
-    private Polygon fieldOfView; // полігон, який представляє поле зору камери
+    private double[][] fieldOfViewX, fieldOfViewY; // вершини трикутника поля зору для кожного напрямку (індекс — ordinal)
+    private final AABB playerBounds = new AABB(); // межі гравця для перевірки поля зору та грат
+    private final AABB gratingBounds = new AABB(); // межі закритих грат
     private double animationTime; // час, який пройшов з моменту початку анімації
     private int animationFrame; // поточний кадр анімації, який відображається
     private boolean isAlert; // прапорець, чи знаходиться камера в стані тривоги
     private double alertTimer; // таймер, що визначає, скільки часу камера буде залишатися в стані тривоги
-    private Image[] frames; // масив зображень (кадрів)
+    private SpriteFrame[] frames; // масив зображень (кадрів)
+    private SpriteFrame[] mirroredFrames; // віддзеркалені кадри для напрямку LEFT, створені при завантаженні
     private String spritePath; // шлях до спрайту (зображення) камери
     private double imageX, imageY, imageWidth, imageHeight; // координати, висота та ширина камери
     private double floorPointY; // вертикальна координата точки, що вважається "підлогою" (нижня межа поля зору)
     private static final double ALERT_DURATION = 15.0; // Тривалість червоного трикутника
     private static final double FOV_HEIGHT = 100.0; // Висота трикутника (до підлоги)
     private static final double FOV_HALF_ANGLE = Math.toRadians(15.0); // Половина кута 30 градусів
+    private static final double FOV_BASE_WIDTH = FOV_HEIGHT * Math.tan(FOV_HALF_ANGLE); // Ширина основи
+    private static final Color FOV_COLOR = new Color(0.0, 1.0, 0.0, 0.3); // Колір трикутника у звичайному стані
+    private static final Color FOV_ALERT_COLOR = new Color(1.0, 0.0, 0.0, 0.3); // Колір трикутника під час тривоги
     private static final double X_OFFSET = 13.0; // Зміщення по X для вершини трикутника
     private static final double DIRECTION_SWITCH_INTERVAL = 5.0; // Інтервал зміни напрямку (секунди)
 
@@ -48,10 +53,10 @@ public class SecurityCamera implements GameObject, Animatable {
     private class Grating {
         private double x, y; // Координати грат
         private double width, height; // Розміри грат
-        private Image openImage; // Зображення опущених грат
-        private Image closedImage; // Зображення закритих грат
+        private SpriteFrame openImage; // Зображення опущених грат
+        private SpriteFrame closedImage; // Зображення закритих грат
 
-        public Grating(double x, double y, double width, double height, Image openImage, Image closedImage) {
+        public Grating(double x, double y, double width, double height, SpriteFrame openImage, SpriteFrame closedImage) {
             this.x = x;
             this.y = y-height;
             this.width = width;
@@ -62,8 +67,8 @@ public class SecurityCamera implements GameObject, Animatable {
 
         // Рендеринг грат
         public void render(GraphicsContext gc, boolean isAlert) {
-            Image imageToDraw = isAlert ? closedImage : openImage;
-            gc.drawImage(imageToDraw, x, y, width, height);
+            SpriteFrame imageToDraw = isAlert ? closedImage : openImage;
+            imageToDraw.draw(gc, x, y, width, height);
         }
     }
 
@@ -88,13 +93,13 @@ public class SecurityCamera implements GameObject, Animatable {
         this.isAlert = defaultData.optBoolean("isAlert", false);
         // Завантаження трьох зображень, використовуємо лише перше
         this.spritePath = "camera/camera.png";
-        this.frames = loader.splitSpriteSheet(spritePath, 3); // Завантажуємо 3 зображення
+        this.frames = loader.getAnimationClip(spritePath, 3); // Завантажуємо 3 зображення (зі спільного кешу)
+        this.mirroredFrames = loader.getMirroredAnimationClip(spritePath, 3);
         // Ініціалізація поля зору та анімації
-        this.fieldOfView = new Polygon();
         this.animationTime = 0;
         this.animationFrame = 0; // Завжди перший кадр
         this.alertTimer = 0;
-        updateFieldOfView();
+        rebuildFieldOfView();
 
         // Ініціалізація грат
         this.hasGrating = defaultData.optBoolean("hasGrating", false);
@@ -104,43 +109,36 @@ public class SecurityCamera implements GameObject, Animatable {
             double gratingWidth = defaultData.getDouble("gratingWidth");
             double gratingHeight = defaultData.getDouble("gratingHeight");
 
-            Image[] images = loader.splitSpriteSheet("camera/gates.png", 2);
+            SpriteFrame[] images = loader.getAnimationClip("camera/gates.png", 2);
             this.grating = new Grating(gratingX, gratingY, gratingWidth, gratingHeight, images[0], images[1]);
         }
     }
 
     /**
-     * Оновлює полігон поля зору
+     * Перераховує вершини трикутника поля зору для обох напрямків. Викликається лише при зміні
+     * позиції камери; поворот камери просто перемикає готовий трикутник. Масиви щоразу
+     * створюються нові, тому стани рендерингу можуть посилатися на них без копіювання
      */
-    private void updateFieldOfView() {
-        fieldOfView.getPoints().clear();
-        double vertexX, vertexY;
-
-        // Визначаємо вершину трикутника (нижній лівий/правий кут камери ±13 пікселів)
-        vertexY = imageY + imageHeight; // Нижній край камери
-        if (direction == CameraDirection.LEFT) {
-            vertexX = imageX + X_OFFSET; // +13 пікселів від нижнього лівого кута
-        } else { // RIGHT
-            vertexX = imageX + imageWidth - X_OFFSET; // -13 пікселів від нижнього правого кута
-        }
-
-        // Координати основи трикутника (на підлозі)
-        double baseY = floorPointY; // На рівні підлоги
-        double baseWidth = FOV_HEIGHT * Math.tan(FOV_HALF_ANGLE); // Ширина основи
-
-        if (direction == CameraDirection.LEFT) {
-            fieldOfView.getPoints().addAll(
-                    vertexX, vertexY, // Вершина (біля нижнього лівого кута +13)
-                    vertexX - baseWidth - 90, baseY, // Ліва точка основи
-                    vertexX - baseWidth - 50, baseY // Права точка основи
-            );
-        } else { // RIGHT
-            fieldOfView.getPoints().addAll(
-                    vertexX, vertexY, // Вершина (біля нижнього правого кута -13)
-                    vertexX + baseWidth + 50, baseY, // Ліва точка основи
-                    vertexX + baseWidth + 90, baseY // Права точка основи
-            );
-        }
+    private void rebuildFieldOfView() {
+        double[][] xPoints = new double[CameraDirection.values().length][];
+        double[][] yPoints = new double[CameraDirection.values().length][];
+        double vertexY = imageY + imageHeight; // Нижній край камери
+        double baseY = floorPointY; // Основа трикутника на рівні підлоги
+
+        // LEFT: вершина біля нижнього лівого кута +13 пікселів
+        double vertexX = imageX + X_OFFSET;
+        xPoints[CameraDirection.LEFT.ordinal()] = new double[]{
+                vertexX, vertexX - FOV_BASE_WIDTH - 90, vertexX - FOV_BASE_WIDTH - 50};
+        yPoints[CameraDirection.LEFT.ordinal()] = new double[]{vertexY, baseY, baseY};
+
+        // RIGHT: вершина біля нижнього правого кута -13 пікселів
+        vertexX = imageX + imageWidth - X_OFFSET;
+        xPoints[CameraDirection.RIGHT.ordinal()] = new double[]{
+                vertexX, vertexX + FOV_BASE_WIDTH + 50, vertexX + FOV_BASE_WIDTH + 90};
+        yPoints[CameraDirection.RIGHT.ordinal()] = new double[]{vertexY, baseY, baseY};
+
+        fieldOfViewX = xPoints;
+        fieldOfViewY = yPoints;
     }
 
     /**
@@ -153,8 +151,7 @@ public class SecurityCamera implements GameObject, Animatable {
         // Зміна напрямку кожні DIRECTION_SWITCH_INTERVAL секунд
         if (animationTime >= DIRECTION_SWITCH_INTERVAL) {
             direction = (direction == CameraDirection.LEFT) ? CameraDirection.RIGHT : CameraDirection.LEFT;
-            animationTime = 0; // Скидаємо таймер
-            updateFieldOfView(); // Оновлюємо трикутник при зміні напрямку
+            animationTime = 0; // Скидаємо таймер; трикутник нового напрямку вже пораховано
         }
 
         // Оновлення таймера тривоги
@@ -168,26 +165,18 @@ public class SecurityCamera implements GameObject, Animatable {
     }
 
     /**
-     * Перевіряє, чи гравець у полі зору камери
+     * Перевіряє, чи гравець у полі зору камери: точний перетин колізійного прямокутника
+     * гравця з трикутником поля зору за сталий час
      */
     public void detectPlayer(Player player, List<Police> police) {
-        updateFieldOfView();
         if (player == null || player.isInvisible()) {
             return;
         }
-        Bounds playerBounds = player.getBounds();
-        boolean playerInFOV = false;
-        double[] points = fieldOfView.getPoints().stream().mapToDouble(Double::doubleValue).toArray();
-        Polygon tempPolygon = new Polygon(points);
-        for (double x = playerBounds.getMinX(); x <= playerBounds.getMaxX(); x += 1.0) {
-            for (double y = playerBounds.getMinY(); y <= playerBounds.getMaxY(); y += 1.0) {
-                if (tempPolygon.contains(new Point2D(x, y))) {
-                    playerInFOV = true;
-                    break;
-                }
-            }
-            if (playerInFOV) break;
-        }
+        player.getCollisionBounds(playerBounds);
+        double[] xPoints = fieldOfViewX[direction.ordinal()];
+        double[] yPoints = fieldOfViewY[direction.ordinal()];
+        boolean playerInFOV = playerBounds.intersectsTriangle(xPoints[0], yPoints[0],
+                xPoints[1], yPoints[1], xPoints[2], yPoints[2]);
 
         if (playerInFOV && !isAlert) {
             isAlert = true;
@@ -198,20 +187,27 @@ public class SecurityCamera implements GameObject, Animatable {
     }
 
     public void checkPlayerGateCollisions(Player player) {
-        if (isAlert){
-        if (player == null || grating == null || !hasGrating) return;
+        if (player == null || !getClosedGratingBounds(gratingBounds)) return;
 
-        Bounds playerBounds = new BoundingBox(player.getBounds().getMinX(), player.getBounds().getMinY(), player.getBounds().getWidth(), player.getBounds().getHeight()); // або твій метод getBounds()
-        Bounds gatesBounds = new BoundingBox(grating.x, grating.y, grating.width, grating.height);
-
-        if (playerBounds.intersects(gatesBounds)) {
+        // Рух гравця вже зупиняється біля закритих грат; зсув лише виштовхує гравця, якого грати накрили
+        if (player.getCollisionBounds(playerBounds).intersects(gratingBounds)) {
             if (player.getDirection().equals(Player.Direction.RIGHT)) {
                 player.adjustPlayerPosition(1, Player.Direction.LEFT);
             } else {
                 player.adjustPlayerPosition(1, Player.Direction.RIGHT);
             }
         }
-        }
+    }
+
+    /**
+     * Записує межі грат, якщо вони закриті (камера в тривозі) і перекривають прохід
+     * @param out прямокутник для меж грат
+     * @return true, якщо грати закриті
+     */
+    public boolean getClosedGratingBounds(AABB out) {
+        if (!isAlert || !hasGrating || grating == null) return false;
+        out.setRect(grating.x, grating.y, grating.width, grating.height);
+        return true;
     }
 
     /**
@@ -219,38 +215,10 @@ public class SecurityCamera implements GameObject, Animatable {
      */
     @Override
     public void render(GraphicsContext gc) {
-        Image frame = getCurrentFrame();
+        SpriteFrame frame = getFacingFrame();
         if (frame != null) {
-            gc.setImageSmoothing(false);
-            double renderX = imageX;
-            double renderY = imageY;
-            double renderWidth = imageWidth;
-            double renderHeight = imageHeight;
-
-            // Рендеримо перший кадр із дзеркаленням для RIGHT
-            if (direction == CameraDirection.LEFT) {
-                gc.save();
-                gc.translate(renderX + renderWidth, renderY);
-                gc.scale(-1, 1);
-                gc.drawImage(frame, 0, 0, renderWidth, renderHeight);
-                gc.restore();
-            } else { // RIGHT
-                gc.drawImage(frame, renderX, renderY, renderWidth, renderHeight);
-            }
-
-            // Оновлюємо поле зору перед рендерингом
-            updateFieldOfView();
-
-            // Малюємо трикутник поля зору
-            gc.setFill(isAlert ? new Color(1.0, 0.0, 0.0, 0.3) : new Color(0.0, 1.0, 0.0, 0.3));
-            double[] points = fieldOfView.getPoints().stream().mapToDouble(Double::doubleValue).toArray();
-            double[] xPoints = new double[3];
-            double[] yPoints = new double[3];
-            for (int i = 0; i < 3; i++) {
-                xPoints[i] = points[i * 2];
-                yPoints[i] = points[i * 2 + 1];
-            }
-            gc.fillPolygon(xPoints, yPoints, 3);
+            drawCamera(gc, frame, imageX, imageY, imageWidth, imageHeight,
+                    fieldOfViewX[direction.ordinal()], fieldOfViewY[direction.ordinal()], isAlert);
         }
 
         // Рендеримо грати, якщо вони є
@@ -259,11 +227,134 @@ public class SecurityCamera implements GameObject, Animatable {
         }
     }
 
+    /**
+     * Записує межі камери разом із трикутником поля зору та гратами
+     * @param out прямокутник для меж
+     * @return true — межі відомі
+     */
+    @Override
+    public boolean getRenderBounds(AABB out) {
+        if (getFacingFrame() != null) {
+            out.setRect(imageX, imageY, imageWidth, imageHeight);
+            double[] xPoints = fieldOfViewX[direction.ordinal()];
+            double[] yPoints = fieldOfViewY[direction.ordinal()];
+            for (int i = 0; i < xPoints.length; i++) {
+                out.unionPoint(xPoints[i], yPoints[i]);
+            }
+        }
+        if (hasGrating && grating != null) {
+            out.unionRect(grating.x, grating.y, grating.width, grating.height);
+        }
+        return true;
+    }
+
+    /**
+     * Повертає ключ вигляду камери: кадр з урахуванням напрямку, тривога та зображення грат.
+     * Поле зору визначається позицією та напрямком, тому окремо в ключ не входить
+     * @return ключ вигляду
+     */
+    @Override
+    public long getRenderStateKey() {
+        SpriteFrame gratingImage = hasGrating && grating != null ? (isAlert ? grating.closedImage : grating.openImage) : null;
+        return cameraKey(getFacingFrame(), isAlert, gratingImage);
+    }
+
+    /**
+     * Обчислює ключ вигляду камери; віддзеркалений кадр має окремий ідентифікатор анімації
+     */
+    private static long cameraKey(SpriteFrame frame, boolean isAlert, SpriteFrame gratingImage) {
+        long key = SpriteFrame.stateKey(frame);
+        key = key * 31 + (isAlert ? 1 : 0);
+        return key * 31 + SpriteFrame.stateKey(gratingImage);
+    }
+
+    /**
+     * Створює незмінну копію стану рендерингу камери (кадр, поле зору, грати) для потоку рендерингу
+     * @return стан рендерингу камери
+     */
+    @Override
+    public Renderable captureRenderState() {
+        SpriteFrame gratingImage = null;
+        double gratingX = 0, gratingY = 0, gratingWidth = 0, gratingHeight = 0;
+        if (hasGrating && grating != null) {
+            gratingImage = isAlert ? grating.closedImage : grating.openImage;
+            gratingX = grating.x;
+            gratingY = grating.y;
+            gratingWidth = grating.width;
+            gratingHeight = grating.height;
+        }
+        return new RenderState(getFacingFrame(), imageX, imageY, imageWidth, imageHeight,
+                fieldOfViewX[direction.ordinal()], fieldOfViewY[direction.ordinal()], isAlert,
+                gratingImage, gratingX, gratingY, gratingWidth, gratingHeight);
+    }
+
+    /**
+     * Малює кадр камери та трикутник поля зору
+     */
+    private static void drawCamera(GraphicsContext gc, SpriteFrame frame, double x, double y, double width, double height,
+                                   double[] xPoints, double[] yPoints, boolean isAlert) {
+        gc.setImageSmoothing(false);
+
+        // Рендеримо перший кадр; для LEFT він уже віддзеркалений при завантаженні
+        frame.draw(gc, x, y, width, height);
+
+        // Малюємо трикутник поля зору
+        gc.setFill(isAlert ? FOV_ALERT_COLOR : FOV_COLOR);
+        gc.fillPolygon(xPoints, yPoints, 3);
+    }
+
+    /**
+     * Незмінний стан рендерингу камери, зафіксований після кроку симуляції
+     */
+    private record RenderState(SpriteFrame frame, double x, double y, double width, double height,
+                               double[] xPoints, double[] yPoints, boolean isAlert, SpriteFrame gratingImage,
+                               double gratingX, double gratingY, double gratingWidth, double gratingHeight)
+            implements Renderable {
+        @Override
+        public void render(GraphicsContext gc) {
+            if (frame != null) {
+                drawCamera(gc, frame, x, y, width, height, xPoints, yPoints, isAlert);
+            }
+            if (gratingImage != null) {
+                gratingImage.draw(gc, gratingX, gratingY, gratingWidth, gratingHeight);
+            }
+        }
+
+        @Override
+        public int getRenderLayer() {
+            return 1;
+        }
+
+        @Override
+        public boolean isVisible() {
+            return true;
+        }
+
+        @Override
+        public boolean getRenderBounds(AABB out) {
+            if (frame != null) {
+                out.setRect(x, y, width, height);
+                for (int i = 0; i < xPoints.length; i++) {
+                    out.unionPoint(xPoints[i], yPoints[i]);
+                }
+            }
+            if (gratingImage != null) {
+                out.unionRect(gratingX, gratingY, gratingWidth, gratingHeight);
+            }
+            return true;
+        }
+
+        @Override
+        public long getRenderStateKey() {
+            return cameraKey(frame, isAlert, gratingImage);
+        }
+    }
+
     /**
      * Повертає поточний кадр анімації
      */
     @Override
-    public Image getCurrentFrame() {
+    public SpriteFrame getCurrentFrame() {
         if (frames == null || frames.length == 0) {
             System.err.println("Немає кадрів для анімації: " + currentAnimation);
             return null;
@@ -271,6 +362,16 @@ public class SecurityCamera implements GameObject, Animatable {
         return frames[0]; // Завжди перший кадр
     }
 
+    /**
+     * Повертає поточний кадр з урахуванням напрямку: для LEFT — віддзеркалену копію
+     */
+    private SpriteFrame getFacingFrame() {
+        if (direction == CameraDirection.LEFT && mirroredFrames != null && mirroredFrames.length > 0) {
+            return mirroredFrames[0];
+        }
+        return getCurrentFrame();
+    }
+
     /**
      * Встановлює стан анімації
      */
@@ -321,10 +422,10 @@ public class SecurityCamera implements GameObject, Animatable {
         this.isAlert = data.optBoolean("isAlert", isAlert);
         try {
             this.direction = CameraDirection.valueOf(data.optString("direction", direction.toString()));
-            updateFieldOfView();
         } catch (IllegalArgumentException e) {
             System.err.println("Невірне значення direction: " + data.optString("direction") + ". Залишаю поточний.");
         }
+        rebuildFieldOfView();
         this.currentAnimation = data.optString("animation", currentAnimation);
 
         // Завантаження даних про грати
@@ -334,7 +435,7 @@ public class SecurityCamera implements GameObject, Animatable {
             double gratingY = data.optDouble("gratingY", 0);
             double gratingWidth = data.optDouble("gratingWidth", 0);
             double gratingHeight = data.optDouble("gratingHeight", 0);
-            Image[] images = loader.splitSpriteSheet("camera/gates.png", 2);
+            SpriteFrame[] images = loader.getAnimationClip("camera/gates.png", 2);
             this.grating = new Grating(gratingX, gratingY, gratingWidth, gratingHeight, images[0], images[1]);
         } else {
             this.grating = null;
@@ -377,7 +478,7 @@ public class SecurityCamera implements GameObject, Animatable {
     public void setPosition(Vector2D position) {
         this.imageX = position.getX();
         this.imageY = position.getY();
-        updateFieldOfView();
+        rebuildFieldOfView();
     }
 
     /**
@@ -388,7 +489,7 @@ public class SecurityCamera implements GameObject, Animatable {
     public void setImagePosition(Vector2D position) {
         this.imageX = position.getX();
         this.imageY = position.getY();
-        updateFieldOfView();
+        rebuildFieldOfView();
     }
 
     /**
@@ -409,6 +510,62 @@ public class SecurityCamera implements GameObject, Animatable {
         return new BoundingBox(imageX, imageY, imageWidth, imageHeight);
     }
 
+    /**
+     * Записує позицію об'єкта у переданий вектор.
+     * @param out Вектор для позиції.
+     * @return Той самий об'єкт.
+     */
+    @Override
+    public Vector2D getPosition(Vector2D out) {
+        return out.set(imageX, imageY);
+    }
+
+    /**
+     * Повертає лівий край камери.
+     * @return Координата x.
+     */
+    @Override
+    public double getMinX() {
+        return imageX;
+    }
+
+    /**
+     * Повертає верхній край камери.
+     * @return Координата y.
+     */
+    @Override
+    public double getMinY() {
+        return imageY;
+    }
+
+    /**
+     * Повертає правий край камери.
+     * @return Координата x.
+     */
+    @Override
+    public double getMaxX() {
+        return imageX + imageWidth;
+    }
+
+    /**
+     * Повертає нижній край камери.
+     * @return Координата y.
+     */
+    @Override
+    public double getMaxY() {
+        return imageY + imageHeight;
+    }
+
+    /**
+     * Записує межі візуального спрайту без створення нового об'єкта.
+     * @param out Прямокутник для меж.
+     * @return Той самий об'єкт.
+     */
+    @Override
+    public AABB getImageBounds(AABB out) {
+        return out.setRect(imageX, imageY, imageWidth, imageHeight);
+    }
+
     /**
      * Повертає шар рендерингу для камери.
      * @return 1 (камера рендериться на тому ж шарі, що й поліція).
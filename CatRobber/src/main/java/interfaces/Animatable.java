@@ -1,6 +1,6 @@
 package interfaces;
 
-import javafx.scene.image.Image;
+import utils.SpriteFrame;
 
 // Інтерфейс для об’єктів із анімаціями
 public interface Animatable {
@@ -10,6 +10,6 @@ public interface Animatable {
     // Встановлює стан анімації (наприклад, "IDLE", "RUN")
     void setAnimationState(String state);
 
-    // Повертає поточний кадр анімації для рендерингу
-    Image getCurrentFrame();
+    // Повертає поточний кадр анімації для рендерингу (прямокутник у спільному спрайт-листі)
+    SpriteFrame getCurrentFrame();
 }
\ No newline at end of file
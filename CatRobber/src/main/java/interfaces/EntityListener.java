@@ -0,0 +1,10 @@
+package interfaces;
+
+// Інтерфейс для систем, які підтримують власні структури (черга рендерингу, індекси) при зміні складу реєстру сутностей
+public interface EntityListener<E> {
+    // Викликається, коли сутність стала видимою в реєстрі (одразу або після відкладеного застосування змін)
+    void onEntityAdded(E entity);
+
+    // Викликається, коли сутність видалено з реєстру
+    void onEntityRemoved(E entity);
+}
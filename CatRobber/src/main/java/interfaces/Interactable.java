@@ -1,6 +1,7 @@
 package interfaces;
 
 import entities.Player;
+import utils.AABB;
 
 // Інтерфейс для об’єктів, з якими взаємодіє гравець
 public interface Interactable {
@@ -10,6 +11,9 @@ public interface Interactable {
     // Перевіряє можливість взаємодії (залежить від відстані), передає в GameManager
     boolean canInteract(Player player);
 
+    // Записує область, якої має торкнутися колізійний прямокутник гравця для взаємодії; false — області немає
+    boolean getInteractionBounds(AABB out);
+
     // Повертає дистанцію взаємодії, передає в GameManager
     double getInteractionRange();
 
@@ -0,0 +1,10 @@
+package interfaces;
+
+// Інтерфейс для об’єктів, позиція яких інтерполюється між кроками симуляції
+public interface Interpolatable {
+    // Запам’ятовує поточну позицію як попередню, викликається GameManager перед кожним кроком симуляції
+    void storePreviousPosition();
+
+    // Встановлює коефіцієнт інтерполяції (0..1) між попередньою та поточною позицією для рендерингу
+    void setRenderAlpha(double alpha);
+}
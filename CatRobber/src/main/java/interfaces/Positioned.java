@@ -1,6 +1,7 @@
 package interfaces;
 
 import javafx.geometry.Bounds;
+import utils.AABB;
 import utils.Vector2D;
 
 // Інтерфейс для об’єктів із позицією і колізіями
@@ -9,6 +10,9 @@ public interface Positioned {
     Vector2D getPosition();
     Vector2D getImagePosition();
 
+    // Записує позицію у переданий вектор замість створення нового (для викликів щокадру)
+    Vector2D getPosition(Vector2D out);
+
     // Встановлює позицію, отримує від GameManager (наприклад, при русі)
     void setPosition(Vector2D position);
     void setImagePosition(Vector2D position);
@@ -16,4 +20,18 @@ public interface Positioned {
     // Повертає межі для колізій, передає в GameManager
     Bounds getBounds();
     Bounds getImageBounds();
-}
\ No newline at end of file
+
+    // Межі для колізій у примітивах: читаються з полів без створення Bounds
+    double getMinX();
+    double getMinY();
+    double getMaxX();
+    double getMaxY();
+
+    // Записує межі для колізій у переданий прямокутник
+    default AABB getBounds(AABB out) {
+        return out.set(getMinX(), getMinY(), getMaxX(), getMaxY());
+    }
+
+    // Записує межі зображення у переданий прямокутник
+    AABB getImageBounds(AABB out);
+}
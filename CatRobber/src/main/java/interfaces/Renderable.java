@@ -1,6 +1,7 @@
 package interfaces;
 
 import javafx.scene.canvas.GraphicsContext;
+import utils.AABB;
 
 // Інтерфейс для об’єктів, які рендеряться на екрані
 public interface Renderable {
@@ -12,4 +13,22 @@ public interface Renderable {
 
     // Перевіряє, чи об’єкт видимий (наприклад, невидимий гравець)
     boolean isVisible();
-}
\ No newline at end of file
+
+    // Повертає незмінну копію стану, потрібного для малювання, щоб потік рендерингу
+    // не читав об’єкт, який одночасно змінює потік симуляції. За замовчуванням — сам об’єкт
+    default Renderable captureRenderState() {
+        return this;
+    }
+
+    // Записує в out межі, які об’єкт займе на екрані при наступному render(). Повертає false,
+    // якщо межі невідомі — тоді кадр перемальовується повністю (див. utils.DirtyRegionTracker)
+    default boolean getRenderBounds(AABB out) {
+        return false;
+    }
+
+    // Повертає ключ вигляду об’єкта (кадр анімації, напрямок, тривога). Якщо межі й ключ
+    // не змінилися з попереднього кадру, область об’єкта не перемальовується
+    default long getRenderStateKey() {
+        return 0;
+    }
+}
@@ -0,0 +1,8 @@
+package interfaces;
+
+// Інтерфейс для систем, які реагують на вхід об’єктів у кімнату та вихід із неї
+@FunctionalInterface
+public interface RoomChangeListener {
+    // Викликається потоком симуляції, коли об’єкт перетнув межу кімнати; будь-який з ID може бути RoomOccupant.NO_ROOM
+    void onRoomChanged(RoomOccupant occupant, int previousRoomId, int newRoomId);
+}
@@ -0,0 +1,18 @@
+package interfaces;
+
+import utils.AABB;
+
+// Інтерфейс для рухомих об’єктів, які запам’ятовують кімнату, де вони перебувають
+public interface RoomOccupant {
+    // ID «поза кімнатами»: об’єкт ще не перевірявся або стоїть поза всіма кімнатами
+    int NO_ROOM = -1;
+
+    // Повертає ID кімнати, визначений на останній перевірці GameManager
+    int getCurrentRoomId();
+
+    // Встановлює ID кімнати, викликається GameManager лише при перетині межі кімнати
+    void setCurrentRoomId(int roomId);
+
+    // Записує колізійні межі об’єкта; кімнату визначає їхній центр
+    AABB getCollisionBounds(AABB out);
+}
@@ -0,0 +1,17 @@
+package interfaces;
+
+import javafx.scene.canvas.GraphicsContext;
+
+// Інтерфейс для об’єктів, що змінюються рідко (двері, інтерактивні об’єкти). Їх незмінна частина
+// запікається разом із фоном у статичний шар, який перемальовується лише при зміні стану
+public interface StaticRenderable extends Renderable {
+    // Малює незмінну частину об’єкта у статичний шар
+    void renderStatic(GraphicsContext gc);
+
+    // Малює частину, що може змінюватися щокадру (наприклад, підсвічування), у динамічний шар
+    default void renderDynamic(GraphicsContext gc) {
+    }
+
+    // Повертає ключ візуального стану статичної частини; статичний шар перемальовується, коли ключ змінюється
+    long getStaticStateKey();
+}
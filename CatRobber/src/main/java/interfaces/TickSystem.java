@@ -0,0 +1,8 @@
+package interfaces;
+
+// Інтерфейс для систем, які реєструються в стадії конвеєра кроку симуляції (TickPipeline)
+@FunctionalInterface
+public interface TickSystem {
+    // Виконує роботу системи один раз за крок симуляції, отримує deltaTime від TickPipeline
+    void tick(double deltaTime);
+}
@@ -1,8 +1,10 @@
 package main;
 
+import javafx.application.Platform;
 import javafx.scene.Group;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
+import javafx.scene.input.KeyCode;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.shape.Line;
@@ -10,13 +12,18 @@ import javafx.scene.Cursor;
 import javafx.stage.StageStyle;
 import managers.*;
 import org.json.JSONObject;
+import utils.AABB;
+import utils.AllocationProbe;
+import utils.Camera2D;
+import utils.DirtyRegionTracker;
+import utils.FrameProfiler;
 import utils.GameLoader;
 import utils.InputHandler;
+import utils.InputReplay;
 import javafx.stage.Stage;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.animation.AnimationTimer;
 
 
 /**
@@ -29,15 +36,48 @@ public class GameWindow {
     private Scene scene;
     private Canvas canvas;
     private GraphicsContext graphicsContext;
+    private Canvas staticCanvas; // Кешований шар фону та статичних об'єктів під основним canvas
+    private GraphicsContext staticGraphicsContext;
+    // Шаровий рендеринг (вимикається властивістю -Dcatrobber.singleCanvas=true)
+    private final boolean layeredRendering = !Boolean.getBoolean("catrobber.singleCanvas");
+    // Перемальовування лише брудних областей (вимикається властивістю -Dcatrobber.fullRedraw=true)
+    private final boolean dirtyRectRendering = !Boolean.getBoolean("catrobber.fullRedraw");
+    private final DirtyRegionTracker dirtyRegions = new DirtyRegionTracker();
+    private final AABB overlayBounds = new AABB(); // Область HUD профайлера
     private GameManager gameManager;
     private UIManager uiManager;
     private final SoundManager soundManager = SoundManager.getInstance();
     private SaveManager saveManager;
     private InputHandler inputHandler;
-    private AnimationTimer animationTimer;
+    private RenderScheduler renderScheduler; // Активний цикл у грі, рідкісні перевірки в меню та на паузі
     private boolean isRunning;
     private long lastFrameTime;
 
+    // Симуляція з фіксованим кроком
+    private static final double SIMULATION_STEP = GameManager.SIMULATION_STEP; // Крок симуляції (120 Гц)
+    private static final int MAX_CATCH_UP_STEPS = 8; // Максимум кроків симуляції за один кадр
+    private static final double MAX_FRAME_TIME = 0.25; // Обмеження часу кадру після зависань (секунди)
+    private boolean fixedTimestep = true; // Режим фіксованого кроку симуляції
+    private double accumulator; // Накопичений, ще не просимульований час
+
+    // Окремий потік симуляції (вмикається властивістю -Dcatrobber.simulationThread=true)
+    private final boolean threadedSimulation = Boolean.getBoolean("catrobber.simulationThread");
+    private SimulationThread simulationThread;
+
+    // Профайлер фаз кадру (F3 — HUD, F4 — збереження CSV)
+    private final FrameProfiler profiler = FrameProfiler.getInstance();
+    private final int framePhase = profiler.registerPhase("frame");
+    private final int tickPhase = profiler.registerPhase("tick");
+    private final int renderPhase = profiler.registerPhase("render");
+    private final int uiRenderPhase = profiler.registerPhase("uiRender");
+    private final int staticLayerPhase = profiler.registerPhase("staticLayer");
+
+    // Лічильник виділеної пам’яті (вмикається властивістю -Dcatrobber.allocProbe=true, F5 — звіт)
+    private final AllocationProbe allocationProbe = AllocationProbe.getInstance();
+    private final int tickAllocationSite = allocationProbe.registerSite("tick");
+    private final int renderAllocationSite = allocationProbe.registerSite("render");
+    private final int uiRenderAllocationSite = allocationProbe.registerSite("uiRender");
+
     // Нові поля для власного заголовка
     private Rectangle titleBar;
     private Rectangle closeButton;
@@ -76,6 +116,14 @@ public class GameWindow {
         return instance;
     }
 
+    /**
+     * Перевіряє, чи було створено ігрове вікно (у безголовому режимі його немає).
+     * @return true, якщо екземпляр GameWindow існує.
+     */
+    public static boolean hasInstance() {
+        return instance != null;
+    }
+
     /**
      * Створює та налаштовує власний заголовок вікна з кнопкою закриття та можливістю перетягування.
      * @param root Коренева група, до якої буде додано заголовок.
@@ -167,6 +215,11 @@ public class GameWindow {
         canvas.setLayoutY(30); // Зміщуємо canvas вниз на 30px для заголовка
         graphicsContext = canvas.getGraphicsContext2D();
         graphicsContext.setImageSmoothing(false);
+        staticCanvas = new Canvas(1280, 640);
+        staticCanvas.setLayoutY(30);
+        staticCanvas.setMouseTransparent(true);
+        staticGraphicsContext = staticCanvas.getGraphicsContext2D();
+        gameManager.setLayeredRendering(layeredRendering);
 
         FontManager.getInstance().initializeFonts();
 
@@ -179,6 +232,9 @@ public class GameWindow {
         background.setFill(Color.rgb(139, 90, 43)); // Коричневий фон
         root.getChildren().add(background);
 
+        if (layeredRendering) {
+            root.getChildren().add(staticCanvas); // Статичний шар під динамічним
+        }
         root.getChildren().add(canvas);
         createCustomTitleBar(root); // Додаємо заголовок після canvas
         root.getChildren().add(uiManager.getOverlayPane());
@@ -203,9 +259,20 @@ public class GameWindow {
         inputHandler.setupKeyHandlers();
         inputHandler.setupMouseHandlers();
         gameManager.registerInteractionCallback(inputHandler);
+        // Запис вводу у файли повторів (вмикається властивістю -Dcatrobber.recordInput=true)
+        gameManager.setInputRecordingEnabled(Boolean.getBoolean("catrobber.recordInput"));
+        inputHandler.registerDebugCallback(KeyCode.F3, () -> {
+            profiler.toggleOverlay();
+            dirtyRegions.invalidate();
+            gameManager.markRenderDirty();
+        });
+        inputHandler.registerDebugCallback(KeyCode.F4, profiler::exportCsv);
+        inputHandler.registerDebugCallback(KeyCode.F5, allocationProbe::printReport);
 
         canvas.widthProperty().bind(scene.widthProperty());
         canvas.heightProperty().bind(scene.heightProperty().subtract(30)); // Віднімаємо висоту заголовка, але canvas залишається 640px для зображення
+        staticCanvas.widthProperty().bind(canvas.widthProperty());
+        staticCanvas.heightProperty().bind(canvas.heightProperty());
 
         scene.widthProperty().addListener((obs, oldVal, newVal) -> {
             gameManager.updateBackgroundScale(newVal.doubleValue(), 640); // Передаємо оригінальну висоту зображення
@@ -217,10 +284,16 @@ public class GameWindow {
             closeLine2.setEndX(newVal.doubleValue() - 25);
             titleBar.setWidth(newVal.doubleValue());
             background.setWidth(newVal.doubleValue());
+            gameManager.invalidateStaticLayer();
+            dirtyRegions.invalidate();
+            gameManager.markRenderDirty();
         });
         scene.heightProperty().addListener((obs, oldVal, newVal) -> {
             gameManager.updateBackgroundScale(scene.getWidth(), 640); // Передаємо оригінальну висоту зображення
             background.setHeight(newVal.doubleValue());
+            gameManager.invalidateStaticLayer();
+            dirtyRegions.invalidate();
+            gameManager.markRenderDirty();
         });
 
         handleWindowEvents();
@@ -233,6 +306,31 @@ public class GameWindow {
 
         showMainMenu();
         gameManager.updateBackgroundScale(scene.getWidth(), 640); // Передаємо оригінальну висоту зображення
+
+        // Відтворення повтору у вікні (-Dcatrobber.replay=<файл>) замість гри з меню
+        String replayPath = System.getProperty("catrobber.replay");
+        if (replayPath != null) {
+            startReplay(replayPath);
+        }
+    }
+
+    /**
+     * Запускає відтворення повтору: завантажує рівень із зерном повтору та подає записані події
+     * через той самий крок симуляції, що й живий ввід. Ввід зі сцени вимкнено, доки повтор
+     * не дійде до останнього записаного кроку й не перевірить контрольну суму стану.
+     * @param replayPath Шлях до файлу повтору.
+     */
+    private void startReplay(String replayPath) {
+        InputReplay replay = InputReplay.load(replayPath);
+        if (replay == null) {
+            return;
+        }
+        inputHandler.setLiveInputEnabled(false);
+        gameManager.setRandomSeed(replay.getSeed());
+        gameManager.setInputReplay(replay); // До завантаження рівня, щоб повтор не записувався знову
+        gameManager.loadLevel(replay.getLevelId(), replay.isNewGame());
+        System.out.println("Повтор: " + replayPath + " (подій: " + replay.getEventCount()
+                + ", кроків: " + replay.getEndTick() + ")");
     }
 
     /**
@@ -246,40 +344,194 @@ public class GameWindow {
 
     /**
      * Запускає ігровий цикл за допомогою AnimationTimer.
-     * Цей цикл викликає методи update() та render() на кожному кадрі.
+     * У режимі фіксованого кроку час кадру накопичується, і симуляція виконується
+     * кроками по {@link #SIMULATION_STEP} секунд незалежно від частоти кадрів.
+     * Рендеринг інтерполює позиції об'єктів між двома останніми кроками.
+     * Якщо увімкнено окремий потік симуляції, AnimationTimer лише малює знімки, які публікує {@link SimulationThread}.
+     * Поза станом PLAYING цикл переходить у режим простою {@link RenderScheduler} і перемальовує
+     * canvas лише тоді, коли GameManager позначив кадр як змінений.
      */
     public void startGameLoop() {
         isRunning = true;
-        animationTimer = new AnimationTimer() {
-            @Override
-            public void handle(long currentNanoTime) {
-                if (!isRunning) return;
-                double deltaTime = (currentNanoTime - lastFrameTime) / 1_000_000_000.0;
-                lastFrameTime = currentNanoTime;
-                update(deltaTime);
-                render();
+        if (threadedSimulation) {
+            simulationThread = new SimulationThread(gameManager, inputHandler);
+            simulationThread.start();
+        }
+        renderScheduler = new RenderScheduler(this::activeFrame, this::idleFrame);
+        gameManager.setGameStateListener(state -> {
+            if (Platform.isFxApplicationThread()) {
+                onGameStateChanged(state);
+            } else {
+                Platform.runLater(() -> onGameStateChanged(gameManager.getGameState()));
             }
-        };
+        });
         lastFrameTime = System.nanoTime();
-        animationTimer.start();
+        accumulator = 0;
+        renderScheduler.start(gameManager.getGameState() != GameManager.GameState.PLAYING);
+    }
+
+    /**
+     * Перемикає режим планувальника рендерингу відповідно до нового стану гри.
+     * @param state Новий стан гри.
+     */
+    private void onGameStateChanged(GameManager.GameState state) {
+        if (!isRunning) return;
+        boolean idle = state != GameManager.GameState.PLAYING;
+        dirtyRegions.invalidate(); // Новий стан може змінити склад об'єктів кадру
+        if (!idle && renderScheduler.isIdle()) {
+            lastFrameTime = System.nanoTime(); // Час простою не симулюється
+            accumulator = 0;
+        }
+        renderScheduler.setIdle(idle);
+        if (idle) {
+            idleFrame(); // Одразу показуємо кадр нового стану
+        }
+    }
+
+    /**
+     * Кадр активного режиму, викликається AnimationTimer з частотою дисплея.
+     * @param currentNanoTime Час поточного кадру від AnimationTimer.
+     */
+    private void activeFrame(long currentNanoTime) {
+        if (!isRunning) return;
+        long frameStart = profiler.start();
+        if (simulationThread != null) {
+            lastFrameTime = currentNanoTime;
+            if (gameManager.consumeRenderDirty()) {
+                render(); // Логіка виконується в потоці симуляції, малюємо лише новий знімок
+            }
+        } else {
+            runFrame(currentNanoTime);
+        }
+        profiler.record(framePhase, frameStart);
+        profiler.endFrame();
+    }
+
+    /**
+     * Кадр режиму простою: перемальовує canvas, лише якщо світ або HUD позначено як змінені.
+     */
+    private void idleFrame() {
+        if (!isRunning || !gameManager.consumeRenderDirty()) return;
+        long frameStart = profiler.start();
+        render();
+        profiler.record(framePhase, frameStart);
+        profiler.endFrame();
+    }
+
+    /**
+     * Виконує один кадр однопотокового циклу: кроки симуляції та рендеринг.
+     * @param currentNanoTime Час поточного кадру від AnimationTimer.
+     */
+    private void runFrame(long currentNanoTime) {
+        double frameTime = (currentNanoTime - lastFrameTime) / 1_000_000_000.0;
+        lastFrameTime = currentNanoTime;
+        if (frameTime > MAX_FRAME_TIME) {
+            frameTime = MAX_FRAME_TIME; // Після зависання не симулюємо весь пропущений час
+        }
+        if (fixedTimestep) {
+            advanceFixedSteps(frameTime);
+        } else {
+            update(frameTime);
+            gameManager.setInterpolationAlpha(1.0);
+        }
+        gameManager.consumeRenderDirty(); // Інтерполяція змінює кадр щоразу, тому малюємо завжди
+        render();
+    }
+
+    /**
+     * Виконує стільки кроків симуляції фіксованої тривалості, скільки накопичилось часу.
+     * Кількість кроків за кадр обмежена, щоб важкий кадр не спричиняв лавину наздоганяння.
+     * @param frameTime Час, що минув з попереднього кадру, в секундах.
+     */
+    private void advanceFixedSteps(double frameTime) {
+        accumulator += frameTime;
+        int steps = 0;
+        while (accumulator >= SIMULATION_STEP && steps < MAX_CATCH_UP_STEPS) {
+            gameManager.storePreviousPositions();
+            update(SIMULATION_STEP);
+            accumulator -= SIMULATION_STEP;
+            steps++;
+        }
+        if (steps == MAX_CATCH_UP_STEPS && accumulator >= SIMULATION_STEP) {
+            accumulator = 0; // Відкидаємо залишок, який не встигли просимулювати
+        }
+        gameManager.setInterpolationAlpha(accumulator / SIMULATION_STEP);
+    }
+
+    /**
+     * Вмикає або вимикає режим симуляції з фіксованим кроком.
+     * @param fixedTimestep true для фіксованого кроку, false для кроку, що дорівнює часу кадру.
+     */
+    public void setFixedTimestep(boolean fixedTimestep) {
+        this.fixedTimestep = fixedTimestep;
+        this.accumulator = 0;
+    }
+
+    /**
+     * Перевіряє, чи увімкнено режим симуляції з фіксованим кроком.
+     * @return true, якщо симуляція виконується фіксованими кроками.
+     */
+    public boolean isFixedTimestep() {
+        return fixedTimestep;
     }
 
     /**
-     * Оновлює логіку гри на кожному кадрі.
-     * @param deltaTime Час, що минув з попереднього кадру, в секундах.
+     * Перевіряє, чи виконується логіка гри в окремому потоці симуляції.
+     * @return true, якщо запущено SimulationThread.
+     */
+    public boolean isThreadedSimulation() {
+        return simulationThread != null;
+    }
+
+    /**
+     * Оновлює логіку гри на кожному кроці симуляції.
+     * @param deltaTime Час кроку симуляції в секундах.
      */
     public void update(double deltaTime) {
-        gameManager.update(deltaTime);
-        gameManager.handleInput(inputHandler, deltaTime);
+        long start = profiler.start();
+        long allocated = allocationProbe.start();
+        gameManager.tick(inputHandler, deltaTime);
+        allocationProbe.record(tickAllocationSite, allocated);
+        profiler.record(tickPhase, start);
     }
 
     /**
      * Рендерить ігровий світ та інтерфейс на canvas.
+     * У шаровому режимі спершу оновлює статичний шар (лише якщо змінилися фон, двері чи об'єкти),
+     * а основний canvas містить тільки динамічні спрайти. Якщо увімкнено брудні області,
+     * очищуються й перемальовуються лише області, де об'єкти змінилися з попереднього кадру.
      */
     public void render() {
-        graphicsContext.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
-        gameManager.render(graphicsContext);
+        long start;
+        if (layeredRendering) {
+            start = profiler.start();
+            gameManager.renderStaticLayer(staticGraphicsContext, staticCanvas.getWidth(), staticCanvas.getHeight());
+            profiler.record(staticLayerPhase, start);
+        }
+        start = profiler.start();
+        long allocated = allocationProbe.start();
+        if (dirtyRectRendering) {
+            dirtyRegions.beginFrame();
+            if (profiler.getOverlayBounds(overlayBounds)) {
+                // HUD оновлюється щокадру; брудні області задаються у світових координатах камери
+                Camera2D camera = gameManager.getCamera();
+                overlayBounds.setRect(overlayBounds.getMinX() + camera.getX(), overlayBounds.getMinY() + camera.getY(),
+                        overlayBounds.getWidth(), overlayBounds.getHeight());
+                dirtyRegions.addRegion(overlayBounds);
+            }
+            gameManager.render(graphicsContext, dirtyRegions);
+        } else {
+            graphicsContext.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+            gameManager.render(graphicsContext);
+        }
+        allocationProbe.record(renderAllocationSite, allocated);
+        profiler.record(renderPhase, start);
+        start = profiler.start();
+        allocated = allocationProbe.start();
         uiManager.render(graphicsContext);
+        allocationProbe.record(uiRenderAllocationSite, allocated);
+        profiler.record(uiRenderPhase, start);
+        profiler.renderOverlay(graphicsContext);
     }
 
     public void handleWindowEvents() {
@@ -292,9 +544,15 @@ public class GameWindow {
      */
     public void cleanup() {
         isRunning = false;
-        if (animationTimer != null) {
-            animationTimer.stop();
+        if (renderScheduler != null) {
+            renderScheduler.stop();
+        }
+        gameManager.setGameStateListener(null);
+        if (simulationThread != null) {
+            simulationThread.stop();
+            simulationThread = null;
         }
+        gameManager.finishInputRecording();
         gameManager.saveGame();
         soundManager.stopAllSounds();
     }
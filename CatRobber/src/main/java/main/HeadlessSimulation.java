@@ -0,0 +1,206 @@
+package main;
+
+import managers.GameManager;
+import managers.SoundManager;
+import utils.AllocationProbe;
+import utils.FrameProfiler;
+import utils.GameLoader;
+import utils.InputHandler;
+import utils.InputReplay;
+
+/**
+ * Безголовий запускач симуляції: завантажує рівень через {@link managers.LevelManager}
+ * і {@link utils.GameLoader} та проганяє логіку гри з максимальною швидкістю
+ * без Stage, Canvas і UIManager. Використовується для прискорених тестів AI
+ * та вимірювання вартості симуляції окремо від рендерингу.
+ *
+ * <p>Аргументи: {@code --level=<id>} (за замовчуванням 1) і {@code --ticks=<кількість>}
+ * (за замовчуванням 100000), а також {@code --replay=<файл>} — відтворити записаний повтор вводу
+ * з його рівнем і зерном та надрукувати контрольну суму стану. Якщо після останнього записаного кроку сума
+ * не збігається із записаною в повторі, процес завершується з кодом 1.</p>
+ *
+ * <p>JavaFX toolkit не запускається, тож дисплей не потрібен: у безголовому режимі {@link utils.GameLoader}
+ * не декодує зображення, а замість кадрів спрайтів видає заповнювачі з тією самою кількістю кадрів,
+ * тому тривалість анімацій і результат симуляції такі самі, як у вікні. Звук вимкнено.</p>
+ *
+ * <p>{@code --alloc-check[=<байтів>]} перевіряє, що крок симуляції не виділяє пам’яті:
+ * після прогріву ({@code --warmup=<кроків>}, за замовчуванням 1000) вмикається {@link AllocationProbe},
+ * друкуються системи конвеєра з найбільшим виділенням, і якщо загальне виділення за решту прогону
+ * перевищує бюджет (за замовчуванням {@link AllocationProbe#DEFAULT_RUN_BUDGET}), процес завершується
+ * з кодом 1, тож збірка падає, коли в гарячий шлях повертається виділення пам’яті.</p>
+ */
+public class HeadlessSimulation {
+    /** Крок симуляції в секундах, такий самий, як у GameWindow. */
+    private static final double SIMULATION_STEP = GameManager.SIMULATION_STEP;
+
+    /** Бюджет перевірки виділень (байтів за прогін після прогріву) або -1, якщо перевірка вимкнена. */
+    private static long allocationBudget = -1;
+
+    /** Кількість кроків прогріву JIT перед вимірюванням виділень. */
+    private static long warmupTicks = 1000;
+
+    /** Чи перевищено поріг виділень. */
+    private static boolean allocationCheckFailed;
+
+    /** Чи розійшовся повтор із записом. */
+    private static boolean replayCheckFailed;
+
+    /**
+     * Приватний конструктор: клас містить лише точку входу.
+     */
+    private HeadlessSimulation() {
+    }
+
+    /**
+     * Точка входу безголової симуляції.
+     * @param args Аргументи командного рядка.
+     */
+    public static void main(String[] args) {
+        int levelId = 1;
+        long ticks = 100_000;
+        String replayPath = null;
+        for (String arg : args) {
+            if (arg.startsWith("--level=")) {
+                levelId = Integer.parseInt(arg.substring("--level=".length()));
+            } else if (arg.startsWith("--ticks=")) {
+                ticks = Long.parseLong(arg.substring("--ticks=".length()));
+            } else if (arg.startsWith("--replay=")) {
+                replayPath = arg.substring("--replay=".length());
+            } else if (arg.equals("--alloc-check")) {
+                allocationBudget = AllocationProbe.DEFAULT_RUN_BUDGET;
+            } else if (arg.startsWith("--alloc-check=")) {
+                allocationBudget = Long.parseLong(arg.substring("--alloc-check=".length()));
+            } else if (arg.startsWith("--warmup=")) {
+                warmupTicks = Long.parseLong(arg.substring("--warmup=".length()));
+            } else {
+                System.err.println("Невідомий аргумент: " + arg);
+            }
+        }
+
+        SoundManager.setSilent(true);
+        if (replayPath != null) {
+            replay(replayPath);
+        } else {
+            run(levelId, ticks);
+        }
+        if (allocationCheckFailed || replayCheckFailed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Завантажує рівень і виконує задану кількість кроків симуляції, після чого друкує звіт.
+     * @param levelId ID рівня.
+     * @param ticks Кількість кроків симуляції.
+     */
+    private static void run(int levelId, long ticks) {
+        GameManager gameManager = GameManager.getInstance();
+        gameManager.setHeadless(true);
+        gameManager.loadLevel(levelId, true);
+        InputHandler inputHandler = new InputHandler(null); // Без сцени: клавіші не натискаються
+        simulate(gameManager, inputHandler, levelId, ticks);
+    }
+
+    /**
+     * Відтворює записаний повтор вводу: завантажує рівень із зерном повтору, подає події
+     * на межі кроків і друкує контрольну суму стану, яка має збігтися із записаною наприкінці
+     * сеансу.
+     * @param replayPath Шлях до файлу повтору.
+     */
+    private static void replay(String replayPath) {
+        InputReplay replay = InputReplay.load(replayPath);
+        if (replay == null) {
+            System.exit(1);
+        }
+        GameManager gameManager = GameManager.getInstance();
+        gameManager.setHeadless(true);
+        InputHandler inputHandler = new InputHandler(null);
+        inputHandler.setLiveInputEnabled(false);
+        gameManager.registerInteractionCallback(inputHandler); // Повтор E/ESC через ті самі колбеки
+        gameManager.setRandomSeed(replay.getSeed());
+        gameManager.loadLevel(replay.getLevelId(), replay.isNewGame());
+        gameManager.setInputReplay(replay);
+        System.out.println("Повтор: " + replayPath + " (подій: " + replay.getEventCount()
+                + ", зерно: " + replay.getSeed() + ")");
+        simulate(gameManager, inputHandler, replay.getLevelId(), replay.getEndTick());
+        gameManager.setInputReplay(null);
+        System.out.printf("Контрольна сума стану: %016x%n", gameManager.computeStateChecksum());
+        if (!replay.isChecksumMatched()) {
+            if (!replay.isVerified()) {
+                System.err.println("Повтор не дійшов до останнього записаного кроку " + replay.getEndTick());
+            }
+            replayCheckFailed = true;
+        }
+    }
+
+    /**
+     * Виконує задану кількість кроків симуляції, після чого друкує звіт.
+     */
+    private static void simulate(GameManager gameManager, InputHandler inputHandler, int levelId, long ticks) {
+        FrameProfiler profiler = FrameProfiler.getInstance();
+        int tickPhase = profiler.registerPhase("tick");
+        AllocationProbe allocationProbe = AllocationProbe.getInstance();
+        int tickSite = allocationProbe.registerSite("tick");
+        boolean checkAllocations = allocationBudget >= 0;
+        if (checkAllocations && !allocationProbe.isSupported()) {
+            System.err.println("Перевірку виділень не виконано: JVM не рахує пам’ять по потоках");
+            allocationCheckFailed = true;
+            return;
+        }
+        allocationProbe.setEnabled(false);
+
+        long startTime = System.nanoTime();
+        long executed = 0;
+        while (executed < ticks && gameManager.getGameState() == GameManager.GameState.PLAYING) {
+            if (checkAllocations && executed == warmupTicks) {
+                allocationProbe.reset(); // Прогрів завершено: рахуємо лише сталий режим
+                allocationProbe.setEnabled(true);
+            }
+            gameManager.storePreviousPositions();
+            long start = profiler.start();
+            long allocated = allocationProbe.start();
+            gameManager.tick(inputHandler, SIMULATION_STEP);
+            allocationProbe.record(tickSite, allocated);
+            profiler.record(tickPhase, start);
+            profiler.endFrame(); // У безголовому режимі кадр — це один крок симуляції
+            executed++;
+        }
+        double wallSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+        double simulatedSeconds = executed * SIMULATION_STEP;
+
+        System.out.println("Рівень: " + levelId);
+        System.out.println("Кроків симуляції: " + executed + " (стан гри: " + gameManager.getGameState() + ")");
+        System.out.printf("Ігровий час: %.1f с, реальний час: %.3f с%n", simulatedSeconds, wallSeconds);
+        System.out.printf("Кроків за секунду: %.0f (x%.1f від реального часу)%n",
+                executed / Math.max(wallSeconds, 1e-9), simulatedSeconds / Math.max(wallSeconds, 1e-9));
+        profiler.printSummary();
+        System.out.println("Декодувань спрайт-листів: " + GameLoader.getTotalSheetLoads()
+                + " (різних листів: " + GameLoader.getLoadedSheetCount()
+                + ", влучань у кеш: " + GameLoader.getClipCacheHits() + ")");
+        if (checkAllocations) {
+            reportAllocations(allocationProbe, tickSite);
+        }
+    }
+
+    /**
+     * Друкує звіт лічильника виділень і порівнює загальне виділення кроків після прогріву з бюджетом.
+     */
+    private static void reportAllocations(AllocationProbe allocationProbe, int tickSite) {
+        allocationProbe.setEnabled(false);
+        long measuredTicks = allocationProbe.getSampleCount(tickSite);
+        if (measuredTicks == 0) {
+            System.err.println("Перевірку виділень не виконано: симуляція завершилася до кінця прогріву ("
+                    + warmupTicks + " кроків)");
+            allocationCheckFailed = true;
+            return;
+        }
+        allocationProbe.printReport();
+        long allocated = allocationProbe.getAllocatedBytes(tickSite);
+        System.out.println("Виділено за " + measuredTicks + " кроків: " + allocated + " байтів (бюджет "
+                + allocationBudget + ")");
+        if (allocated > allocationBudget) {
+            System.err.println("Перевірку виділень не пройдено: крок симуляції виділяє пам’ять");
+            allocationCheckFailed = true;
+        }
+    }
+}
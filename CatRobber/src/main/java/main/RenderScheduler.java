@@ -0,0 +1,87 @@
+package main;
+
+import javafx.animation.AnimationTimer;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.util.Duration;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Планувальник рендерингу з двома режимами. В активному режимі (гра в стані PLAYING)
+ * кадри виконуються AnimationTimer з частотою дисплея. У режимі простою (меню, крамниця,
+ * пауза з вікнами головоломок, VICTORY, GAME_OVER) AnimationTimer зупиняється,
+ * а Timeline з низькою частотою лише перевіряє, чи потрібно перемалювати кадр.
+ */
+public class RenderScheduler {
+    /** Інтервал перевірки кадру в режимі простою (10 Гц). */
+    private static final Duration IDLE_INTERVAL = Duration.millis(100);
+
+    private final AnimationTimer activeTimer; // Цикл з частотою дисплея
+    private final Timeline idleTimeline; // Рідкісні перевірки в режимі простою
+    private boolean idle; // Поточний режим
+    private boolean running; // Чи запущено планувальник
+
+    /**
+     * Конструктор планувальника рендерингу.
+     * @param activeFrame Кадр активного режиму, отримує час кадру від AnimationTimer у наносекундах.
+     * @param idleFrame Кадр режиму простою, має малювати лише змінений стан.
+     */
+    public RenderScheduler(LongConsumer activeFrame, Runnable idleFrame) {
+        this.activeTimer = new AnimationTimer() {
+            @Override
+            public void handle(long currentNanoTime) {
+                activeFrame.accept(currentNanoTime);
+            }
+        };
+        this.idleTimeline = new Timeline(new KeyFrame(IDLE_INTERVAL, e -> idleFrame.run()));
+        this.idleTimeline.setCycleCount(Timeline.INDEFINITE);
+    }
+
+    /**
+     * Запускає планувальник у заданому режимі.
+     * @param idle true, щоб почати в режимі простою.
+     */
+    public void start(boolean idle) {
+        running = true;
+        this.idle = idle;
+        if (idle) {
+            idleTimeline.play();
+        } else {
+            activeTimer.start();
+        }
+    }
+
+    /**
+     * Перемикає режим. Викликається в потоці JavaFX.
+     * @param idle true для режиму простою, false для активного режиму.
+     */
+    public void setIdle(boolean idle) {
+        if (!running || this.idle == idle) return;
+        this.idle = idle;
+        if (idle) {
+            activeTimer.stop();
+            idleTimeline.play();
+        } else {
+            idleTimeline.stop();
+            activeTimer.start();
+        }
+    }
+
+    /**
+     * Перевіряє, чи планувальник у режимі простою.
+     * @return true, якщо кадри виконуються з низькою частотою.
+     */
+    public boolean isIdle() {
+        return idle;
+    }
+
+    /**
+     * Зупиняє обидва цикли.
+     */
+    public void stop() {
+        running = false;
+        activeTimer.stop();
+        idleTimeline.stop();
+    }
+}
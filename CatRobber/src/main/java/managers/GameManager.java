@@ -2,9 +2,11 @@ package managers;
 
 import entities.*;
 import interfaces.*;
+import javafx.application.Platform;
 import javafx.geometry.BoundingBox;
 import javafx.geometry.Bounds;
 import javafx.scene.image.Image;
+import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.input.KeyCode;
 import javafx.scene.paint.Color;
@@ -14,13 +16,29 @@ import org.json.JSONObject;
 import puzzles.Puzzle;
 import ui.ShopPane;
 import ui.ShopItem;
+import utils.AABB;
+import utils.Camera2D;
+import utils.DirtyRegionTracker;
+import utils.DoorRegistry;
+import utils.EntityRegistry;
 import utils.GameLoader;
 import utils.InputHandler;
+import utils.InputRecorder;
+import utils.InputReplay;
+import utils.InteractableIndex;
+import utils.RenderQueue;
+import utils.RenderSnapshot;
+import utils.RoomGrid;
 import utils.Vector2D;
 
 import java.io.FileWriter;
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * Клас для управління логікою гри, включаючи об'єкти, стан, колізії та взаємодії.
@@ -30,6 +48,13 @@ public class GameManager implements Savable {
     /** Єдиний екземпляр класу GameManager (патерн Singleton). */
     private static GameManager instance;
 
+    /** Тривалість одного кроку симуляції в секундах (120 Гц). */
+    public static final double SIMULATION_STEP = 1.0 / 120.0;
+
+    /** Розмір світу за замовчуванням, якщо в карті рівня немає розмірів (40×20 тайлів по 32 пікселі). */
+    private static final double DEFAULT_WORLD_WIDTH = 1280;
+    private static final double DEFAULT_WORLD_HEIGHT = 640;
+
     /** Менеджер рівнів для завантаження даних рівня. */
     private final LevelManager levelManager;
 
@@ -42,29 +67,35 @@ public class GameManager implements Savable {
     /** Дані поточного рівня у форматі JSON. */
     private JSONObject currentLevel;
 
-    /** Список усіх ігрових об’єктів (гравець, поліцейські тощо). */
-    private List<GameObject> gameObjects;
+    /** Реєстр усіх ігрових об’єктів (гравець, поліцейські тощо) зі списками за типами. */
+    private final EntityRegistry<GameObject> entities = new EntityRegistry<>();
+
+    /** Список усіх ігрових об’єктів у порядку додавання (подання реєстру). */
+    private final List<GameObject> gameObjects = entities.getAll();
 
-    /** Список об’єктів, які можна рендерити. */
-    private List<Renderable> renderableObjects;
+    /** Черга об’єктів, які можна рендерити, розкладених за шарами. */
+    private final RenderQueue renderQueue = new RenderQueue();
 
     /** Список об’єктів із анімаціями. */
-    private List<Animatable> animatableObjects;
+    private final List<Animatable> animatableObjects = entities.getAll(Animatable.class);
+
+    /** Список об’єктів, позиція яких інтерполюється між кроками симуляції. */
+    private final List<Interpolatable> interpolatableObjects = entities.getAll(Interpolatable.class);
 
     /** Посилання на гравця. */
     private Player player;
 
     /** Список поліцейських NPC. */
-    private List<Police> police;
+    private final List<Police> police = entities.getAll(Police.class);
 
     /** Список камер спостереження. */
-    private List<SecurityCamera> cameras;
+    private final List<SecurityCamera> cameras = entities.getAll(SecurityCamera.class);
 
     /** Список інтерактивних об’єктів. */
-    private List<Interactable> interactables;
+    private final List<Interactable> interactables = entities.getAll(Interactable.class);
 
-    /** Список головоломок. */
-    private List<Puzzle> puzzles;
+    /** Реєстр головоломок рівня. */
+    private final EntityRegistry<Puzzle> puzzles = new EntityRegistry<>();
 
     /** Карта колізій (межі кімнат). */
     private List<Bounds> collisionMap;
@@ -72,8 +103,21 @@ public class GameManager implements Savable {
     /** Список кімнат для колізій і навігації. */
     private List<Room> rooms;
 
+    /** Просторовий індекс кімнат; перебудовується разом із картою колізій. */
+    private RoomGrid roomGrid = new RoomGrid(Collections.emptyList());
+
+    /** Тимчасовий прямокутник для меж гравця та поліцейських при перевірці кімнат. */
+    private final AABB roomQueryBounds = new AABB();
+
+    /** Тимчасові прямокутники для розв’язання руху гравця: межі кімнати та перешкоди. */
+    private final AABB moveRoomBounds = new AABB();
+    private final AABB moveObstacleBounds = new AABB();
+
+    /** Слухачі переходів гравця та поліцейських між кімнатами. */
+    private final List<RoomChangeListener> roomChangeListeners = new ArrayList<>();
+
     /** Поточний стан гри (MENU, PLAYING, PAUSED, GAME_OVER, VICTORY). */
-    private GameState gameState;
+    private volatile GameState gameState;
 
     /** Фонове зображення рівня. */
     private Image backgroundImage;
@@ -87,6 +131,18 @@ public class GameManager implements Savable {
     /** Найближчий інтерактивний об’єкт до гравця. */
     private Interactable closestInteractable;
 
+    /** Широка фаза пошуку об’єктів для взаємодії за кімнатами та x-інтервалами. */
+    private final InteractableIndex interactableIndex = new InteractableIndex();
+
+    /** Прапорець, що індекс взаємодії потрібно перебудувати (новий рівень або переміщений об’єкт). */
+    private volatile boolean interactableIndexDirty = true;
+
+    /** Реєстр дверей за sharedId і лазерних дверей. */
+    private final DoorRegistry doorRegistry = new DoorRegistry();
+
+    /** Прапорець, що реєстр дверей потрібно перебудувати (новий рівень або завантажені двері). */
+    private volatile boolean doorRegistryDirty = true;
+
     /** Прапорець глобальної тривоги. */
     private boolean isGlobalAlert;
 
@@ -126,28 +182,154 @@ public class GameManager implements Savable {
     /** Прапорець для відстеження стану руху гравця. */
     private boolean wasMoving = false;
 
+    /** Прапорець безголового режиму (симуляція без JavaFX Stage, Canvas та UIManager). */
+    private boolean headless = false;
+
+    /** Монітор, під яким виконуються кроки симуляції та зміни складу ігрових об’єктів. */
+    private final Object simulationLock = new Object();
+
+    /** Кількість виконаних кроків симуляції. */
+    private long tickCount;
+
+    /** Прапорець рендерингу зі знімків, які публікує окремий потік симуляції. */
+    private volatile boolean snapshotRendering = false;
+
+    /** Останній опублікований знімок кадру для потоку рендерингу. */
+    private final AtomicReference<RenderSnapshot> latestSnapshot = new AtomicReference<>();
+
+    /** Підказка взаємодії, яку потрібно показати в потоці JavaFX (null — сховати). */
+    private volatile String pendingPrompt;
+
+    /** Прапорець, що оновлення підказки вже заплановано в потоці JavaFX. */
+    private final AtomicBoolean promptUpdateScheduled = new AtomicBoolean(false);
+
+    /** Конвеєр кроку симуляції зі стадіями ввід → AI → рух → колізії → взаємодії → події. */
+    private final TickPipeline tickPipeline = new TickPipeline();
+
+    /** Напрямок руху, зчитаний зі вводу на поточному кроці (null — гравець стоїть). */
+    private Player.Direction movementIntent;
+
+    /** Прапорець, що ігровий світ змінився і кадр потрібно перемалювати. */
+    private final AtomicBoolean renderDirty = new AtomicBoolean(true);
+
+    /** Слухач змін стану гри (наприклад, планувальник рендерингу GameWindow). */
+    private Consumer<GameState> gameStateListener;
+
+    /** Генератор випадкових чисел ігрової логіки, перезасівається при завантаженні рівня. */
+    private final Random random = new Random();
+
+    /** Зерно генератора для поточного рівня. */
+    private long randomSeed;
+
+    /** Прапорець, що зерно задане ззовні (повтор) і не замінюється при завантаженні рівня. */
+    private boolean randomSeedFixed = false;
+
+    /** Прапорець запису вводу гравця у файли повторів. */
+    private boolean inputRecordingEnabled = false;
+
+    /** Записувач вводу поточного рівня (null, якщо запис не ведеться). */
+    private InputRecorder inputRecorder;
+
+    /** Повтор вводу, що відтворюється на межі кроків симуляції (null — живий ввід). */
+    private InputReplay inputReplay;
+
+    /** Позиція для обчислення контрольної суми стану без створення об’єктів. */
+    private final Vector2D checksumPosition = new Vector2D(0, 0);
+
+    /** Прапорець шарового рендерингу: фон і статичні об’єкти малюються в окремий кешований шар. */
+    private boolean layeredRendering = false;
+
+    /** Ключ стану, з яким востаннє намальовано статичний шар. */
+    private long staticLayerKey;
+
+    /** Прапорець, що статичний шар актуальний для {@link #staticLayerKey}. */
+    private boolean staticLayerValid = false;
+
+    /** Фон кадру, вибраний {@link #selectFrame()} (живий стан або знімок). */
+    private Image frameBackground;
+
+    /** Об’єкти кадру, вибрані {@link #selectFrame()}, впорядковані за шаром. */
+    private List<Renderable> frameRenderables = Collections.emptyList();
+
+    /** Камера, що слідує за гравцем; визначає видиму частину рівня. */
+    private final Camera2D camera = new Camera2D(DEFAULT_WORLD_WIDTH, DEFAULT_WORLD_HEIGHT);
+
+    /** Видима область світу поточного кадру. */
+    private final AABB viewBounds = new AABB();
+
+    /** Тимчасовий прямокутник для меж об’єктів при відсіканні та наведенні камери. */
+    private final AABB cullBounds = new AABB();
+
+    /** Позиція камери в попередньому кадрі з брудними областями. */
+    private double lastCameraX = Double.NaN, lastCameraY = Double.NaN;
+
     /**
-     * Встановлює стан гри.
+     * Встановлює стан гри і повідомляє слухача, якщо стан змінився.
      *
      * @param gameState новий стан гри
      */
     public void setGameState(GameState gameState) {
+        GameState previousState = this.gameState;
         this.gameState = gameState;
+        markRenderDirty();
+        if (previousState != gameState && gameStateListener != null) {
+            gameStateListener.accept(gameState);
+        }
+    }
+
+    /**
+     * Встановлює слухача змін стану гри. Слухач може викликатися з потоку симуляції.
+     *
+     * @param gameStateListener слухач або null
+     */
+    public void setGameStateListener(Consumer<GameState> gameStateListener) {
+        this.gameStateListener = gameStateListener;
+    }
+
+    /**
+     * Позначає, що кадр потрібно перемалювати (змінився світ або HUD).
+     */
+    public void markRenderDirty() {
+        renderDirty.set(true);
+    }
+
+    /**
+     * Повертає, чи потрібно перемалювати кадр, і скидає прапорець.
+     *
+     * @return true, якщо з останнього рендерингу щось змінилося
+     */
+    public boolean consumeRenderDirty() {
+        return renderDirty.getAndSet(false);
     }
 
     /**
      * Повертає список дверей із інтерактивних об’єктів.
      *
-     * @return список об’єктів типу Door
+     * @return незмінний список об’єктів типу Door
      */
     public List<Door> getDoors() {
-        List<Door> doors = new ArrayList<>();
-        for (Interactable interactable : interactables) {
-            if (interactable instanceof Door) {
-                doors.add((Door) interactable);
-            }
+        return getDoorRegistry().getDoors();
+    }
+
+    /**
+     * Повертає реєстр дверей поточного рівня, перебудовуючи його, якщо двері змінилися.
+     *
+     * @return реєстр дверей
+     */
+    public DoorRegistry getDoorRegistry() {
+        if (doorRegistryDirty) {
+            doorRegistryDirty = false;
+            doorRegistry.rebuild(interactables);
         }
-        return doors;
+        return doorRegistry;
+    }
+
+    /**
+     * Позначає реєстр дверей застарілим; викликається, коли двері змінюють sharedId чи тип
+     * (наприклад, при завантаженні збереження).
+     */
+    public void invalidateDoorRegistry() {
+        doorRegistryDirty = true;
     }
 
     /**
@@ -224,26 +406,29 @@ public class GameManager implements Savable {
      * Зупиняє гру та повертає до головного меню.
      */
     public void stopGameAndGoToMenu() {
-        if (player != null) {
-            player.stopMovement();
-        }
+        synchronized (simulationLock) {
+            if (player != null) {
+                player.stopMovement();
+            }
 
-        if (isGlobalAlert) {
-            isGlobalAlert = false;
-            globalAlertTimer = 0.0;
-            for (Police police1 : police) {
-                if (police1.getState() == Police.PoliceState.ALERT) {
-                    police1.setState(Police.PoliceState.PATROL);
-                    police1.setAnimationState("patrol");
+            if (isGlobalAlert) {
+                isGlobalAlert = false;
+                globalAlertTimer = 0.0;
+                for (Police police1 : police) {
+                    if (police1.getState() == Police.PoliceState.ALERT) {
+                        police1.setState(Police.PoliceState.PATROL);
+                        police1.setAnimationState("patrol");
+                    }
                 }
             }
-        }
 
-        saveProgress();
-        saveGame();
-        clearGameState();
+            saveProgress();
+            saveGame();
+            finishInputRecording();
+            clearGameState();
+        }
 
-        UIManager uiManager = GameWindow.getInstance().getUIManager();
+        UIManager uiManager = getUIManager();
         if (uiManager != null) {
             uiManager.hideInteractionPrompt();
             uiManager.forceHideInteractiveObjectUI();
@@ -261,18 +446,21 @@ public class GameManager implements Savable {
      * Очищає поточний стан гри, видаляючи всі об’єкти та скидаючи тимчасові дані.
      */
     public void clearGameState() {
-        gameObjects.clear();
-        renderableObjects.clear();
-        animatableObjects.clear();
-        police.clear();
-        cameras.clear();
-        interactables.clear();
-        puzzles.clear();
-        collisionMap.clear();
-        rooms.clear();
-        player = null;
-        backgroundImage = null;
-        temporaryMoney = 0;
+        synchronized (simulationLock) {
+            entities.clear();
+            renderQueue.clear();
+            puzzles.clear();
+            collisionMap.clear();
+            rooms.clear();
+            roomGrid = new RoomGrid(rooms);
+            interactableIndexDirty = true;
+            doorRegistryDirty = true;
+            player = null;
+            backgroundImage = null;
+            temporaryMoney = 0;
+            latestSnapshot.set(null);
+        }
+        markRenderDirty();
     }
 
     /**
@@ -298,13 +486,17 @@ public class GameManager implements Savable {
      */
     public GameManager() {
         code = "0000";
-        gameObjects = new ArrayList<>();
-        renderableObjects = new ArrayList<>();
-        animatableObjects = new ArrayList<>();
-        police = new ArrayList<>();
-        cameras = new ArrayList<>();
-        interactables = new ArrayList<>();
-        puzzles = new ArrayList<>();
+        entities.addListener(new EntityListener<>() {
+            @Override
+            public void onEntityAdded(GameObject entity) {
+                entityAdded(entity);
+            }
+
+            @Override
+            public void onEntityRemoved(GameObject entity) {
+                entityRemoved(entity);
+            }
+        });
         collisionMap = new ArrayList<>();
         rooms = new ArrayList<>();
         levelManager = new LevelManager();
@@ -317,6 +509,7 @@ public class GameManager implements Savable {
         currentLevelId = 1;
         inventory = new HashMap<>();
         backgroundImage = null;
+        registerTickSystems();
         loadProgress();
     }
 
@@ -338,13 +531,16 @@ public class GameManager implements Savable {
      * @param inputHandler обробник вводу
      */
     public void registerInteractionCallback(InputHandler inputHandler) {
+        this.inputHandler = inputHandler;
+        inputHandler.setEventLock(simulationLock);
         inputHandler.registerCallback(KeyCode.E, () -> {
-            UIManager uiManager = GameWindow.getInstance().getUIManager();
-            if (closestInteractable != null) {
-                if (closestInteractable instanceof Door) {
-                    ((Door) closestInteractable).open();
-                } else if (closestInteractable instanceof InteractiveObject interactiveObject) {
-                    interactiveObject.interact(player);
+            synchronized (simulationLock) {
+                if (closestInteractable != null) {
+                    if (closestInteractable instanceof Door) {
+                        ((Door) closestInteractable).open();
+                    } else if (closestInteractable instanceof InteractiveObject interactiveObject) {
+                        interactiveObject.interact(player);
+                    }
                 }
             }
         });
@@ -357,38 +553,102 @@ public class GameManager implements Savable {
     }
 
     /**
-     * Обробляє ввід гравця, викликається з GameWindow.update().
+     * Виконує один крок симуляції через конвеєр стадій {@link TickPipeline}.
+     * Кожна стадія (ввід, AI, рух, колізії, взаємодії, події) виконується рівно один раз.
      *
      * @param inputHandler обробник вводу
-     * @param deltaTime час, що минув з останнього оновлення
+     * @param deltaTime тривалість кроку в секундах
      */
-    public void handleInput(InputHandler inputHandler, double deltaTime) {
+    public void tick(InputHandler inputHandler, double deltaTime) {
         this.inputHandler = inputHandler;
-        if (player == null) return;
+        if (gameState != GameState.PLAYING) {
+            return;
+        }
+        if (inputReplay != null) {
+            inputReplay.applyEvents(tickCount, inputHandler, this);
+            if (gameState != GameState.PLAYING) {
+                return;
+            }
+        }
+        tickCount++;
+        entities.beginUpdate(); // Об’єкти, додані чи видалені системами, застосовуються після кроку
+        try {
+            tickPipeline.run(deltaTime);
+        } finally {
+            entities.endUpdate();
+        }
+        if (inputRecorder != null) {
+            inputRecorder.recordEndState(tickCount, computeStateChecksum());
+        }
+        if (inputReplay != null && tickCount == inputReplay.getEndTick()) {
+            finishInputReplay();
+        }
+        markRenderDirty();
+    }
 
-        checkInteractions();
-        managePlayerMoving(inputHandler, deltaTime);
-        managePlayerHit(inputHandler, deltaTime);
+    /**
+     * Повертає конвеєр кроку симуляції, щоб інші системи могли зареєструватися в його стадіях.
+     *
+     * @return конвеєр кроку симуляції
+     */
+    public TickPipeline getTickPipeline() {
+        return tickPipeline;
+    }
+
+    /**
+     * Реєструє системи GameManager у стадіях конвеєра кроку симуляції.
+     */
+    private void registerTickSystems() {
+        tickPipeline.register(TickPipeline.Stage.INPUT, "playerInput", this::readPlayerInput);
+        tickPipeline.register(TickPipeline.Stage.AI, "rooms", deltaTime -> updateRoomTracking());
+        tickPipeline.register(TickPipeline.Stage.AI, "police", this::updatePolice);
+        tickPipeline.register(TickPipeline.Stage.AI, "cameras", deltaTime -> updateCameras());
+        tickPipeline.register(TickPipeline.Stage.MOVEMENT, "playerMovement", this::movePlayer);
+        tickPipeline.register(TickPipeline.Stage.COLLISION, "playerCollisions", deltaTime -> checkCollisions());
+        tickPipeline.register(TickPipeline.Stage.INTERACTION, "interactions", deltaTime -> checkInteractions());
+        tickPipeline.register(TickPipeline.Stage.EVENTS, "globalAlert", this::updateGlobalAlert);
+        tickPipeline.register(TickPipeline.Stage.EVENTS, "animations", this::updateAnimations);
+        tickPipeline.register(TickPipeline.Stage.EVENTS, "gameOver", deltaTime -> checkGameOver());
+    }
+
+    /**
+     * Стадія вводу: зчитує напрямок руху, атаку (Q) та постріл (F).
+     *
+     * @param deltaTime тривалість кроку в секундах
+     */
+    private void readPlayerInput(double deltaTime) {
+        movementIntent = null;
+        if (player == null || inputHandler == null) return;
+
+        if (inputHandler.isKeyPressed(KeyCode.LEFT) || inputHandler.isKeyPressed(KeyCode.A)) {
+            movementIntent = Player.Direction.LEFT;
+        } else if (inputHandler.isKeyPressed(KeyCode.RIGHT) || inputHandler.isKeyPressed(KeyCode.D)) {
+            movementIntent = Player.Direction.RIGHT;
+        } else if (inputHandler.isKeyPressed(KeyCode.UP) || inputHandler.isKeyPressed(KeyCode.W)) {
+            movementIntent = Player.Direction.UP;
+        } else if (inputHandler.isKeyPressed(KeyCode.DOWN) || inputHandler.isKeyPressed(KeyCode.S)) {
+            movementIntent = Player.Direction.DOWN;
+        }
+        managePlayerHit(inputHandler);
         managePlayerShooting();
-        checkCollisions();
     }
 
     /**
      * Керує атакою гравця (натискання клавіші Q).
      *
      * @param inputHandler обробник вводу
-     * @param deltaTime час, що минув з останнього оновлення
      */
-    private void managePlayerHit(InputHandler inputHandler, double deltaTime) {
+    private void managePlayerHit(InputHandler inputHandler) {
         boolean isHitting = inputHandler.isKeyPressed(KeyCode.Q);
 
         if (isHitting && !wasHitting) {
             soundManager.playSound(SoundManager.SoundType.HIT);
             player.attack(false);
-            for (Interactable interactable : interactables) {
-                if (interactable instanceof Police && interactable.canInteract(player)) {
+            for (int i = 0; i < police.size(); i++) {
+                Police officer = police.get(i);
+                if (officer.canInteract(player)) {
                     soundManager.playSound(SoundManager.SoundType.HITTED);
-                    interactable.interact(player);
+                    officer.interact(player);
                 }
             }
         }
@@ -396,44 +656,23 @@ public class GameManager implements Savable {
     }
 
     /**
-     * Керує рухом гравця за допомогою клавіш (WASD або стрілки).
+     * Стадія руху: повертає гравця в напрямку вводу, проходить крізь відчинені двері
+     * та переміщує гравця (WASD або стрілки).
      *
-     * @param inputHandler обробник вводу
-     * @param deltaTime час, що минув з останнього оновлення
+     * @param deltaTime тривалість кроку в секундах
      */
-    private void managePlayerMoving(InputHandler inputHandler, double deltaTime) {
-        if (gameState != GameState.PLAYING) {
-            return;
-        }
-        boolean isMoving = false;
-        if (inputHandler.isKeyPressed(KeyCode.LEFT) || inputHandler.isKeyPressed(KeyCode.A)) {
-            player.setDirection(Player.Direction.LEFT);
-            if (closestInteractable != null && closestInteractable instanceof Door) {
-                closestInteractable.interact(player);
-            }
-            player.move(Player.Direction.LEFT, deltaTime);
-            isMoving = true;
-        } else if (inputHandler.isKeyPressed(KeyCode.RIGHT) || inputHandler.isKeyPressed(KeyCode.D)) {
-            player.setDirection(Player.Direction.RIGHT);
-            if (closestInteractable != null && closestInteractable instanceof Door) {
-                closestInteractable.interact(player);
-            }
-            player.move(Player.Direction.RIGHT, deltaTime);
-            isMoving = true;
-        } else if (inputHandler.isKeyPressed(KeyCode.UP) || inputHandler.isKeyPressed(KeyCode.W)) {
-            player.setDirection(Player.Direction.UP);
+    private void movePlayer(double deltaTime) {
+        if (player == null) return;
+        boolean isMoving = movementIntent != null;
+        if (isMoving) {
+            player.setDirection(movementIntent);
             if (closestInteractable != null && closestInteractable instanceof Door) {
                 closestInteractable.interact(player);
             }
-            isMoving = true;
-        } else if (inputHandler.isKeyPressed(KeyCode.DOWN) || inputHandler.isKeyPressed(KeyCode.S)) {
-            player.setDirection(Player.Direction.DOWN);
-            if (closestInteractable != null && closestInteractable instanceof Door) {
-                closestInteractable.interact(player);
+            if (movementIntent == Player.Direction.LEFT || movementIntent == Player.Direction.RIGHT) {
+                player.move(movementIntent, deltaTime);
             }
-            isMoving = true;
-        }
-        if (!isMoving) {
+        } else {
             player.stopMovement();
         }
         if (isMoving && !wasMoving) {
@@ -441,91 +680,493 @@ public class GameManager implements Savable {
         } else if (!isMoving && wasMoving) {
             soundManager.stopRunSound();
         }
-        wasMoving = isMoving;
+        wasMoving = isMoving;
+    }
+
+    /**
+     * Встановлює список ігрових об’єктів і сортує їх за типами.
+     *
+     * @param objects список ігрових об’єктів
+     */
+    public void setGameObjects(List<GameObject> objects) {
+        synchronized (simulationLock) {
+            assignGameObjects(objects);
+        }
+    }
+
+    /**
+     * Замінює об’єкти рівня: очищає реєстр і додає нові об’єкти; списки за типами
+     * оновлює сам реєстр.
+     *
+     * @param objects список ігрових об’єктів
+     */
+    private void assignGameObjects(List<GameObject> objects) {
+        entities.clear();
+        renderQueue.clear();
+        entities.addAll(objects);
+        if (entities.getFirst(Door.class) == null) {
+            System.err.println("НЕМАЄ ДВЕРЕЙ");
+        }
+        interactableIndexDirty = true;
+        doorRegistryDirty = true;
+    }
+
+    /**
+     * Додає об’єкт під час гри. Якщо крок симуляції саме виконується, об’єкт з’явиться
+     * після його завершення, тож системи не бачать зміни складу посеред кроку.
+     *
+     * @param object ігровий об’єкт
+     * @return ID об’єкта в реєстрі
+     */
+    public int addGameObject(GameObject object) {
+        synchronized (simulationLock) {
+            int id = entities.add(object);
+            markRenderDirty();
+            return id;
+        }
+    }
+
+    /**
+     * Видаляє об’єкт під час гри (з тим самим відкладанням, що й {@link #addGameObject}).
+     *
+     * @param object ігровий об’єкт
+     * @return true, якщо об’єкт був у грі
+     */
+    public boolean removeGameObject(GameObject object) {
+        synchronized (simulationLock) {
+            boolean removed = entities.remove(object);
+            markRenderDirty();
+            return removed;
+        }
+    }
+
+    /**
+     * Повертає об’єкт за ID реєстру.
+     *
+     * @param id ID об’єкта
+     * @return об’єкт або null
+     */
+    public GameObject getGameObject(int id) {
+        return entities.get(id);
+    }
+
+    /**
+     * Повертає об’єкти заданого типу в порядку додавання; список оновлюється разом із грою.
+     *
+     * @param type клас або інтерфейс об’єктів
+     * @param <T> тип об’єктів
+     * @return незмінний список об’єктів
+     */
+    public <T> List<T> getGameObjects(Class<T> type) {
+        return entities.getAll(type);
+    }
+
+    /**
+     * Реагує на появу об’єкта в реєстрі: ставить його в чергу рендерингу і позначає залежні індекси.
+     */
+    private void entityAdded(GameObject entity) {
+        renderQueue.add(entity);
+        if (entity instanceof Player addedPlayer) {
+            player = addedPlayer;
+            syncPlayerInventory();
+        }
+        if (entity instanceof Interactable) {
+            interactableIndexDirty = true;
+            doorRegistryDirty = true;
+        }
+    }
+
+    /**
+     * Реагує на видалення об’єкта з реєстру: прибирає його з черги рендерингу та посилань.
+     */
+    private void entityRemoved(GameObject entity) {
+        renderQueue.remove(entity);
+        if (entity == player) {
+            player = null;
+        }
+        if (entity == closestInteractable) {
+            closestInteractable = null;
+        }
+        if (entity instanceof Interactable) {
+            interactableIndexDirty = true;
+            doorRegistryDirty = true;
+        }
+    }
+
+    /**
+     * Синхронізує інвентар гравця з даними GameManager.
+     */
+    private void syncPlayerInventory() {
+        if (player != null) {
+            player.clearInventory();
+            for (Map.Entry<ShopItem, Integer> entry : inventory.entrySet()) {
+                ShopItem item = entry.getKey();
+                int quantity = entry.getValue();
+                for (int i = 0; i < quantity; i++) {
+                    player.buyItem(item);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Встановлює карту колізій на основі списку кімнат.
+     *
+     * @param rooms список кімнат
+     */
+    public void setCollisionMap(List<Room> rooms) {
+        synchronized (simulationLock) {
+            this.rooms.clear();
+            this.rooms.addAll(rooms);
+            this.collisionMap.clear();
+            for (Room room : rooms) {
+                this.collisionMap.add(room.getBounds());
+            }
+            this.roomGrid = new RoomGrid(this.rooms);
+            interactableIndexDirty = true;
+        }
+    }
+
+    /**
+     * Завантажує рівень гри.
+     *
+     * @param levelId ID рівня
+     * @param isNewGame чи є це новою грою
+     */
+    public void loadLevel(int levelId, boolean isNewGame) {
+        UIManager uiManager = headless ? null : UIManager.getInstance();
+        if (uiManager != null) {
+            uiManager.clearSceneForMenu();
+            uiManager.hideMenu();
+            if (uiManager.getCurrentWindow() != null) {
+                uiManager.getCurrentWindow().hide();
+                uiManager.setCurrentWindow(null);
+            }
+        }
+        synchronized (simulationLock) {
+            finishInputRecording();
+            if (!randomSeedFixed) {
+                randomSeed = System.nanoTime();
+            }
+            random.setSeed(randomSeed);
+            tickCount = 0;
+            setGameState(GameState.PLAYING);
+            levelManager.loadLevel(levelId, isNewGame);
+            currentLevel = levelManager.getLevelData();
+            updateWorldSize();
+            loadBackgroundImage();
+            latestSnapshot.set(null);
+            startInputRecording(levelId, isNewGame);
+        }
+        if (uiManager != null) {
+            GameWindow.getInstance().showTitleBar();
+            uiManager.showMenuButton();
+        }
+    }
+
+    /**
+     * Повертає генератор випадкових чисел ігрової логіки. Генератор перезасівається
+     * при кожному завантаженні рівня, тож повтор з тим самим зерном дає ті самі значення.
+     *
+     * @return генератор випадкових чисел
+     */
+    public Random getRandom() {
+        return random;
+    }
+
+    /**
+     * Фіксує зерно генератора випадкових чисел для наступних завантажень рівня
+     * (використовується при відтворенні повтору).
+     *
+     * @param seed зерно
+     */
+    public void setRandomSeed(long seed) {
+        synchronized (simulationLock) {
+            randomSeed = seed;
+            randomSeedFixed = true;
+            random.setSeed(seed);
+        }
+    }
+
+    /**
+     * Повертає зерно генератора випадкових чисел поточного рівня.
+     *
+     * @return зерно
+     */
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    /**
+     * Вмикає або вимикає запис вводу. Запис починається з наступного завантаження рівня
+     * і зберігається в data/replays/ при виході в меню або закритті гри.
+     *
+     * @param enabled true, щоб записувати ввід
+     */
+    public void setInputRecordingEnabled(boolean enabled) {
+        this.inputRecordingEnabled = enabled;
+    }
+
+    /**
+     * Встановлює повтор вводу, події якого подаються в обробник вводу перед кожним кроком.
+     *
+     * @param inputReplay повтор або null для живого вводу
+     */
+    public void setInputReplay(InputReplay inputReplay) {
+        synchronized (simulationLock) {
+            this.inputReplay = inputReplay;
+        }
+    }
+
+    /**
+     * Порівнює контрольну суму стану після останнього записаного кроку повтору із записаною
+     * і повертає керування живому вводу.
+     */
+    private void finishInputReplay() {
+        long checksum = computeStateChecksum();
+        if (inputReplay.verify(checksum)) {
+            System.out.printf("Повтор відтворено: контрольна сума %016x збігається із записаною%n", checksum);
+        } else {
+            System.err.printf("Повтор розійшовся із записом: контрольна сума %016x, записана %016x%n",
+                    checksum, inputReplay.getEndChecksum());
+        }
+        inputReplay = null;
+        if (inputHandler != null) {
+            inputHandler.setLiveInputEnabled(true);
+        }
+    }
+
+    /**
+     * Застосовує розв’язану головоломку дверей: відмикає двері та записує результат у повтор.
+     * Викликається з інтерфейсу головоломки, тому виконується під монітором симуляції,
+     * між кроками, а не всередині кроку потоку симуляції.
+     *
+     * @param door двері, пов’язані з головоломкою
+     */
+    public void onPuzzleSolved(Door door) {
+        synchronized (simulationLock) {
+            if (inputRecorder != null) {
+                int doorIndex = getDoorRegistry().getDoors().indexOf(door);
+                if (doorIndex >= 0) {
+                    inputRecorder.recordPuzzleSolved(tickCount, doorIndex);
+                }
+            }
+            door.unlock();
+        }
+    }
+
+    /**
+     * Застосовує записану в повторі розв’язану головоломку.
+     *
+     * @param doorIndex індекс дверей у {@link DoorRegistry#getDoors()}
+     */
+    public void applyReplayedPuzzleSolved(int doorIndex) {
+        List<Door> doors = getDoorRegistry().getDoors();
+        if (doorIndex < 0 || doorIndex >= doors.size()) {
+            System.err.println("Повтор посилається на неіснуючі двері: " + doorIndex);
+            return;
+        }
+        doors.get(doorIndex).unlock();
+    }
+
+    /**
+     * Обчислює контрольну суму ігрового стану: крок, гроші, позиції гравця та поліції,
+     * стан поліції та дверей. Стан гри не входить у суму, бо вікна інтерфейсу змінюють його
+     * по-різному з інтерфейсом і без нього. Об’єкти не створюються, тож суму можна рахувати щокроку.
+     *
+     * @return контрольна сума
+     */
+    public long computeStateChecksum() {
+        long hash = tickCount;
+        hash = hash * 31 + temporaryMoney;
+        hash = hash * 31 + totalMoney;
+        if (player != null) {
+            player.getPosition(checksumPosition);
+            hash = hash * 31 + Double.doubleToLongBits(checksumPosition.getX());
+            hash = hash * 31 + Double.doubleToLongBits(checksumPosition.getY());
+        }
+        for (int i = 0; i < police.size(); i++) {
+            Police officer = police.get(i);
+            officer.getPosition(checksumPosition);
+            hash = hash * 31 + Double.doubleToLongBits(checksumPosition.getX());
+            hash = hash * 31 + Double.doubleToLongBits(checksumPosition.getY());
+            hash = hash * 31 + officer.getState().ordinal();
+        }
+        List<Door> doors = getDoorRegistry().getDoors();
+        for (int i = 0; i < doors.size(); i++) {
+            Door door = doors.get(i);
+            hash = hash * 31 + (door.isLocked() ? 1 : 0);
+            hash = hash * 31 + (door.isOpen() ? 1 : 0);
+        }
+        return hash;
+    }
+
+    /**
+     * Починає запис вводу для щойно завантаженого рівня.
+     */
+    private void startInputRecording(int levelId, boolean isNewGame) {
+        if (!inputRecordingEnabled || inputReplay != null || inputHandler == null) return;
+        inputRecorder = new InputRecorder(levelId, isNewGame, randomSeed);
+        inputRecorder.recordEndState(tickCount, computeStateChecksum());
+        inputHandler.setRecorder(inputRecorder, this::getTickCount);
+    }
+
+    /**
+     * Завершує запис вводу і зберігає файл повтору.
+     */
+    public void finishInputRecording() {
+        synchronized (simulationLock) {
+            if (inputRecorder == null) return;
+            inputHandler.setRecorder(null, null);
+            String fileName = "replay_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".crr";
+            String path = "data/replays/" + fileName;
+            if (inputRecorder.getEventCount() > 0 && inputRecorder.save(path)) {
+                System.out.println("Повтор збережено: " + path);
+            }
+            inputRecorder = null;
+        }
+    }
+
+    /**
+     * Вмикає або вимикає безголовий режим. У безголовому режимі GameManager не звертається
+     * до GameWindow та UIManager і не записує файли збережень, а {@link utils.GameLoader}
+     * не декодує зображення, тому симуляцію можна запускати без JavaFX toolkit і дисплея
+     * (наприклад, з {@link main.HeadlessSimulation}). Режим вмикається до завантаження рівня.
+     *
+     * @param headless true для безголового режиму
+     */
+    public void setHeadless(boolean headless) {
+        this.headless = headless;
+    }
+
+    /**
+     * Перевіряє, чи працює GameManager у безголовому режимі.
+     *
+     * @return true, якщо UI недоступний
+     */
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    /**
+     * Повертає менеджер інтерфейсу ігрового вікна.
+     *
+     * @return UIManager або null у безголовому режимі чи до створення GameWindow
+     */
+    public UIManager getUIManager() {
+        if (headless || !GameWindow.hasInstance()) {
+            return null;
+        }
+        return GameWindow.getInstance().getUIManager();
     }
 
     /**
-     * Встановлює список ігрових об’єктів і сортує їх за типами.
+     * Повертає менеджер інтерфейсу для вікон і головоломок, які відкриває взаємодія гравця.
+     * Під час повтору результати таких взаємодій беруться з файлу, тож вікна не показуються.
      *
-     * @param objects список ігрових об’єктів
+     * @return UIManager або null у безголовому режимі чи під час повтору
      */
-    public void setGameObjects(List<GameObject> objects) {
-        gameObjects.clear();
-        renderableObjects.clear();
-        animatableObjects.clear();
-        police.clear();
-        cameras.clear();
-        interactables.clear();
-        gameObjects.addAll(objects);
-        int door = 0;
-        for (GameObject obj : objects) {
-            if (obj instanceof Renderable) renderableObjects.add((Renderable) obj);
-            if (obj instanceof Animatable) animatableObjects.add((Animatable) obj);
-            if (obj instanceof Player) {
-                player = (Player) obj;
-                syncPlayerInventory();
-            }
-            if (obj instanceof Police) police.add((Police) obj);
-            if (obj instanceof SecurityCamera) cameras.add((SecurityCamera) obj);
-            if (obj instanceof Interactable) interactables.add((Interactable) obj);
-            if (obj instanceof Door) door++;
-        }
-        if (door == 0) {
-            System.err.println("НЕМАЄ ДВЕРЕЙ");
+    public UIManager getInteractionUIManager() {
+        return inputReplay != null ? null : getUIManager();
+    }
+
+    /**
+     * Оновлює відображення грошей, якщо інтерфейс доступний.
+     */
+    private void updateMoneyDisplay() {
+        if (!headless) {
+            runOnUiThread(() -> UIManager.getInstance().updateMoneyDisplay());
         }
     }
 
     /**
-     * Синхронізує інвентар гравця з даними GameManager.
+     * Виконує дію з інтерфейсом у потоці JavaFX. Якщо виклик уже з потоку JavaFX,
+     * дія виконується одразу, інакше (з потоку симуляції) — ставиться в чергу Platform.runLater.
+     * У безголовому режимі дія пропускається: JavaFX toolkit може бути не запущено.
+     *
+     * @param action дія з елементами інтерфейсу
      */
-    private void syncPlayerInventory() {
-        if (player != null) {
-            player.clearInventory();
-            for (Map.Entry<ShopItem, Integer> entry : inventory.entrySet()) {
-                ShopItem item = entry.getKey();
-                int quantity = entry.getValue();
-                for (int i = 0; i < quantity; i++) {
-                    player.buyItem(item);
-                }
-            }
+    private void runOnUiThread(Runnable action) {
+        if (headless) {
+            return;
+        }
+        if (Platform.isFxApplicationThread()) {
+            action.run();
+        } else {
+            Platform.runLater(action);
         }
     }
 
+    /**
+     * Повертає монітор симуляції. Код, що змінює ігрові об’єкти поза кроком симуляції
+     * (наприклад, обробники вікон головоломок), має виконуватися під цим монітором.
+     *
+     * @return об’єкт блокування симуляції
+     */
+    public Object getSimulationLock() {
+        return simulationLock;
+    }
 
     /**
-     * Встановлює карту колізій на основі списку кімнат.
+     * Повертає кількість виконаних кроків симуляції.
      *
-     * @param rooms список кімнат
+     * @return номер останнього кроку
      */
-    public void setCollisionMap(List<Room> rooms) {
-        this.rooms.clear();
-        this.rooms.addAll(rooms);
-        this.collisionMap.clear();
-        for (Room room : rooms) {
-            this.collisionMap.add(room.getBounds());
-        }
+    public long getTickCount() {
+        return tickCount;
     }
 
     /**
-     * Завантажує рівень гри.
+     * Вмикає або вимикає рендеринг зі знімків. Увімкнюється, коли логіка гри виконується
+     * в окремому потоці симуляції, і {@link #render(GraphicsContext)} малює лише
+     * останній опублікований {@link RenderSnapshot}.
      *
-     * @param levelId ID рівня
-     * @param isNewGame чи є це новою грою
+     * @param snapshotRendering true для рендерингу зі знімків
      */
-    public void loadLevel(int levelId, boolean isNewGame) {
-        UIManager uiManager = UIManager.getInstance();
-        uiManager.clearSceneForMenu();
-        uiManager.hideMenu();
-        if (uiManager.getCurrentWindow() != null) {
-            uiManager.getCurrentWindow().hide();
-            uiManager.setCurrentWindow(null);
+    public void setSnapshotRendering(boolean snapshotRendering) {
+        this.snapshotRendering = snapshotRendering;
+        latestSnapshot.set(null);
+    }
+
+    /**
+     * Перевіряє, чи увімкнено рендеринг зі знімків.
+     *
+     * @return true, якщо рендеринг виконується зі знімків потоку симуляції
+     */
+    public boolean isSnapshotRendering() {
+        return snapshotRendering;
+    }
+
+    /**
+     * Створює незмінний знімок поточного кадру і публікує його для потоку рендерингу.
+     * Викликається потоком симуляції після кроку, під монітором симуляції.
+     */
+    public void publishRenderSnapshot() {
+        List<Renderable> renderables = renderQueue.prepare();
+        List<Renderable> states = new ArrayList<>(renderables.size());
+        double focusX = Double.NaN, focusY = Double.NaN;
+        for (int i = 0; i < renderables.size(); i++) {
+            Renderable state = renderables.get(i).captureRenderState();
+            states.add(state);
+            if (renderables.get(i) == player && state.getRenderBounds(cullBounds.clear()) && !cullBounds.isEmpty()) {
+                focusX = (cullBounds.getMinX() + cullBounds.getMaxX()) / 2;
+                focusY = (cullBounds.getMinY() + cullBounds.getMaxY()) / 2;
+            }
+        }
+        latestSnapshot.set(new RenderSnapshot(tickCount, backgroundImage, states, focusX, focusY));
+    }
+
+    /**
+     * Встановлює розмір світу камери за розмірами карти рівня (кількість тайлів × розмір тайла).
+     */
+    private void updateWorldSize() {
+        double width = DEFAULT_WORLD_WIDTH, height = DEFAULT_WORLD_HEIGHT;
+        if (currentLevel != null && currentLevel.has("width") && currentLevel.has("tilewidth")) {
+            width = currentLevel.getInt("width") * currentLevel.getInt("tilewidth");
+            height = currentLevel.getInt("height") * currentLevel.getInt("tileheight");
         }
-        gameState = GameState.PLAYING;
-        levelManager.loadLevel(levelId, isNewGame);
-        currentLevel = levelManager.getLevelData();
-        loadBackgroundImage();
-        GameWindow.getInstance().showTitleBar();
-        uiManager.showMenuButton();
+        camera.setWorldSize(width, height);
     }
 
     /**
@@ -536,7 +1177,7 @@ public class GameManager implements Savable {
         GameLoader gameLoader = new GameLoader();
         String backgroundPath = "background/level" + getCurrentLevelId() + "/rooms.png";
         backgroundImage = gameLoader.loadImage(backgroundPath);
-        if (backgroundImage == null) {
+        if (backgroundImage == null && !headless) { // У безголовому режимі зображення не декодуються
             System.err.println("Не вдалося завантажити фонове зображення: " + backgroundPath);
         }
     }
@@ -550,6 +1191,17 @@ public class GameManager implements Savable {
     public void updateBackgroundScale(double canvasWidth, double canvasHeight) {
         this.canvasWidth = canvasWidth;
         this.canvasHeight = canvasHeight;
+        camera.setViewportSize(canvasWidth, canvasHeight);
+    }
+
+    /**
+     * Повертає камеру, що визначає видиму частину рівня. Координати Canvas переводяться
+     * у світові додаванням позиції камери.
+     *
+     * @return камера гри
+     */
+    public Camera2D getCamera() {
+        return camera;
     }
 
     /**
@@ -557,7 +1209,7 @@ public class GameManager implements Savable {
      */
     public void alert() {
         if (!isGlobalAlert) {
-            SoundManager.getInstance().playMusic("alert.mp3");
+            runOnUiThread(() -> SoundManager.getInstance().playMusic("alert.mp3"));
             isGlobalAlert = true;
             globalAlertTimer = GLOBAL_ALERT_DURATION;
             for (Police police1 : police) {
@@ -565,26 +1217,120 @@ public class GameManager implements Savable {
             }
             if (player != null) {
                 player.increaseDetection();
-                UIManager.getInstance().showSirenAlert();
+                if (!headless) {
+                    runOnUiThread(() -> UIManager.getInstance().showSirenAlert());
+                }
             }
         }
     }
 
     /**
-     * Оновлює логіку гри.
+     * Запам’ятовує поточні позиції об’єктів перед кроком симуляції з фіксованим кроком.
+     */
+    public void storePreviousPositions() {
+        for (int i = 0; i < interpolatableObjects.size(); i++) {
+            interpolatableObjects.get(i).storePreviousPosition();
+        }
+    }
+
+    /**
+     * Встановлює коефіцієнт інтерполяції для рендерингу між двома кроками симуляції.
      *
-     * @param deltaTime час, що минув з останнього оновлення
+     * @param alpha частка кроку симуляції, що накопичилась після останнього оновлення (0..1)
      */
-    public void update(double deltaTime) {
-        if (gameState != GameState.PLAYING) {
-            return;
+    public void setInterpolationAlpha(double alpha) {
+        for (int i = 0; i < interpolatableObjects.size(); i++) {
+            interpolatableObjects.get(i).setRenderAlpha(alpha);
+        }
+    }
+
+    /**
+     * Стадія AI: оновлює кімнати гравця та поліцейських перед рішеннями AI. Кожен об’єкт
+     * зберігає ID своєї кімнати, тож перевірка «в тій самій кімнаті» зводиться до порівняння чисел.
+     */
+    private void updateRoomTracking() {
+        if (player != null) {
+            updateRoom(player);
+        }
+        for (int i = 0; i < police.size(); i++) {
+            updateRoom(police.get(i));
+        }
+    }
+
+    /**
+     * Визначає кімнату за центром колізійних меж об’єкта і, якщо вона змінилася,
+     * зберігає новий ID та повідомляє слухачів.
+     *
+     * @param occupant рухомий об’єкт
+     */
+    private void updateRoom(RoomOccupant occupant) {
+        occupant.getCollisionBounds(roomQueryBounds);
+        Room room = roomGrid.getRoomAt((roomQueryBounds.getMinX() + roomQueryBounds.getMaxX()) * 0.5,
+                (roomQueryBounds.getMinY() + roomQueryBounds.getMaxY()) * 0.5);
+        int roomId = room != null ? room.getId() : RoomOccupant.NO_ROOM;
+        int previousRoomId = occupant.getCurrentRoomId();
+        if (roomId == previousRoomId) return;
+        occupant.setCurrentRoomId(roomId);
+        for (int i = 0; i < roomChangeListeners.size(); i++) {
+            roomChangeListeners.get(i).onRoomChanged(occupant, previousRoomId, roomId);
+        }
+    }
+
+    /**
+     * Додає слухача переходів між кімнатами. Слухачі викликаються потоком симуляції.
+     *
+     * @param listener слухач
+     */
+    public void addRoomChangeListener(RoomChangeListener listener) {
+        synchronized (simulationLock) {
+            roomChangeListeners.add(listener);
+        }
+    }
+
+    /**
+     * Видаляє слухача переходів між кімнатами.
+     *
+     * @param listener слухач
+     */
+    public void removeRoomChangeListener(RoomChangeListener listener) {
+        synchronized (simulationLock) {
+            roomChangeListeners.remove(listener);
+        }
+    }
+
+    /**
+     * Стадія AI: оновлює поліцейських і розвертає тих, хто вийшов за межі кімнати.
+     *
+     * @param deltaTime тривалість кроку в секундах
+     */
+    private void updatePolice(double deltaTime) {
+        for (int i = 0; i < police.size(); i++) {
+            Police officer = police.get(i);
+            officer.update(deltaTime, roomGrid, player);
+            checkPoliceCollisions(officer);
+        }
+    }
+
+    /**
+     * Стадія AI: перевіряє, чи бачать камери гравця.
+     */
+    private void updateCameras() {
+        for (int i = 0; i < cameras.size(); i++) {
+            cameras.get(i).detectPlayer(player, police);
         }
+    }
 
+    /**
+     * Стадія подій: відлічує глобальну тривогу і після її завершення повертає поліцію до патрулювання.
+     *
+     * @param deltaTime тривалість кроку в секундах
+     */
+    private void updateGlobalAlert(double deltaTime) {
         if (isGlobalAlert) {
             globalAlertTimer -= deltaTime;
             if (globalAlertTimer <= 0) {
                 isGlobalAlert = false;
-                SoundManager.getInstance().playMusic("game.mp3");
+                runOnUiThread(() -> SoundManager.getInstance().playMusic("game.mp3"));
                 for (Police police1 : police) {
                     if (police1.getState() == Police.PoliceState.ALERT) {
                         police1.setState(Police.PoliceState.PATROL);
@@ -593,23 +1339,18 @@ public class GameManager implements Savable {
                 }
             }
         }
+    }
 
-        if (player != null) {
-            player.updateAnimation(deltaTime);
-        }
-        for (Animatable animatable : animatableObjects) {
-            animatable.updateAnimation(deltaTime);
-        }
-        for (Police police : police) {
-            police.update(deltaTime, rooms, player);
-            checkPoliceCollisions(police);
-        }
-        for (SecurityCamera camera : cameras) {
-            camera.detectPlayer(player, police);
+    /**
+     * Стадія подій: оновлює анімації всіх об’єктів реєстру. Гравець теж є {@link Animatable}
+     * у реєстрі, тому окремо не оновлюється, інакше його таймери йшли б удвічі швидше.
+     *
+     * @param deltaTime тривалість кроку в секундах
+     */
+    private void updateAnimations(double deltaTime) {
+        for (int i = 0; i < animatableObjects.size(); i++) {
+            animatableObjects.get(i).updateAnimation(deltaTime);
         }
-        checkGameOver();
-        checkCollisions();
-        checkInteractions();
     }
 
     /**
@@ -620,10 +1361,25 @@ public class GameManager implements Savable {
             return;
         }
 
-        UIManager uiManager = GameWindow.getInstance().getUIManager();
         if (player.getDetectionCount() >= 3) {
-            setTemporaryMoney(0);
-            uiManager.createWindow(UIManager.WindowType.GAME_OVER, new JSONObject());
+            triggerGameOver();
+        }
+    }
+
+    /**
+     * Завершує рівень програшем: обнуляє тимчасові гроші та показує вікно GAME_OVER.
+     * У безголовому режимі лише переводить гру в стан GAME_OVER.
+     */
+    public void triggerGameOver() {
+        setTemporaryMoney(0);
+        UIManager uiManager = getUIManager();
+        if (uiManager != null) {
+            if (!Platform.isFxApplicationThread()) {
+                setGameState(GameState.PAUSED); // Зупиняємо симуляцію до появи вікна
+            }
+            runOnUiThread(() -> uiManager.createWindow(UIManager.WindowType.GAME_OVER, new JSONObject()));
+        } else {
+            gameOver();
         }
     }
 
@@ -637,21 +1393,225 @@ public class GameManager implements Savable {
             return;
         }
         gc.setImageSmoothing(false);
-        renderBackground(gc);
-        renderableObjects.sort(Comparator.comparingInt(Renderable::getRenderLayer));
-        for (Renderable renderable : renderableObjects) {
-            renderable.render(gc);
+        selectFrame();
+        gc.save();
+        camera.apply(gc);
+        renderLayer(gc, frameBackground, frameRenderables, null);
+        gc.restore();
+    }
+
+    /**
+     * Рендерить кадр, очищаючи й перемальовуючи лише брудні області. Межі та ключі вигляду
+     * об’єктів передаються в трекер, який порівнює їх з попереднім кадром; об’єкти поза
+     * брудними областями пропускаються, а малювання обмежується кліпом за цими областями.
+     * Трекер має бути підготовлений {@link DirtyRegionTracker#beginFrame()}; області задаються
+     * у світових координатах, а зсув камери перемальовує весь кадр.
+     *
+     * @param gc контекст для рендерингу
+     * @param dirtyRegions трекер брудних областей
+     */
+    public void render(GraphicsContext gc, DirtyRegionTracker dirtyRegions) {
+        selectFrame();
+        List<Renderable> renderables = frameRenderables;
+        for (int i = 0; i < renderables.size(); i++) {
+            dirtyRegions.track(renderables.get(i));
+        }
+        if (camera.getX() != lastCameraX || camera.getY() != lastCameraY) {
+            lastCameraX = camera.getX();
+            lastCameraY = camera.getY();
+            dirtyRegions.invalidate();
+        }
+        dirtyRegions.endFrame();
+
+        gc.setImageSmoothing(false);
+        if (dirtyRegions.isFullRedraw()) {
+            Canvas canvas = gc.getCanvas();
+            gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+            gc.save();
+            camera.apply(gc);
+            renderLayer(gc, frameBackground, renderables, null);
+            gc.restore();
+            return;
+        }
+        int regionCount = dirtyRegions.getRegionCount();
+        if (regionCount == 0) return;
+        gc.save();
+        camera.apply(gc);
+        gc.beginPath();
+        for (int i = 0; i < regionCount; i++) {
+            AABB region = dirtyRegions.getRegion(i);
+            gc.clearRect(region.getMinX(), region.getMinY(), region.getWidth(), region.getHeight());
+            gc.rect(region.getMinX(), region.getMinY(), region.getWidth(), region.getHeight());
+        }
+        gc.clip();
+        renderLayer(gc, frameBackground, renderables, dirtyRegions);
+        gc.restore();
+    }
+
+    /**
+     * Вибирає фон і об’єкти кадру: останній знімок у режимі потоку симуляції, живі об’єкти
+     * в однопотоковому режимі або порожній кадр поза станами PLAYING і PAUSED.
+     * Камера центрується на гравці; поки гравець невидимий, вона залишається на місці.
+     */
+    private void selectFrame() {
+        frameBackground = null;
+        frameRenderables = Collections.emptyList();
+        if (gameState != GameState.PLAYING && gameState != GameState.PAUSED) {
+            return;
+        }
+        if (snapshotRendering) {
+            RenderSnapshot snapshot = latestSnapshot.get();
+            if (snapshot != null) {
+                frameBackground = snapshot.getBackground();
+                frameRenderables = snapshot.getRenderables();
+                if (!Double.isNaN(snapshot.getFocusX())) {
+                    camera.centerOn(snapshot.getFocusX(), snapshot.getFocusY());
+                }
+            }
+        } else {
+            frameBackground = backgroundImage;
+            frameRenderables = renderQueue.prepare();
+            if (player != null && player.getRenderBounds(cullBounds.clear()) && !cullBounds.isEmpty()) {
+                camera.centerOn((cullBounds.getMinX() + cullBounds.getMaxX()) / 2,
+                        (cullBounds.getMinY() + cullBounds.getMaxY()) / 2);
+            }
+        }
+        camera.getViewBounds(viewBounds);
+    }
+
+    /**
+     * Перевіряє, чи лежить об’єкт повністю поза видимою областю камери.
+     * Об’єкти з невідомими межами завжди малюються.
+     *
+     * @param renderable об’єкт рендерингу
+     * @return true, якщо об’єкт можна не малювати
+     */
+    private boolean isOutsideView(Renderable renderable) {
+        return renderable.getRenderBounds(cullBounds.clear())
+                && !cullBounds.isEmpty() && !cullBounds.intersects(viewBounds);
+    }
+
+    /**
+     * Рендерить фон і об’єкти кадру. У шаровому режимі фон і статичні частини
+     * {@link StaticRenderable} уже намальовані у статичному шарі, тому тут малюються
+     * лише динамічні об’єкти та динамічні частини статичних. Об’єкти поза камерою пропускаються.
+     *
+     * @param gc контекст для рендерингу
+     * @param background фонове зображення рівня
+     * @param renderables об’єкти, впорядковані за шаром
+     * @param dirtyRegions трекер брудних областей або null, щоб малювати всі об’єкти
+     */
+    private void renderLayer(GraphicsContext gc, Image background, List<Renderable> renderables,
+                             DirtyRegionTracker dirtyRegions) {
+        if (!layeredRendering) {
+            renderBackground(gc, background);
+        }
+        for (int i = 0; i < renderables.size(); i++) {
+            Renderable renderable = renderables.get(i);
+            if ((dirtyRegions != null && !dirtyRegions.needsRedraw(i)) || isOutsideView(renderable)) {
+                continue;
+            }
+            if (layeredRendering && renderable instanceof StaticRenderable staticRenderable) {
+                staticRenderable.renderDynamic(gc);
+            } else {
+                renderable.render(gc);
+            }
+        }
+    }
+
+    /**
+     * Перемальовує статичний шар (фон і статичні частини дверей та інтерактивних об’єктів),
+     * якщо з моменту останнього малювання змінився стан хоча б одного з них або зсунулася камера.
+     *
+     * @param gc контекст статичного шару
+     * @param width ширина статичного шару
+     * @param height висота статичного шару
+     * @return true, якщо шар було перемальовано
+     */
+    public boolean renderStaticLayer(GraphicsContext gc, double width, double height) {
+        selectFrame();
+        Image background = frameBackground;
+        List<Renderable> renderables = frameRenderables;
+
+        long key = System.identityHashCode(background);
+        key = key * 31 + Double.hashCode(camera.getX());
+        key = key * 31 + Double.hashCode(camera.getY());
+        for (int i = 0; i < renderables.size(); i++) {
+            if (renderables.get(i) instanceof StaticRenderable staticRenderable) {
+                key = key * 31 + staticRenderable.getStaticStateKey();
+            }
+        }
+        if (staticLayerValid && key == staticLayerKey) {
+            return false;
+        }
+
+        gc.clearRect(0, 0, width, height);
+        gc.setImageSmoothing(false);
+        gc.save();
+        camera.apply(gc);
+        renderBackground(gc, background);
+        for (int i = 0; i < renderables.size(); i++) {
+            Renderable renderable = renderables.get(i);
+            if (renderable instanceof StaticRenderable staticRenderable && !isOutsideView(renderable)) {
+                staticRenderable.renderStatic(gc);
+            }
+        }
+        gc.restore();
+        staticLayerKey = key;
+        staticLayerValid = true;
+        return true;
+    }
+
+    /**
+     * Вмикає або вимикає шаровий рендеринг. У шаровому режимі GameWindow малює статичний шар
+     * на окремому Canvas під основним через {@link #renderStaticLayer(GraphicsContext, double, double)}.
+     *
+     * @param layeredRendering true для шарового рендерингу
+     */
+    public void setLayeredRendering(boolean layeredRendering) {
+        this.layeredRendering = layeredRendering;
+        invalidateStaticLayer();
+    }
+
+    /**
+     * Перевіряє, чи увімкнено шаровий рендеринг.
+     *
+     * @return true, якщо фон і статичні об’єкти малюються в окремий шар
+     */
+    public boolean isLayeredRendering() {
+        return layeredRendering;
+    }
+
+    /**
+     * Вмикає або вимикає сортування об’єктів шару за нижнім краєм їхніх меж, щоб нижчі
+     * на екрані об’єкти малювалися поверх вищих. За замовчуванням об’єкти шару малюються
+     * в порядку завантаження.
+     *
+     * @param layer шар рендерингу
+     * @param ySorted true для сортування за y
+     */
+    public void setRenderLayerYSorted(int layer, boolean ySorted) {
+        synchronized (simulationLock) {
+            renderQueue.setYSorted(layer, ySorted);
         }
     }
 
     /**
-     * Рендерить фонове зображення.
+     * Позначає статичний шар як застарілий (наприклад, після зміни розміру Canvas).
+     */
+    public void invalidateStaticLayer() {
+        staticLayerValid = false;
+    }
+
+    /**
+     * Рендерить фонове зображення на весь світ рівня.
      *
      * @param gc контекст для рендерингу
+     * @param background фонове зображення рівня
      */
-    private void renderBackground(GraphicsContext gc) {
-        if (backgroundImage == null) return;
-        gc.drawImage(backgroundImage, 0, 0, 1280, 640);
+    private void renderBackground(GraphicsContext gc, Image background) {
+        if (background == null) return;
+        gc.drawImage(background, 0, 0, camera.getWorldWidth(), camera.getWorldHeight());
     }
 
     /**
@@ -663,35 +1623,73 @@ public class GameManager implements Savable {
         checkPlayerCollisionsWithGrating();
     }
 
+    /**
+     * Позначає індекс взаємодії застарілим; викликається, коли двері чи інтерактивний об’єкт
+     * змінюють позицію. Індекс перебудовується перед наступною перевіркою взаємодій.
+     */
+    public void invalidateInteractableIndex() {
+        interactableIndexDirty = true;
+    }
+
+    /**
+     * Обчислює, наскільки гравець може зрушити по горизонталі за один прохід: рух обмежується
+     * стінами кімнати, в якій стоїть гравець, закритими лазерними дверима та гратами.
+     * Гравець зупиняється точно біля перешкоди, тому швидкість не впливає на вартість
+     * перевірки і біля стін немає відкатів.
+     *
+     * @param player гравець
+     * @param deltaX бажане переміщення по x
+     * @return дозволене переміщення по x
+     */
+    public double resolvePlayerMovement(Player player, double deltaX) {
+        if (deltaX == 0) return 0;
+        AABB bounds = player.getCollisionBounds(roomQueryBounds);
+        if (roomGrid.findContainingRoom(bounds, moveRoomBounds)) {
+            deltaX = Math.max(moveRoomBounds.getMinX() - bounds.getMinX(),
+                    Math.min(deltaX, moveRoomBounds.getMaxX() - bounds.getMaxX()));
+        }
+        List<Door> laserDoors = getDoorRegistry().getLaserDoors();
+        for (int i = 0; i < laserDoors.size(); i++) {
+            Door door = laserDoors.get(i);
+            if (door.isLocked()) {
+                deltaX = bounds.sweepX(deltaX, door.getBounds(moveObstacleBounds));
+            }
+        }
+        for (int i = 0; i < cameras.size(); i++) {
+            if (cameras.get(i).getClosedGratingBounds(moveObstacleBounds)) {
+                deltaX = bounds.sweepX(deltaX, moveObstacleBounds);
+            }
+        }
+        return deltaX;
+    }
+
     /**
      * Перевіряє колізії гравця з гратами.
      */
     private void checkPlayerCollisionsWithGrating() {
         if (player == null) return;
-        for (SecurityCamera camera : cameras) {
-            camera.checkPlayerGateCollisions(player);
+        for (int i = 0; i < cameras.size(); i++) {
+            cameras.get(i).checkPlayerGateCollisions(player);
         }
     }
 
     /**
-     * Перевіряє колізії гравця з лазерними дверима.
+     * Перевіряє колізії гравця з лазерними дверима. Рух уже зупиняється біля закритих дверей
+     * ({@link #resolvePlayerMovement(Player, double)}); зсув виштовхує гравця, який опинився всередині.
      */
     private void checkPlayerCollisionsWithLaserDoor() {
         if (player == null) return;
-        Bounds laserBounds = null;
-        Door door = null;
-        for (Interactable interactable : interactables) {
-            if (interactable instanceof Door && ((Door) interactable).isLaser()) {
-                laserBounds = ((Door) interactable).getBounds();
-                door = (Door) interactable;
-            }
-        }
-
-        if (laserBounds != null && player.getBounds().intersects(laserBounds) && door.isLocked()) {
-            if (player.getDirection().equals(Player.Direction.RIGHT)) {
-                player.adjustPlayerPosition(1, Player.Direction.LEFT);
-            } else {
-                player.adjustPlayerPosition(1, Player.Direction.RIGHT);
+        List<Door> laserDoors = getDoorRegistry().getLaserDoors();
+        for (int i = 0; i < laserDoors.size(); i++) {
+            Door door = laserDoors.get(i);
+            if (door.isLocked() && player.getCollisionBounds(roomQueryBounds).intersects(
+                    door.getBounds(moveObstacleBounds))) {
+                if (player.getDirection().equals(Player.Direction.RIGHT)) {
+                    player.adjustPlayerPosition(1, Player.Direction.LEFT);
+                } else {
+                    player.adjustPlayerPosition(1, Player.Direction.RIGHT);
+                }
+                return; // Одного зсуву за крок достатньо
             }
         }
     }
@@ -704,30 +1702,9 @@ public class GameManager implements Savable {
     private void checkPoliceCollisions(Police police) {
         if (this.police == null || this.police.isEmpty()) return;
 
-        Bounds policeBounds = police.getBounds();
-        double policeX = policeBounds.getMinX();
-        double policeY = policeBounds.getMinY();
-        double policeWidth = policeBounds.getWidth();
-        double policeHeight = policeBounds.getHeight();
-
-        boolean fullyInside = false;
-
-        for (Room room : rooms) {
-            Bounds roomBounds = room.getBounds();
-            double roomX = roomBounds.getMinX();
-            double roomY = roomBounds.getMinY();
-            double roomWidth = roomBounds.getWidth();
-            double roomHeight = roomBounds.getHeight();
-
-            fullyInside = policeX >= roomX &&
-                    policeY >= roomY &&
-                    (policeX + policeWidth) <= (roomX + roomWidth) &&
-                    (policeY + policeHeight) <= (roomY + roomHeight);
-
-            if (fullyInside) {
-                break;
-            }
-        }
+        police.getCollisionBounds(roomQueryBounds);
+        boolean fullyInside = roomGrid.containsRect(roomQueryBounds.getMinX(), roomQueryBounds.getMinY(),
+                roomQueryBounds.getMaxX(), roomQueryBounds.getMaxY());
 
         if (!fullyInside) {
             if (police.getDirection().equals(Police.PoliceDirection.LEFT)) {
@@ -739,35 +1716,23 @@ public class GameManager implements Savable {
     }
 
     /**
-     * Перевіряє колізії гравця з кімнатами.
+     * Перевіряє колізії гравця з кімнатами. Рух обмежується кімнатою ще в
+     * {@link #resolvePlayerMovement(Player, double)}, тож зазвичай гравцю лише знову дозволяється рух.
+     * Повна перевірка — запасний варіант для позиції, зміненої поза рухом (телепорт, сходи, завантаження,
+     * виштовхування): гравця поза кімнатами зсуває на 1 піксель за крок, доки він не повернеться.
      */
     public void checkPlayerCollisions() {
         if (player == null) return;
+        if (!player.consumePlacementChange()) {
+            player.allowMovement();
+            return;
+        }
 
-        Bounds playerBounds = player.getBounds();
-        double playerX = playerBounds.getMinX();
-        double playerY = playerBounds.getMinY();
-        double playerWidth = playerBounds.getWidth();
-        double playerHeight = playerBounds.getHeight();
-
-        boolean fullyInside = false;
-
-        for (Room room : rooms) {
-            Bounds roomBounds = room.getBounds();
-            double roomX = roomBounds.getMinX();
-            double roomY = roomBounds.getMinY();
-            double roomWidth = roomBounds.getWidth();
-            double roomHeight = roomBounds.getHeight();
-
-            fullyInside = playerX >= roomX &&
-                    playerY >= roomY &&
-                    (playerX + playerWidth) <= (roomX + roomWidth) &&
-                    (playerY + playerHeight) <= (roomY + roomHeight);
-
-            if (fullyInside) {
-                player.allowMovement();
-                break;
-            }
+        player.getCollisionBounds(roomQueryBounds);
+        boolean fullyInside = roomGrid.containsRect(roomQueryBounds.getMinX(), roomQueryBounds.getMinY(),
+                roomQueryBounds.getMaxX(), roomQueryBounds.getMaxY());
+        if (fullyInside) {
+            player.allowMovement();
         }
 
         if (!fullyInside) {
@@ -780,25 +1745,49 @@ public class GameManager implements Savable {
     }
 
     /**
-     * Перевіряє взаємодії гравця з інтерактивними об’єктами.
+     * Перевіряє взаємодії гравця з інтерактивними об’єктами і вибирає найближчий доступний.
      */
     public void checkInteractions() {
         if (player == null) return;
-        closestInteractable = null;
-        UIManager uiManager = GameWindow.getInstance().getUIManager();
+        if (interactableIndexDirty) {
+            interactableIndexDirty = false;
+            interactableIndex.rebuild(interactables, roomGrid);
+        }
+        closestInteractable = interactableIndex.findNearest(player);
+        UIManager uiManager = getUIManager();
         if (uiManager == null) {
-            System.err.println("UIManager не доступний");
             return;
         }
-        for (Interactable interactable : interactables) {
-            if (interactable.canInteract(player)) {
-                closestInteractable = interactable;
-                uiManager.showInteractionPrompt(interactable.getInteractionPrompt());
-                break;
+        if (Platform.isFxApplicationThread()) {
+            if (closestInteractable != null) {
+                uiManager.showInteractionPrompt(closestInteractable.getInteractionPrompt());
+            } else {
+                uiManager.hideInteractionPrompt();
             }
+        } else if (closestInteractable == null || closestInteractable.getInteractionPrompt() != null) {
+            postInteractionPrompt(uiManager, closestInteractable != null ? closestInteractable.getInteractionPrompt() : null);
         }
-        if (closestInteractable == null) {
-            uiManager.hideInteractionPrompt();
+    }
+
+    /**
+     * Передає підказку взаємодії з потоку симуляції в потік JavaFX. Оновлення об’єднуються:
+     * поки попереднє не виконано, нове лише замінює текст, тому черга JavaFX не переповнюється.
+     *
+     * @param uiManager менеджер інтерфейсу
+     * @param prompt текст підказки або null, щоб сховати її
+     */
+    private void postInteractionPrompt(UIManager uiManager, String prompt) {
+        pendingPrompt = prompt;
+        if (promptUpdateScheduled.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                promptUpdateScheduled.set(false);
+                String latestPrompt = pendingPrompt;
+                if (latestPrompt != null) {
+                    uiManager.showInteractionPrompt(latestPrompt);
+                } else {
+                    uiManager.hideInteractionPrompt();
+                }
+            });
         }
     }
 
@@ -826,7 +1815,7 @@ public class GameManager implements Savable {
                 player.buyItem(item);
             }
             saveGameManagerState();
-            UIManager.getInstance().updateMoneyDisplay();
+            updateMoneyDisplay();
             return true;
         } else {
             return false;
@@ -851,14 +1840,17 @@ public class GameManager implements Savable {
      * Завершує гру, встановлюючи стан GAME_OVER.
      */
     public void gameOver() {
-        gameState = GameState.GAME_OVER;
+        setGameState(GameState.GAME_OVER);
     }
 
     /**
      * Зберігає стан гри через SaveManager.
      */
     public void saveGame() {
-        saveManager.saveGame(gameState);
+        if (headless) return;
+        synchronized (simulationLock) {
+            saveManager.saveGame(gameState);
+        }
     }
 
     /**
@@ -885,7 +1877,7 @@ public class GameManager implements Savable {
      */
     @Override
     public void setFromData(JSONObject data) {
-        gameState = GameState.valueOf(data.getString("gameState"));
+        setGameState(GameState.valueOf(data.getString("gameState")));
         currentLevelId = data.getInt("currentLevelId");
         code = data.getString("code");
         completedLevels = new ArrayList<>();
@@ -905,7 +1897,7 @@ public class GameManager implements Savable {
         if (!completedLevels.contains(levelId)) {
             completedLevels.add(levelId);
             currentLevelId = levelId + 1;
-            saveManager.saveGame(gameState);
+            saveGame();
         }
     }
 
@@ -916,7 +1908,7 @@ public class GameManager implements Savable {
         totalMoney += temporaryMoney;
         temporaryMoney = 0;
         saveGameManagerState();
-        UIManager.getInstance().updateMoneyDisplay();
+        updateMoneyDisplay();
     }
 
     /**
@@ -927,7 +1919,7 @@ public class GameManager implements Savable {
     public void addTemporaryMoney(int amount) {
         temporaryMoney += amount;
         saveGameManagerState();
-        UIManager.getInstance().updateMoneyDisplay();
+        updateMoneyDisplay();
     }
 
     /**
@@ -938,7 +1930,7 @@ public class GameManager implements Savable {
     public void setTemporaryMoney(int amount) {
         temporaryMoney = amount;
         saveGameManagerState();
-        UIManager.getInstance().updateMoneyDisplay();
+        updateMoneyDisplay();
     }
 
     /**
@@ -1019,6 +2011,7 @@ public class GameManager implements Savable {
      * Зберігає прогрес гри.
      */
     public void saveProgress() {
+        if (headless) return;
         saveManager.saveGame(gameState);
     }
 
@@ -1026,6 +2019,7 @@ public class GameManager implements Savable {
      * Зберігає стан GameManager у файл game_progress.json.
      */
     public void saveGameManagerState() {
+        if (headless) return;
         JSONObject data = new JSONObject();
         data.put("gameState", GameState.PLAYING.toString());
         data.put("currentLevelId", currentLevelId);
@@ -1105,10 +2099,30 @@ public class GameManager implements Savable {
     /**
      * Повертає список головоломок.
      *
-     * @return список головоломок
+     * @return незмінний список головоломок
      */
     public List<Puzzle> getPuzzles() {
-        return puzzles;
+        return puzzles.getAll();
+    }
+
+    /**
+     * Додає головоломку поточного рівня.
+     *
+     * @param puzzle головоломка
+     */
+    public void addPuzzle(Puzzle puzzle) {
+        puzzles.add(puzzle);
+    }
+
+    /**
+     * Повертає першу головоломку заданого типу.
+     *
+     * @param type клас головоломки
+     * @param <T> тип головоломки
+     * @return головоломка або null
+     */
+    public <T extends Puzzle> T getPuzzle(Class<T> type) {
+        return puzzles.getFirst(type);
     }
 
     /**
@@ -1118,13 +2132,16 @@ public class GameManager implements Savable {
      * @return кімната або null, якщо не знайдено
      */
     public Room getRoomForPosition(Vector2D position) {
-        for (Room room : rooms) {
-            Bounds bounds = room.getBounds();
-            if (bounds.contains(position.x, position.y)) {
-                return room;
-            }
-        }
-        return null;
+        return roomGrid.getRoomAt(position.x, position.y);
+    }
+
+    /**
+     * Повертає просторовий індекс кімнат поточного рівня.
+     *
+     * @return індекс кімнат
+     */
+    public RoomGrid getRoomGrid() {
+        return roomGrid;
     }
 
     /**
@@ -1139,7 +2156,9 @@ public class GameManager implements Savable {
                     .findFirst().orElse(null);
 
             if (gunItem != null && player.useItem(gunItem)) {
-                UIManager.getInstance().updateAllBoostCounts();
+                if (!headless) {
+                    runOnUiThread(() -> UIManager.getInstance().updateAllBoostCounts());
+                }
                 soundManager.playSound(SoundManager.SoundType.SHOOT);
                 player.attack(true);
                 Police target = findTargetPolice();
@@ -1151,19 +2170,32 @@ public class GameManager implements Savable {
     }
 
     /**
-     * Знаходить цільового поліцейського для стрільби.
+     * Знаходить цільового поліцейського для стрільби. Кімнати порівнюються за ID, збереженими
+     * стадією кімнат, як у {@link Police}.
      *
      * @return найближчий поліцейський у напрямку стрільби або null
      */
     private Police findTargetPolice() {
-        GameManager.Room playerRoom = getRoomForPosition(player.getPosition());
-        if (playerRoom == null) return null;
-
-        return police.stream()
-                .filter(p -> playerRoom.equals(getRoomForPosition(p.getPosition())))
-                .filter(p -> (player.getDirection() == Player.Direction.RIGHT && p.getPosition().getX() > player.getPosition().getX()) ||
-                        (player.getDirection() == Player.Direction.LEFT && p.getPosition().getX() < player.getPosition().getX()))
-                .min(Comparator.comparingDouble(p -> player.getPosition().distance(p.getPosition())))
-                .orElse(null);
+        int playerRoomId = player.getCurrentRoomId();
+        if (playerRoomId == RoomOccupant.NO_ROOM) return null;
+
+        Police target = null;
+        double targetDistance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < police.size(); i++) {
+            Police candidate = police.get(i);
+            if (candidate.getCurrentRoomId() != playerRoomId) continue;
+            boolean ahead = player.getDirection() == Player.Direction.RIGHT
+                    ? candidate.getMinX() > player.getMinX()
+                    : player.getDirection() == Player.Direction.LEFT && candidate.getMinX() < player.getMinX();
+            if (!ahead) continue;
+            double dx = player.getMinX() - candidate.getMinX();
+            double dy = player.getMinY() - candidate.getMinY();
+            double distance = Math.sqrt(dx * dx + dy * dy);
+            if (distance < targetDistance) {
+                target = candidate;
+                targetDistance = distance;
+            }
+        }
+        return target;
     }
-}
\ No newline at end of file
+}
@@ -56,6 +56,10 @@ public class LevelManager {
             return;
         }
         levels.put(id, levelData);
+        // Спрайти рівня пакуються в атлас до створення об'єктів, щоб їхні кадри посилалися на сторінки атласу
+        if (!Boolean.getBoolean("catrobber.noAtlas")) {
+            gameLoader.buildLevelAtlas(levelData);
+        }
         collisionMap = gameLoader.loadCollisionMap(levelData);
         String backgroundPath = "background/level" + id + "/rooms.png";
         GameManager.getInstance().setBackgroundImage(backgroundPath);
@@ -135,7 +139,7 @@ public class LevelManager {
                 JSONObject puzzleObj = puzzleData.getJSONObject(key);
                 Puzzle puzzle = gameLoader.createSinglePuzzle(puzzleObj);
                 if (puzzle != null) {
-                    GameManager.getInstance().getPuzzles().add(puzzle);
+                    GameManager.getInstance().addPuzzle(puzzle);
                 }
             }
         }
@@ -217,7 +217,7 @@ public class SaveManager {
                 JSONObject puzzleObj = puzzlesData.getJSONObject(key);
                 Puzzle puzzle = gameLoader.createSinglePuzzle(puzzleObj);
                 if (puzzle != null) {
-                    GameManager.getInstance().getPuzzles().add(puzzle);
+                    GameManager.getInstance().addPuzzle(puzzle);
                 }
             }
         }
@@ -0,0 +1,143 @@
+package managers;
+
+import utils.AllocationProbe;
+import utils.FrameProfiler;
+import utils.InputHandler;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Окремий потік симуляції: виконує {@link GameManager#tick(InputHandler, double)} з фіксованим кроком
+ * {@link GameManager#SIMULATION_STEP} і після кожного кроку публікує незмінний знімок кадру,
+ * який потік JavaFX лише малює. Важкий крок AI чи колізій більше не блокує потік JavaFX.
+ */
+public class SimulationThread {
+    /** Максимум кроків симуляції, які можна наздогнати за одну ітерацію. */
+    private static final int MAX_CATCH_UP_STEPS = 8;
+
+    /** Пауза між перевірками стану, коли гра не в стані PLAYING (наносекунди). */
+    private static final long IDLE_PARK_NANOS = 10_000_000L;
+
+    /** Менеджер ігрової логіки. */
+    private final GameManager gameManager;
+
+    /** Обробник вводу, з якого читаються натиснуті клавіші. */
+    private final InputHandler inputHandler;
+
+    /** Потік, у якому виконується симуляція. */
+    private Thread thread;
+
+    /** Прапорець роботи потоку. */
+    private volatile boolean running;
+
+    /** Профайлер фаз кадру. */
+    private final FrameProfiler profiler = FrameProfiler.getInstance();
+
+    /** Фаза профайлера для кроку симуляції. */
+    private final int tickPhase = profiler.registerPhase("tick");
+
+    /** Лічильник виділеної пам’яті та його ділянка для кроку симуляції. */
+    private final AllocationProbe allocationProbe = AllocationProbe.getInstance();
+    private final int tickAllocationSite = allocationProbe.registerSite("tick");
+
+    /**
+     * Конструктор потоку симуляції.
+     *
+     * @param gameManager менеджер ігрової логіки
+     * @param inputHandler обробник вводу
+     */
+    public SimulationThread(GameManager gameManager, InputHandler inputHandler) {
+        this.gameManager = gameManager;
+        this.inputHandler = inputHandler;
+    }
+
+    /**
+     * Запускає потік симуляції і вмикає в GameManager рендеринг зі знімків.
+     */
+    public void start() {
+        if (running) return;
+        running = true;
+        gameManager.setInterpolationAlpha(1.0); // Знімки містять позиції останнього кроку
+        gameManager.setSnapshotRendering(true);
+        thread = new Thread(this::run, "CatRobber-Simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Зупиняє потік симуляції і чекає на завершення поточного кроку.
+     */
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+        gameManager.setSnapshotRendering(false);
+    }
+
+    /**
+     * Перевіряє, чи працює потік симуляції.
+     *
+     * @return true, якщо потік запущено
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Основний цикл потоку: накопичує реальний час і виконує кроки фіксованої тривалості.
+     */
+    private void run() {
+        long stepNanos = (long) (GameManager.SIMULATION_STEP * 1_000_000_000L);
+        long nextStepTime = System.nanoTime();
+        while (running) {
+            if (gameManager.getGameState() != GameManager.GameState.PLAYING) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                nextStepTime = System.nanoTime(); // Після паузи не наздоганяємо пропущений час
+                continue;
+            }
+
+            long now = System.nanoTime();
+            int steps = 0;
+            while (now - nextStepTime >= 0 && steps < MAX_CATCH_UP_STEPS) {
+                step();
+                nextStepTime += stepNanos;
+                steps++;
+            }
+            if (steps == MAX_CATCH_UP_STEPS && now - nextStepTime >= 0) {
+                nextStepTime = now; // Відкидаємо залишок, який не встигли просимулювати
+            }
+
+            long waitNanos = nextStepTime - System.nanoTime();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+        }
+    }
+
+    /**
+     * Виконує один крок симуляції під монітором GameManager і публікує знімок кадру.
+     */
+    private void step() {
+        synchronized (gameManager.getSimulationLock()) {
+            try {
+                gameManager.storePreviousPositions();
+                long start = profiler.start();
+                long allocated = allocationProbe.start();
+                gameManager.tick(inputHandler, GameManager.SIMULATION_STEP);
+                allocationProbe.record(tickAllocationSite, allocated);
+                profiler.record(tickPhase, start);
+                gameManager.publishRenderSnapshot();
+            } catch (RuntimeException e) {
+                System.err.println("Помилка в потоці симуляції: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -62,6 +62,21 @@ public class SoundManager {
      */
     private static SoundManager instance;
 
+    /**
+     * Прапорець беззвучного режиму: звуки не завантажуються і не відтворюються
+     * (використовується безголовою симуляцією, де аудіопристрою може не бути).
+     */
+    private static boolean silent = false;
+
+    /**
+     * Вмикає беззвучний режим. Має викликатися до першого {@link #getInstance()}.
+     *
+     * @param silent true, щоб не завантажувати та не відтворювати звуки
+     */
+    public static void setSilent(boolean silent) {
+        SoundManager.silent = silent;
+    }
+
     /**
      * Повертає єдиний екземпляр класу SoundManager.
      *
@@ -79,6 +94,9 @@ public class SoundManager {
      */
     private SoundManager() {
         sounds = new EnumMap<>(SoundType.class);
+        if (silent) {
+            return;
+        }
         loadSounds();
         initRunSound();
     }
@@ -192,6 +210,9 @@ public class SoundManager {
      */
     public void playMusic(String trackName) {
         stopMusic();
+        if (silent) {
+            return;
+        }
         try {
             String path = getFilePath("assets\\music\\background\\" + trackName);
             Media media = new Media(path);
@@ -0,0 +1,119 @@
+package managers;
+
+import interfaces.TickSystem;
+import utils.AllocationProbe;
+import utils.FrameProfiler;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Упорядкований конвеєр кроку симуляції. Системи реєструються в іменованих стадіях
+ * і замість того, щоб викликати одна одну, виконуються рівно один раз за крок у фіксованому
+ * порядку стадій: ввід → AI → рух → розв’язання колізій → пошук взаємодій → події.
+ * Час кожної стадії записується у {@link FrameProfiler}, тож вартість кроку обмежена й вимірювана.
+ * Якщо увімкнено {@link AllocationProbe}, для кожної системи рахується й виділена пам’ять.
+ */
+public class TickPipeline {
+    /**
+     * Стадії кроку симуляції у порядку виконання.
+     */
+    public enum Stage {INPUT, AI, MOVEMENT, COLLISION, INTERACTION, EVENTS}
+
+    /** Стадії в порядку виконання; Stage.values() щоразу створює новий масив. */
+    private static final Stage[] STAGE_ORDER = Stage.values();
+
+    /**
+     * Зареєстрована система з назвою для діагностики.
+     */
+    private static class RegisteredSystem {
+        private final String name;
+        private final TickSystem system;
+        private final int allocationSite;
+
+        private RegisteredSystem(String name, TickSystem system, int allocationSite) {
+            this.name = name;
+            this.system = system;
+            this.allocationSite = allocationSite;
+        }
+    }
+
+    /** Системи кожної стадії в порядку реєстрації. */
+    private final Map<Stage, List<RegisteredSystem>> stages = new EnumMap<>(Stage.class);
+
+    /** Профайлер фаз кадру. */
+    private final FrameProfiler profiler = FrameProfiler.getInstance();
+
+    /** Лічильник виділеної пам’яті по системах. */
+    private final AllocationProbe allocationProbe = AllocationProbe.getInstance();
+
+    /** Ідентифікатори фаз профайлера для кожної стадії. */
+    private final int[] stagePhases = new int[Stage.values().length];
+
+    /**
+     * Конструктор, що створює порожні стадії та реєструє їх як фази профайлера.
+     */
+    public TickPipeline() {
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new ArrayList<>());
+            stagePhases[stage.ordinal()] = profiler.registerPhase("tick." + stage.name().toLowerCase());
+        }
+    }
+
+    /**
+     * Реєструє систему в стадії. Системи однієї стадії виконуються в порядку реєстрації.
+     *
+     * @param stage стадія кроку
+     * @param name назва системи
+     * @param system система
+     */
+    public void register(Stage stage, String name, TickSystem system) {
+        int allocationSite = allocationProbe.registerSite("tick." + stage.name().toLowerCase() + "." + name);
+        stages.get(stage).add(new RegisteredSystem(name, system, allocationSite));
+    }
+
+    /**
+     * Видаляє систему зі стадії за назвою.
+     *
+     * @param stage стадія кроку
+     * @param name назва системи
+     */
+    public void unregister(Stage stage, String name) {
+        stages.get(stage).removeIf(registered -> registered.name.equals(name));
+    }
+
+    /**
+     * Повертає назви систем стадії в порядку виконання.
+     *
+     * @param stage стадія кроку
+     * @return список назв систем
+     */
+    public List<String> getSystemNames(Stage stage) {
+        List<String> names = new ArrayList<>();
+        for (RegisteredSystem registered : stages.get(stage)) {
+            names.add(registered.name);
+        }
+        return names;
+    }
+
+    /**
+     * Виконує один крок симуляції: усі стадії по черзі, кожну систему один раз.
+     *
+     * @param deltaTime тривалість кроку в секундах
+     */
+    public void run(double deltaTime) {
+        for (Stage stage : STAGE_ORDER) {
+            List<RegisteredSystem> systems = stages.get(stage);
+            long start = profiler.start();
+            for (int i = 0; i < systems.size(); i++) {
+                RegisteredSystem registered = systems.get(i);
+                long allocated = allocationProbe.start();
+                registered.system.tick(deltaTime);
+                allocationProbe.record(registered.allocationSite, allocated);
+            }
+            profiler.record(stagePhases[stage.ordinal()], start);
+        }
+    }
+}
@@ -4,5 +4,6 @@ module org.example.catrobber {
     requires javafx.media;
     requires javafx.graphics;
     requires java.desktop;
+    requires jdk.management;
     exports main;
 }
\ No newline at end of file
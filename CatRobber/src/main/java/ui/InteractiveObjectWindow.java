@@ -21,7 +21,6 @@ import managers.UIManager;
 import org.json.JSONObject;
 import utils.GameLoader;
 
-import java.util.Random;
 
 /**
  * Клас, який представляє вікно з інтерактивним об'єктом у грі.
@@ -501,7 +500,7 @@ public class InteractiveObjectWindow {
         browserContentArea.getChildren().add(accessTime);
 
         // ID сесії
-        Label sessionId = new Label("Session ID: CAT-" + new Random().nextInt(100000));
+        Label sessionId = new Label("Session ID: CAT-" + GameManager.getInstance().getRandom().nextInt(100000));
         sessionId.setFont(FontManager.getInstance().getFont("Hardpixel", 12));
         sessionId.setTextFill(Color.GRAY);
         sessionId.setLayoutX(180);
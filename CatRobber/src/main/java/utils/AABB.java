@@ -0,0 +1,280 @@
+package utils;
+
+/**
+ * Змінний прямокутник, вирівняний за осями (axis-aligned bounding box), для обчислень
+ * у гарячих циклах без створення нових об'єктів. Порожній прямокутник має minX > maxX.
+ */
+public final class AABB {
+    /** Межі прямокутника. */
+    private double minX, minY, maxX, maxY;
+
+    /**
+     * Створює порожній прямокутник.
+     */
+    public AABB() {
+        clear();
+    }
+
+    /**
+     * Робить прямокутник порожнім.
+     *
+     * @return цей прямокутник
+     */
+    public AABB clear() {
+        minX = Double.POSITIVE_INFINITY;
+        minY = Double.POSITIVE_INFINITY;
+        maxX = Double.NEGATIVE_INFINITY;
+        maxY = Double.NEGATIVE_INFINITY;
+        return this;
+    }
+
+    /**
+     * Встановлює межі за мінімальними та максимальними координатами.
+     *
+     * @return цей прямокутник
+     */
+    public AABB set(double minX, double minY, double maxX, double maxY) {
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        return this;
+    }
+
+    /**
+     * Копіює межі іншого прямокутника.
+     *
+     * @param other прямокутник-джерело
+     * @return цей прямокутник
+     */
+    public AABB set(AABB other) {
+        return set(other.minX, other.minY, other.maxX, other.maxY);
+    }
+
+    /**
+     * Встановлює межі за лівим верхнім кутом і розмірами.
+     *
+     * @return цей прямокутник
+     */
+    public AABB setRect(double x, double y, double width, double height) {
+        return set(x, y, x + width, y + height);
+    }
+
+    /**
+     * Розширює прямокутник, щоб він охоплював заданий прямокутник.
+     *
+     * @return цей прямокутник
+     */
+    public AABB unionRect(double x, double y, double width, double height) {
+        return union(x, y, x + width, y + height);
+    }
+
+    /**
+     * Розширює прямокутник, щоб він охоплював задані межі.
+     *
+     * @return цей прямокутник
+     */
+    public AABB union(double minX, double minY, double maxX, double maxY) {
+        this.minX = Math.min(this.minX, minX);
+        this.minY = Math.min(this.minY, minY);
+        this.maxX = Math.max(this.maxX, maxX);
+        this.maxY = Math.max(this.maxY, maxY);
+        return this;
+    }
+
+    /**
+     * Розширює прямокутник, щоб він охоплював інший прямокутник.
+     *
+     * @param other прямокутник для об'єднання
+     * @return цей прямокутник
+     */
+    public AABB union(AABB other) {
+        if (other.isEmpty()) return this;
+        return union(other.minX, other.minY, other.maxX, other.maxY);
+    }
+
+    /**
+     * Розширює прямокутник, щоб він охоплював точку.
+     *
+     * @return цей прямокутник
+     */
+    public AABB unionPoint(double x, double y) {
+        return union(x, y, x, y);
+    }
+
+    /**
+     * Розширює непорожній прямокутник на відступ з усіх боків і вирівнює межі до цілих пікселів.
+     *
+     * @param margin відступ у пікселях
+     * @return цей прямокутник
+     */
+    public AABB expandToPixels(double margin) {
+        if (isEmpty()) return this;
+        return set(Math.floor(minX - margin), Math.floor(minY - margin),
+                Math.ceil(maxX + margin), Math.ceil(maxY + margin));
+    }
+
+    /**
+     * Перевіряє перетин з іншим прямокутником (дотик краями не вважається перетином).
+     *
+     * @param other інший прямокутник
+     * @return true, якщо прямокутники перетинаються
+     */
+    public boolean intersects(AABB other) {
+        return minX < other.maxX && other.minX < maxX && minY < other.maxY && other.minY < maxY;
+    }
+
+    /**
+     * Перевіряє перетин з іншим прямокутником, вважаючи дотик краями перетином
+     * (як {@link javafx.geometry.Bounds#intersects(javafx.geometry.Bounds)}).
+     *
+     * @param other інший прямокутник
+     * @return true, якщо прямокутники перетинаються або дотикаються
+     */
+    public boolean touches(AABB other) {
+        return minX <= other.maxX && other.minX <= maxX && minY <= other.maxY && other.minY <= maxY;
+    }
+
+    /**
+     * Обмежує горизонтальне переміщення цього прямокутника так, щоб він не зайшов у перешкоду:
+     * рух зупиняється в момент дотику. Перешкода враховується, лише якщо вона перекриває
+     * прямокутник по y і лежить попереду в напрямку руху; з перешкодою, яку прямокутник
+     * уже перетинає, переміщення не обмежується.
+     *
+     * @param deltaX бажане переміщення по x
+     * @param obstacle перешкода
+     * @return дозволене переміщення по x
+     */
+    public double sweepX(double deltaX, AABB obstacle) {
+        if (deltaX == 0 || minY >= obstacle.maxY || obstacle.minY >= maxY) return deltaX;
+        if (deltaX > 0 && obstacle.minX >= maxX) {
+            return Math.min(deltaX, obstacle.minX - maxX);
+        }
+        if (deltaX < 0 && obstacle.maxX <= minX) {
+            return Math.max(deltaX, obstacle.maxX - minX);
+        }
+        return deltaX;
+    }
+
+    /**
+     * Перевіряє перетин із трикутником теоремою про розділову вісь: перевіряються осі x, y
+     * та нормалі трьох ребер трикутника. Дотик краями вважається перетином. Працює за сталий
+     * час і без створення об'єктів.
+     *
+     * @return true, якщо прямокутник і трикутник (ax, ay), (bx, by), (cx, cy) перетинаються
+     */
+    public boolean intersectsTriangle(double ax, double ay, double bx, double by, double cx, double cy) {
+        if (isEmpty()) return false;
+        // Осі прямокутника: порівнюються межі трикутника
+        if (Math.max(ax, Math.max(bx, cx)) < minX || Math.min(ax, Math.min(bx, cx)) > maxX) return false;
+        if (Math.max(ay, Math.max(by, cy)) < minY || Math.min(ay, Math.min(by, cy)) > maxY) return false;
+        // Нормалі ребер трикутника
+        double centerX = (minX + maxX) * 0.5, centerY = (minY + maxY) * 0.5;
+        double halfWidth = (maxX - minX) * 0.5, halfHeight = (maxY - minY) * 0.5;
+        return !separatesByEdge(ax, ay, bx, by, cx, cy, centerX, centerY, halfWidth, halfHeight)
+                && !separatesByEdge(bx, by, cx, cy, ax, ay, centerX, centerY, halfWidth, halfHeight)
+                && !separatesByEdge(cx, cy, ax, ay, bx, by, centerX, centerY, halfWidth, halfHeight);
+    }
+
+    /**
+     * Перевіряє, чи нормаль ребра (x0, y0)–(x1, y1) розділяє трикутник і прямокутник.
+     * Третя вершина (x2, y2) визначає протилежний кінець проєкції трикутника.
+     */
+    private static boolean separatesByEdge(double x0, double y0, double x1, double y1, double x2, double y2,
+                                           double centerX, double centerY, double halfWidth, double halfHeight) {
+        double normalX = y0 - y1, normalY = x1 - x0;
+        double edge = normalX * x0 + normalY * y0; // Проєкція ребра (обох його вершин)
+        double opposite = normalX * x2 + normalY * y2;
+        double center = normalX * centerX + normalY * centerY;
+        double radius = halfWidth * Math.abs(normalX) + halfHeight * Math.abs(normalY);
+        double triangleMin = Math.min(edge, opposite), triangleMax = Math.max(edge, opposite);
+        return center + radius < triangleMin || center - radius > triangleMax;
+    }
+
+    /**
+     * Перевіряє, чи межі збігаються з межами іншого прямокутника.
+     *
+     * @param other інший прямокутник
+     * @return true, якщо межі однакові
+     */
+    public boolean sameAs(AABB other) {
+        return minX == other.minX && minY == other.minY && maxX == other.maxX && maxY == other.maxY;
+    }
+
+    /**
+     * Перевіряє, чи прямокутник порожній.
+     *
+     * @return true, якщо прямокутник не має площі
+     */
+    public boolean isEmpty() {
+        return minX >= maxX || minY >= maxY;
+    }
+
+    /**
+     * Повертає площу прямокутника.
+     *
+     * @return площа або 0 для порожнього прямокутника
+     */
+    public double getArea() {
+        return isEmpty() ? 0 : (maxX - minX) * (maxY - minY);
+    }
+
+    /**
+     * Повертає мінімальну координату x.
+     *
+     * @return мінімальна координата x
+     */
+    public double getMinX() {
+        return minX;
+    }
+
+    /**
+     * Повертає мінімальну координату y.
+     *
+     * @return мінімальна координата y
+     */
+    public double getMinY() {
+        return minY;
+    }
+
+    /**
+     * Повертає максимальну координату x.
+     *
+     * @return максимальна координата x
+     */
+    public double getMaxX() {
+        return maxX;
+    }
+
+    /**
+     * Повертає максимальну координату y.
+     *
+     * @return максимальна координата y
+     */
+    public double getMaxY() {
+        return maxY;
+    }
+
+    /**
+     * Повертає ширину прямокутника.
+     *
+     * @return ширина прямокутника
+     */
+    public double getWidth() {
+        return maxX - minX;
+    }
+
+    /**
+     * Повертає висоту прямокутника.
+     *
+     * @return висота прямокутника
+     */
+    public double getHeight() {
+        return maxY - minY;
+    }
+
+    @Override
+    public String toString() {
+        return "AABB[" + minX + ", " + minY + " - " + maxX + ", " + maxY + "]";
+    }
+}
@@ -0,0 +1,218 @@
+package utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Лічильник виділеної пам’яті за ділянками коду. Кількість байтів, виділених поточним потоком,
+ * читається через {@code com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()}
+ * до і після ділянки (крок симуляції, система конвеєра, рендеринг), а різниця підсумовується
+ * для ділянки. Звіт показує ділянки з найбільшим виділенням — саме вони спричиняють паузи GC.
+ *
+ * <p>Використання таке саме, як у {@link FrameProfiler}:
+ * {@code long start = probe.start(); ... probe.record(siteId, start);}. Вимкнений лічильник
+ * (за замовчуванням) не звертається до JMX, тож у звичайній грі нічого не коштує. Вмикається
+ * властивістю {@code -Dcatrobber.allocProbe=true} або з коду ({@link #setEnabled(boolean)}).
+ * Вкладена ділянка (система всередині кроку) входить і в батьківську.</p>
+ */
+public class AllocationProbe {
+    /** Єдиний екземпляр класу AllocationProbe (патерн Singleton). */
+    private static AllocationProbe instance;
+
+    /** Максимальна кількість ділянок. */
+    private static final int MAX_SITES = 64;
+
+    /** Скільки ділянок показує звіт. */
+    private static final int REPORT_SITES = 10;
+
+    /**
+     * Бюджет виділень кроку симуляції за прогін після прогріву (байтів). Вистачає на поодинокі
+     * виділення подій (телепорт, перший показ підказки), але не на виділення на кожному кроці
+     * за досить довгий прогін. Спільний для {@code HeadlessSimulation --alloc-check} і тестів.
+     */
+    public static final long DEFAULT_RUN_BUDGET = 256 * 1024;
+
+    /** JMX-бін потоків HotSpot або null, якщо JVM не рахує виділення по потоках. */
+    private final com.sun.management.ThreadMXBean threadBean;
+
+    /** Назви зареєстрованих ділянок. */
+    private final List<String> siteNames = new ArrayList<>();
+
+    /** Виділені байти та кількість вимірів кожної ділянки. */
+    private final long[] allocatedBytes = new long[MAX_SITES];
+    private final long[] samples = new long[MAX_SITES];
+
+    /** Чи ведеться облік. */
+    private volatile boolean enabled;
+
+    /**
+     * Приватний конструктор (патерн Singleton).
+     */
+    private AllocationProbe() {
+        com.sun.management.ThreadMXBean bean = null;
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean hotSpotBean
+                && hotSpotBean.isThreadAllocatedMemorySupported()) {
+            hotSpotBean.setThreadAllocatedMemoryEnabled(true);
+            bean = hotSpotBean;
+        }
+        threadBean = bean;
+        setEnabled(Boolean.getBoolean("catrobber.allocProbe"));
+    }
+
+    /**
+     * Повертає єдиний екземпляр класу AllocationProbe.
+     *
+     * @return екземпляр AllocationProbe
+     */
+    public static synchronized AllocationProbe getInstance() {
+        if (instance == null) {
+            instance = new AllocationProbe();
+        }
+        return instance;
+    }
+
+    /**
+     * Перевіряє, чи JVM уміє рахувати виділену пам’ять по потоках.
+     *
+     * @return true, якщо вимірювання можливі
+     */
+    public boolean isSupported() {
+        return threadBean != null;
+    }
+
+    /**
+     * Вмикає або вимикає облік. Якщо JVM не підтримує вимірювання, облік лишається вимкненим.
+     *
+     * @param enabled true, щоб рахувати виділення
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled && threadBean == null) {
+            System.err.println("Лічильник виділень недоступний: JVM не рахує пам’ять по потоках");
+            enabled = false;
+        }
+        this.enabled = enabled;
+    }
+
+    /**
+     * Перевіряє, чи ведеться облік.
+     *
+     * @return true, якщо облік увімкнено
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Реєструє ділянку за назвою. Повторна реєстрація повертає той самий ідентифікатор.
+     *
+     * @param name назва ділянки
+     * @return ідентифікатор ділянки для {@link #record(int, long)}
+     */
+    public synchronized int registerSite(String name) {
+        int existing = siteNames.indexOf(name);
+        if (existing >= 0) {
+            return existing;
+        }
+        if (siteNames.size() >= MAX_SITES) {
+            throw new IllegalStateException("Забагато ділянок лічильника виділень: " + name);
+        }
+        siteNames.add(name);
+        return siteNames.size() - 1;
+    }
+
+    /**
+     * Повертає кількість байтів, виділених поточним потоком, як мітку початку ділянки.
+     *
+     * @return лічильник виділень потоку або 0, якщо облік вимкнено
+     */
+    public long start() {
+        return enabled ? threadBean.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    /**
+     * Додає байти, виділені поточним потоком від мітки start, до ділянки.
+     *
+     * @param siteId ідентифікатор ділянки
+     * @param start мітка, отримана з {@link #start()}
+     */
+    public void record(int siteId, long start) {
+        if (!enabled) return;
+        long allocated = threadBean.getCurrentThreadAllocatedBytes() - start;
+        synchronized (this) {
+            allocatedBytes[siteId] += allocated;
+            samples[siteId]++;
+        }
+    }
+
+    /**
+     * Обнуляє накопичені дані всіх ділянок (наприклад, після прогріву JIT).
+     */
+    public synchronized void reset() {
+        Arrays.fill(allocatedBytes, 0);
+        Arrays.fill(samples, 0);
+    }
+
+    /**
+     * Повертає загальну кількість байтів, виділених у ділянці.
+     *
+     * @param siteId ідентифікатор ділянки
+     * @return байти з моменту останнього {@link #reset()}
+     */
+    public synchronized long getAllocatedBytes(int siteId) {
+        return allocatedBytes[siteId];
+    }
+
+    /**
+     * Повертає кількість вимірів ділянки.
+     *
+     * @param siteId ідентифікатор ділянки
+     * @return кількість вимірів з моменту останнього {@link #reset()}
+     */
+    public synchronized long getSampleCount(int siteId) {
+        return samples[siteId];
+    }
+
+    /**
+     * Повертає середню кількість байтів за один вимір ділянки.
+     *
+     * @param siteId ідентифікатор ділянки
+     * @return байти за вимір або 0, якщо вимірів ще не було
+     */
+    public synchronized double getBytesPerSample(int siteId) {
+        return samples[siteId] == 0 ? 0 : (double) allocatedBytes[siteId] / samples[siteId];
+    }
+
+    /**
+     * Друкує ділянки з найбільшим виділенням: загальний обсяг, кількість вимірів і байти за вимір.
+     */
+    public void printReport() {
+        System.out.print(formatReport());
+    }
+
+    /**
+     * Формує звіт про ділянки з найбільшим виділенням (той самий, що друкує {@link #printReport()}),
+     * наприклад для повідомлення тесту.
+     *
+     * @return багаторядковий звіт
+     */
+    public synchronized String formatReport() {
+        StringBuilder report = new StringBuilder();
+        int sites = siteNames.size();
+        Integer[] order = new Integer[sites];
+        for (int i = 0; i < sites; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(allocatedBytes[b], allocatedBytes[a]));
+        report.append("Виділення пам’яті за ділянками:").append(System.lineSeparator());
+        report.append(String.format("  %-32s %14s %10s %12s%n", "ділянка", "байтів", "вимірів", "байт/вимір"));
+        for (int i = 0; i < Math.min(sites, REPORT_SITES); i++) {
+            int site = order[i];
+            if (samples[site] == 0) continue;
+            report.append(String.format("  %-32s %14d %10d %12.1f%n", siteNames.get(site), allocatedBytes[site],
+                    samples[site], (double) allocatedBytes[site] / samples[site]));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,136 @@
+package utils;
+
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * Камера (вьюпорт) двовимірного світу. Визначає, яка частина рівня видима на Canvas:
+ * центрується на цілі (гравці) і не виходить за межі світу. Рендеринг зсуває контекст
+ * на позицію камери, а об’єкти, чиї межі не перетинають вьюпорт, не малюються.
+ * Якщо світ не більший за вьюпорт, камера стоїть у точці (0, 0).
+ */
+public class Camera2D {
+    /** Лівий верхній кут вьюпорта у світових координатах. */
+    private double x, y;
+
+    /** Розмір вьюпорта. */
+    private double viewportWidth, viewportHeight;
+
+    /** Розмір світу (рівня). */
+    private double worldWidth, worldHeight;
+
+    /**
+     * Створює камеру з вьюпортом заданого розміру; світ за замовчуванням збігається з вьюпортом.
+     *
+     * @param viewportWidth ширина вьюпорта
+     * @param viewportHeight висота вьюпорта
+     */
+    public Camera2D(double viewportWidth, double viewportHeight) {
+        this.viewportWidth = viewportWidth;
+        this.viewportHeight = viewportHeight;
+        this.worldWidth = viewportWidth;
+        this.worldHeight = viewportHeight;
+    }
+
+    /**
+     * Встановлює розмір вьюпорта (розмір Canvas).
+     *
+     * @param width ширина вьюпорта
+     * @param height висота вьюпорта
+     */
+    public void setViewportSize(double width, double height) {
+        this.viewportWidth = width;
+        this.viewportHeight = height;
+        clamp();
+    }
+
+    /**
+     * Встановлює розмір світу (рівня в пікселях).
+     *
+     * @param width ширина світу
+     * @param height висота світу
+     */
+    public void setWorldSize(double width, double height) {
+        this.worldWidth = width;
+        this.worldHeight = height;
+        clamp();
+    }
+
+    /**
+     * Центрує камеру на точці світу, не виходячи за його межі. Позиція округлюється
+     * до цілих пікселів, щоб спрайти не тремтіли при русі камери.
+     *
+     * @param targetX координата x цілі
+     * @param targetY координата y цілі
+     */
+    public void centerOn(double targetX, double targetY) {
+        x = Math.round(targetX - viewportWidth / 2);
+        y = Math.round(targetY - viewportHeight / 2);
+        clamp();
+    }
+
+    /**
+     * Зсуває контекст так, щоб подальше малювання відбувалося у світових координатах.
+     * Викликається між gc.save() і gc.restore().
+     *
+     * @param gc графічний контекст
+     */
+    public void apply(GraphicsContext gc) {
+        if (x != 0 || y != 0) {
+            gc.translate(-x, -y);
+        }
+    }
+
+    /**
+     * Записує видиму область світу.
+     *
+     * @param out прямокутник для видимої області
+     * @return той самий прямокутник
+     */
+    public AABB getViewBounds(AABB out) {
+        return out.setRect(x, y, viewportWidth, viewportHeight);
+    }
+
+    /**
+     * Повертає координату x лівого краю вьюпорта у світі.
+     *
+     * @return координата x
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Повертає координату y верхнього краю вьюпорта у світі.
+     *
+     * @return координата y
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Повертає ширину світу.
+     *
+     * @return ширина світу
+     */
+    public double getWorldWidth() {
+        return worldWidth;
+    }
+
+    /**
+     * Повертає висоту світу.
+     *
+     * @return висота світу
+     */
+    public double getWorldHeight() {
+        return worldHeight;
+    }
+
+    /**
+     * Обмежує позицію камери межами світу.
+     */
+    private void clamp() {
+        x = Math.max(0, Math.min(x, worldWidth - viewportWidth));
+        y = Math.max(0, Math.min(y, worldHeight - viewportHeight));
+    }
+}
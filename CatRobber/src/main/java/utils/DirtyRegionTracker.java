@@ -0,0 +1,246 @@
+package utils;
+
+import interfaces.Renderable;
+
+import java.util.Arrays;
+
+/**
+ * Відстежує змінені ("брудні") області кадру. Кожен кадр об'єкти повідомляють свої межі на екрані
+ * та ключ вигляду через {@link Renderable#getRenderBounds(AABB)} і {@link Renderable#getRenderStateKey()};
+ * трекер порівнює їх із попереднім кадром за індексом об'єкта і позначає брудними старі та нові межі
+ * кожного об'єкта, що змінився. Так очищується й перемальовується лише область руху, а не весь Canvas.
+ *
+ * <p>Повне перемальовування виконується, якщо змінилась кількість об'єктів, хоча б один об'єкт
+ * не знає своїх меж, брудних областей забагато або трекер було скинуто {@link #invalidate()}.</p>
+ */
+public class DirtyRegionTracker {
+    /** Максимальна кількість окремих брудних областей; надлишкові зливаються з найближчими. */
+    private static final int MAX_REGIONS = 8;
+
+    /** Відступ навколо меж об'єкта для піксельного вирівнювання та згладжених країв. */
+    private static final double PIXEL_MARGIN = 1.0;
+
+    /** Межі об'єктів у попередньому та поточному кадрі. */
+    private AABB[] previousBounds = new AABB[0];
+    private AABB[] currentBounds = new AABB[0];
+
+    /** Ключі вигляду об'єктів у попередньому та поточному кадрі. */
+    private long[] previousKeys = new long[0];
+    private long[] currentKeys = new long[0];
+
+    /** Кількість об'єктів у попередньому та поточному кадрі (-1 — попереднього кадру немає). */
+    private int previousCount = -1;
+    private int currentCount;
+
+    /** Чи повідомили всі об'єкти поточного кадру свої межі. */
+    private boolean allBoundsKnown;
+
+    /** Брудні області поточного кадру. */
+    private final AABB[] regions = new AABB[MAX_REGIONS];
+    private int regionCount;
+
+    /** Тимчасові прямокутники для злиття областей. */
+    private final AABB scratch = new AABB();
+    private final AABB merged = new AABB();
+
+    /** Чи потрібно перемалювати весь кадр. */
+    private boolean fullRedraw;
+
+    /** Чи потрібно перемалювати весь наступний кадр. */
+    private boolean invalidated = true;
+
+    /**
+     * Створює трекер; перший кадр завжди перемальовується повністю.
+     */
+    public DirtyRegionTracker() {
+        for (int i = 0; i < MAX_REGIONS; i++) {
+            regions[i] = new AABB();
+        }
+    }
+
+    /**
+     * Починає новий кадр: скидає брудні області та лічильник об'єктів.
+     */
+    public void beginFrame() {
+        regionCount = 0;
+        currentCount = 0;
+        allBoundsKnown = true;
+        fullRedraw = false;
+    }
+
+    /**
+     * Реєструє об'єкт поточного кадру. Об'єкти мають подаватися в тому ж порядку, в якому вони малюються.
+     *
+     * @param renderable об'єкт рендерингу
+     */
+    public void track(Renderable renderable) {
+        ensureCapacity(currentCount + 1);
+        AABB bounds = currentBounds[currentCount];
+        bounds.clear();
+        if (!renderable.getRenderBounds(bounds)) {
+            allBoundsKnown = false;
+        }
+        currentKeys[currentCount] = renderable.getRenderStateKey();
+        currentCount++;
+    }
+
+    /**
+     * Позначає область як брудну незалежно від об'єктів (наприклад, HUD профайлера).
+     *
+     * @param area область на екрані
+     */
+    public void addRegion(AABB area) {
+        if (area.isEmpty()) return;
+        scratch.set(area).expandToPixels(PIXEL_MARGIN);
+        addExpandedRegion(scratch);
+    }
+
+    /**
+     * Завершує кадр: порівнює межі та ключі з попереднім кадром і обчислює брудні області.
+     */
+    public void endFrame() {
+        if (invalidated || !allBoundsKnown || currentCount != previousCount) {
+            fullRedraw = true;
+        } else {
+            for (int i = 0; i < currentCount; i++) {
+                // Порівнюються точні межі: зсув на частку пікселя теж змінює растеризацію спрайта
+                if (currentKeys[i] != previousKeys[i] || !currentBounds[i].sameAs(previousBounds[i])) {
+                    addRegion(previousBounds[i]);
+                    addRegion(currentBounds[i]);
+                }
+            }
+        }
+        invalidated = false;
+
+        AABB[] bounds = previousBounds;
+        previousBounds = currentBounds;
+        currentBounds = bounds;
+        long[] keys = previousKeys;
+        previousKeys = currentKeys;
+        currentKeys = keys;
+        previousCount = currentCount;
+    }
+
+    /**
+     * Вимагає повного перемальовування наступного кадру (зміна розміру, перемикання HUD, новий рівень).
+     */
+    public void invalidate() {
+        invalidated = true;
+    }
+
+    /**
+     * Перевіряє, чи потрібно перемалювати весь кадр.
+     *
+     * @return true для повного перемальовування
+     */
+    public boolean isFullRedraw() {
+        return fullRedraw;
+    }
+
+    /**
+     * Повертає кількість брудних областей поточного кадру.
+     *
+     * @return кількість областей
+     */
+    public int getRegionCount() {
+        return regionCount;
+    }
+
+    /**
+     * Повертає брудну область за індексом.
+     *
+     * @param index індекс області
+     * @return область (не змінювати)
+     */
+    public AABB getRegion(int index) {
+        return regions[index];
+    }
+
+    /**
+     * Перевіряє, чи потрібно малювати об'єкт поточного кадру: його межі невідомі
+     * або перетинають хоча б одну брудну область.
+     *
+     * @param index індекс об'єкта в порядку {@link #track(Renderable)}
+     * @return true, якщо об'єкт потрібно перемалювати
+     */
+    public boolean needsRedraw(int index) {
+        if (fullRedraw || index >= previousCount) return true;
+        AABB bounds = previousBounds[index]; // Після endFrame поточні межі зберігаються як попередні
+        if (bounds.isEmpty()) return false;
+        scratch.set(bounds).expandToPixels(PIXEL_MARGIN);
+        for (int i = 0; i < regionCount; i++) {
+            if (regions[i].intersects(scratch)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Додає вже вирівняну область, зливаючи її з областями, які вона перетинає.
+     * Якщо вільних місць немає, область зливається з тією, чия площа зросте найменше.
+     */
+    private void addExpandedRegion(AABB area) {
+        if (area.isEmpty()) return;
+        merged.set(area);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < regionCount; i++) {
+                if (regions[i].intersects(merged)) {
+                    merged.union(regions[i]);
+                    removeRegion(i);
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        if (regionCount < MAX_REGIONS) {
+            regions[regionCount++].set(merged);
+            return;
+        }
+        int best = 0;
+        double bestGrowth = Double.MAX_VALUE;
+        for (int i = 0; i < regionCount; i++) {
+            double growth = scratch.set(regions[i]).union(merged).getArea() - regions[i].getArea();
+            if (growth < bestGrowth) {
+                bestGrowth = growth;
+                best = i;
+            }
+        }
+        merged.union(regions[best]);
+        removeRegion(best);
+        addExpandedRegion(merged);
+    }
+
+    /**
+     * Видаляє область, переставляючи на її місце останню.
+     */
+    private void removeRegion(int index) {
+        regionCount--;
+        AABB removed = regions[index];
+        regions[index] = regions[regionCount];
+        regions[regionCount] = removed;
+    }
+
+    /**
+     * Збільшує масиви меж і ключів до потрібної кількості об'єктів.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= currentBounds.length) return;
+        int newCapacity = Math.max(capacity, currentBounds.length * 2);
+        currentBounds = grow(currentBounds, newCapacity);
+        previousBounds = grow(previousBounds, newCapacity);
+        currentKeys = Arrays.copyOf(currentKeys, newCapacity);
+        previousKeys = Arrays.copyOf(previousKeys, newCapacity);
+    }
+
+    /**
+     * Створює більший масив прямокутників, заповнюючи нові комірки порожніми прямокутниками.
+     */
+    private static AABB[] grow(AABB[] array, int capacity) {
+        AABB[] grown = Arrays.copyOf(array, capacity);
+        for (int i = array.length; i < capacity; i++) {
+            grown[i] = new AABB();
+        }
+        return grown;
+    }
+}
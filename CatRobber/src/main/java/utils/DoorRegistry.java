@@ -0,0 +1,99 @@
+package utils;
+
+import entities.Door;
+import interfaces.Interactable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Реєстр дверей рівня. Замість перебору всіх об’єктів для взаємодії з перевіркою {@code instanceof}
+ * двері один раз розкладаються за групами зі спільним sharedId (пов’язані двері, які відчиняються
+ * й відмикаються разом) і окремо збираються лазерні двері. Усі списки незмінні й упорядковані
+ * так само, як двері у списку об’єктів, тож порядок обходу не відрізняється від попереднього перебору.
+ *
+ * <p>Реєстр будується зі списку об’єктів рівня ({@link #rebuild(List)}); якщо двері змінюють
+ * sharedId чи тип (наприклад, при завантаженні збереження), його треба перебудувати.</p>
+ */
+public final class DoorRegistry {
+    /** Усі двері в порядку завантаження. */
+    private List<Door> doors = List.of();
+
+    /** Групи пов’язаних дверей за sharedId. */
+    private Map<Integer, List<Door>> doorsBySharedId = Map.of();
+
+    /** Лазерні двері в порядку завантаження. */
+    private List<Door> laserDoors = List.of();
+
+    /**
+     * Перебудовує реєстр зі списку об’єктів для взаємодії.
+     *
+     * @param interactables об’єкти для взаємодії в порядку завантаження
+     */
+    public synchronized void rebuild(List<Interactable> interactables) {
+        List<Door> allDoors = new ArrayList<>();
+        Map<Integer, List<Door>> groups = new HashMap<>();
+        List<Door> lasers = new ArrayList<>();
+        for (int i = 0; i < interactables.size(); i++) {
+            if (interactables.get(i) instanceof Door door) {
+                allDoors.add(door);
+                groups.computeIfAbsent(door.getSharedId(), id -> new ArrayList<>()).add(door);
+                if (door.isLaser()) {
+                    lasers.add(door);
+                }
+            }
+        }
+        groups.replaceAll((id, group) -> List.copyOf(group));
+        doors = List.copyOf(allDoors);
+        doorsBySharedId = groups;
+        laserDoors = List.copyOf(lasers);
+    }
+
+    /**
+     * Очищає реєстр.
+     */
+    public synchronized void clear() {
+        doors = List.of();
+        doorsBySharedId = Map.of();
+        laserDoors = List.of();
+    }
+
+    /**
+     * Повертає всі двері рівня.
+     *
+     * @return незмінний список дверей
+     */
+    public synchronized List<Door> getDoors() {
+        return doors;
+    }
+
+    /**
+     * Повертає двері зі спільним sharedId (разом із дверима, які запитують).
+     *
+     * @param sharedId ID, який об’єднує двері
+     * @return незмінний список пов’язаних дверей або порожній список
+     */
+    public synchronized List<Door> getLinkedDoors(int sharedId) {
+        return doorsBySharedId.getOrDefault(sharedId, List.of());
+    }
+
+    /**
+     * Повертає всі лазерні двері рівня.
+     *
+     * @return незмінний список лазерних дверей
+     */
+    public synchronized List<Door> getLaserDoors() {
+        return laserDoors;
+    }
+
+    /**
+     * Повертає перші лазерні двері рівня (їх відмикає електрощиток).
+     *
+     * @return лазерні двері або null, якщо на рівні їх немає
+     */
+    public synchronized Door getLaserDoor() {
+        return laserDoors.isEmpty() ? null : laserDoors.get(0);
+    }
+}
@@ -0,0 +1,285 @@
+package utils;
+
+import interfaces.EntityListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Типізований реєстр сутностей. Кожна сутність отримує числовий ID, а списки за типом
+ * ({@link #getAll(Class)}) ведуться інкрементно: тип перевіряється один раз при додаванні
+ * чи видаленні, а не при кожному обході. Усі списки впорядковані за часом додавання
+ * і повертаються як незмінні «живі» подання, тож їх можна зберегти в полі й обходити щокадру
+ * за індексом без створення об’єктів.
+ *
+ * <p>Зміни під час обходу відкладаються: між {@link #beginUpdate()} і {@link #endUpdate()}
+ * додані й видалені сутності накопичуються і застосовуються в порядку викликів після
+ * завершення оновлення, тож системи кроку симуляції бачать незмінний склад. ID призначається
+ * одразу, тому сутність можна знайти через {@link #get(int)} ще до застосування змін.
+ * Реєстр не синхронізований: власник відповідає за блокування.</p>
+ *
+ * @param <E> базовий тип сутностей
+ */
+public final class EntityRegistry<E> {
+    /** ID, який повертається для сутностей поза реєстром. */
+    public static final int NO_ID = -1;
+
+    /** Усі сутності в порядку додавання та їхнє незмінне подання. */
+    private final List<E> entities = new ArrayList<>();
+    private final List<E> entitiesView = Collections.unmodifiableList(entities);
+
+    /** Списки сутностей за типом. */
+    private final Map<Class<?>, TypeView<?>> typeViews = new HashMap<>();
+    private final List<TypeView<?>> typeViewList = new ArrayList<>();
+
+    /** Відповідність між сутностями та їхніми ID. */
+    private final Map<Integer, E> entitiesById = new HashMap<>();
+    private final Map<E, Integer> idsByEntity = new IdentityHashMap<>();
+    private int nextId = 1;
+
+    /** Відкладені зміни та глибина вкладених оновлень. */
+    private final List<PendingChange<E>> pendingChanges = new ArrayList<>();
+    private int updateDepth;
+
+    /** Слухачі змін складу. */
+    private final List<EntityListener<? super E>> listeners = new ArrayList<>();
+
+    /**
+     * Додає сутність. Під час оновлення вона стане видимою у списках після {@link #endUpdate()}.
+     *
+     * @param entity сутність
+     * @return ID сутності (той самий, якщо вона вже в реєстрі)
+     */
+    public int add(E entity) {
+        Integer existing = idsByEntity.get(entity);
+        if (existing != null) {
+            return existing;
+        }
+        int id = nextId++;
+        idsByEntity.put(entity, id);
+        entitiesById.put(id, entity);
+        if (updateDepth > 0) {
+            pendingChanges.add(new PendingChange<>(entity, true));
+        } else {
+            applyAdd(entity);
+        }
+        return id;
+    }
+
+    /**
+     * Додає сутності в порядку колекції.
+     *
+     * @param added сутності
+     */
+    public void addAll(Collection<? extends E> added) {
+        for (E entity : added) {
+            add(entity);
+        }
+    }
+
+    /**
+     * Видаляє сутність. Під час оновлення вона зникне зі списків після {@link #endUpdate()}.
+     *
+     * @param entity сутність
+     * @return true, якщо сутність була в реєстрі
+     */
+    public boolean remove(E entity) {
+        Integer id = idsByEntity.remove(entity);
+        if (id == null) {
+            return false;
+        }
+        entitiesById.remove(id);
+        if (updateDepth > 0) {
+            pendingChanges.add(new PendingChange<>(entity, false));
+        } else {
+            applyRemove(entity);
+        }
+        return true;
+    }
+
+    /**
+     * Видаляє всі сутності та відкладені зміни. Слухачі не викликаються: власник сам
+     * очищає свої структури. Зареєстровані списки за типом лишаються дійсними.
+     */
+    public void clear() {
+        entities.clear();
+        for (int i = 0; i < typeViewList.size(); i++) {
+            typeViewList.get(i).items.clear();
+        }
+        entitiesById.clear();
+        idsByEntity.clear();
+        pendingChanges.clear();
+    }
+
+    /**
+     * Починає оновлення: до парного {@link #endUpdate()} зміни складу відкладаються.
+     */
+    public void beginUpdate() {
+        updateDepth++;
+    }
+
+    /**
+     * Завершує оновлення; після зовнішнього виклику застосовує відкладені зміни.
+     */
+    public void endUpdate() {
+        if (updateDepth == 0) {
+            throw new IllegalStateException("endUpdate без beginUpdate");
+        }
+        if (--updateDepth > 0) {
+            return;
+        }
+        // Слухачі можуть додати нові зміни, тому список перевіряється на кожній ітерації
+        for (int i = 0; i < pendingChanges.size(); i++) {
+            PendingChange<E> change = pendingChanges.get(i);
+            if (change.added) {
+                applyAdd(change.entity);
+            } else {
+                applyRemove(change.entity);
+            }
+        }
+        pendingChanges.clear();
+    }
+
+    /**
+     * Додає слухача змін складу.
+     *
+     * @param listener слухач
+     */
+    public void addListener(EntityListener<? super E> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Повертає всі сутності в порядку додавання.
+     *
+     * @return незмінне живе подання
+     */
+    public List<E> getAll() {
+        return entitiesView;
+    }
+
+    /**
+     * Повертає сутності заданого типу (класу чи інтерфейсу) в порядку додавання. Список
+     * створюється при першому запиті і далі оновлюється разом із реєстром.
+     *
+     * @param type тип сутностей
+     * @param <T> тип сутностей
+     * @return незмінне живе подання
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getAll(Class<T> type) {
+        TypeView<T> view = (TypeView<T>) typeViews.get(type);
+        if (view == null) {
+            view = new TypeView<>(type);
+            for (int i = 0; i < entities.size(); i++) {
+                view.offer(entities.get(i));
+            }
+            typeViews.put(type, view);
+            typeViewList.add(view);
+        }
+        return view.itemsView;
+    }
+
+    /**
+     * Повертає першу за порядком додавання сутність заданого типу.
+     *
+     * @param type тип сутності
+     * @param <T> тип сутності
+     * @return сутність або null
+     */
+    public <T> T getFirst(Class<T> type) {
+        List<T> items = getAll(type);
+        return items.isEmpty() ? null : items.get(0);
+    }
+
+    /**
+     * Повертає сутність за ID (зокрема ще не застосовану відкладену).
+     *
+     * @param id ID сутності
+     * @return сутність або null
+     */
+    public E get(int id) {
+        return entitiesById.get(id);
+    }
+
+    /**
+     * Повертає ID сутності.
+     *
+     * @param entity сутність
+     * @return ID або {@link #NO_ID}, якщо сутності немає в реєстрі
+     */
+    public int getId(E entity) {
+        Integer id = idsByEntity.get(entity);
+        return id != null ? id : NO_ID;
+    }
+
+    /**
+     * Повертає кількість сутностей у списках (без відкладених змін).
+     *
+     * @return кількість сутностей
+     */
+    public int size() {
+        return entities.size();
+    }
+
+    /**
+     * Робить сутність видимою у списках і повідомляє слухачів.
+     */
+    private void applyAdd(E entity) {
+        entities.add(entity);
+        for (int i = 0; i < typeViewList.size(); i++) {
+            typeViewList.get(i).offer(entity);
+        }
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onEntityAdded(entity);
+        }
+    }
+
+    /**
+     * Прибирає сутність зі списків і повідомляє слухачів.
+     */
+    private void applyRemove(E entity) {
+        if (!entities.remove(entity)) {
+            return;
+        }
+        for (int i = 0; i < typeViewList.size(); i++) {
+            typeViewList.get(i).items.remove(entity);
+        }
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onEntityRemoved(entity);
+        }
+    }
+
+    /**
+     * Список сутностей одного типу.
+     */
+    private static final class TypeView<T> {
+        private final Class<T> type;
+        private final List<T> items = new ArrayList<>();
+        private final List<T> itemsView = Collections.unmodifiableList(items);
+
+        private TypeView(Class<T> type) {
+            this.type = type;
+        }
+
+        /**
+         * Додає сутність у список, якщо вона має потрібний тип.
+         */
+        private void offer(Object entity) {
+            if (type.isInstance(entity)) {
+                items.add(type.cast(entity));
+            }
+        }
+    }
+
+    /**
+     * Відкладена зміна складу.
+     */
+    private record PendingChange<E>(E entity, boolean added) {
+    }
+}
@@ -0,0 +1,316 @@
+package utils;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Профайлер фаз кадру. Час кожної фази (крок симуляції, стадії конвеєра, рендеринг тощо)
+ * вимірюється через System.nanoTime і підсумовується в межах кадру, а після завершення кадру
+ * записується в кільцевий буфер фази. З буферів обчислюються перцентилі p50/p95/p99,
+ * які показує HUD поверх Canvas, і їх можна вивантажити у CSV.
+ *
+ * <p>Використання: {@code long start = profiler.start(); ... profiler.record(phaseId, start);}
+ * і один виклик {@link #endFrame()} наприкінці кадру. Фаза може бути вкладеною в іншу
+ * (наприклад, стадії конвеєра всередині кроку), тоді її час входить і в батьківську фазу.</p>
+ */
+public class FrameProfiler {
+    /** Єдиний екземпляр класу FrameProfiler (патерн Singleton). */
+    private static FrameProfiler instance;
+
+    /** Максимальна кількість фаз. */
+    private static final int MAX_PHASES = 32;
+
+    /** Кількість кадрів у кільцевому буфері кожної фази. */
+    private static final int HISTORY_SIZE = 600;
+
+    /** Як часто (у кадрах) HUD перераховує перцентилі. */
+    private static final int HUD_REFRESH_FRAMES = 15;
+
+    /** Тека для CSV-файлів профайлера. */
+    private static final String EXPORT_DIR = "data/profiler";
+
+    private static final Color HUD_BACKGROUND = Color.rgb(0, 0, 0, 0.7);
+    private static final Color HUD_TEXT = Color.rgb(220, 255, 220);
+    private static final Font HUD_FONT = Font.font("Monospaced", 12);
+
+    /** Позиція, ширина та висота рядка HUD. */
+    private static final double HUD_MARGIN = 8;
+    private static final double HUD_WIDTH = 380;
+    private static final double HUD_LINE_HEIGHT = 15;
+
+    /** Назви зареєстрованих фаз. */
+    private final List<String> phaseNames = new ArrayList<>();
+
+    /** Час фаз у поточному кадрі (наносекунди). */
+    private final long[] currentFrame = new long[MAX_PHASES];
+
+    /** Кільцеві буфери часу фаз по кадрах (наносекунди). */
+    private final long[][] history = new long[MAX_PHASES][HISTORY_SIZE];
+
+    /** Індекс наступного запису в кільцевих буферах. */
+    private int historyIndex;
+
+    /** Кількість записаних кадрів (не більше HISTORY_SIZE). */
+    private int recordedFrames;
+
+    /** Загальна кількість завершених кадрів. */
+    private long frameCount;
+
+    /** Прапорець видимості HUD. */
+    private boolean overlayVisible;
+
+    /** Закешовані перцентилі для HUD: [фаза][останній, p50, p95, p99] у мілісекундах. */
+    private double[][] hudStats = new double[0][];
+
+    /** Кадр, у якому HUD востаннє перерахував перцентилі. */
+    private long hudStatsFrame = -HUD_REFRESH_FRAMES;
+
+    /**
+     * Приватний конструктор (патерн Singleton).
+     */
+    private FrameProfiler() {
+    }
+
+    /**
+     * Повертає єдиний екземпляр класу FrameProfiler.
+     *
+     * @return екземпляр FrameProfiler
+     */
+    public static synchronized FrameProfiler getInstance() {
+        if (instance == null) {
+            instance = new FrameProfiler();
+        }
+        return instance;
+    }
+
+    /**
+     * Реєструє фазу за назвою. Повторна реєстрація повертає той самий ідентифікатор.
+     *
+     * @param name назва фази
+     * @return ідентифікатор фази для {@link #record(int, long)}
+     */
+    public synchronized int registerPhase(String name) {
+        int existing = phaseNames.indexOf(name);
+        if (existing >= 0) {
+            return existing;
+        }
+        if (phaseNames.size() >= MAX_PHASES) {
+            throw new IllegalStateException("Забагато фаз профайлера: " + name);
+        }
+        phaseNames.add(name);
+        return phaseNames.size() - 1;
+    }
+
+    /**
+     * Повертає мітку часу початку фази.
+     *
+     * @return поточне значення System.nanoTime()
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Додає час від мітки start до поточного моменту до фази в поточному кадрі.
+     *
+     * @param phaseId ідентифікатор фази
+     * @param start мітка часу, отримана з {@link #start()}
+     */
+    public void record(int phaseId, long start) {
+        long elapsed = System.nanoTime() - start;
+        synchronized (this) {
+            currentFrame[phaseId] += elapsed;
+        }
+    }
+
+    /**
+     * Завершує кадр: переносить накопичений час фаз у кільцеві буфери й обнуляє лічильники.
+     */
+    public synchronized void endFrame() {
+        int phases = phaseNames.size();
+        for (int i = 0; i < phases; i++) {
+            history[i][historyIndex] = currentFrame[i];
+            currentFrame[i] = 0;
+        }
+        historyIndex = (historyIndex + 1) % HISTORY_SIZE;
+        if (recordedFrames < HISTORY_SIZE) {
+            recordedFrames++;
+        }
+        frameCount++;
+    }
+
+    /**
+     * Повертає перцентиль часу фази серед кадрів у кільцевому буфері.
+     *
+     * @param phaseId ідентифікатор фази
+     * @param percentile перцентиль від 0 до 100
+     * @return час у мілісекундах або 0, якщо кадрів ще немає
+     */
+    public synchronized double getPercentile(int phaseId, double percentile) {
+        if (recordedFrames == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(history[phaseId], recordedFrames);
+        Arrays.sort(sorted);
+        return percentileOf(sorted, percentile) / 1_000_000.0;
+    }
+
+    /**
+     * Обчислює перцентиль (метод найближчого рангу) у відсортованому масиві.
+     */
+    private static long percentileOf(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    /**
+     * Перемикає видимість HUD профайлера.
+     */
+    public void toggleOverlay() {
+        overlayVisible = !overlayVisible;
+    }
+
+    /**
+     * Перевіряє, чи видимий HUD профайлера.
+     *
+     * @return true, якщо HUD показується
+     */
+    public boolean isOverlayVisible() {
+        return overlayVisible;
+    }
+
+    /**
+     * Записує область, яку займає HUD, щоб рендерер з брудними областями перемальовував її щокадру.
+     *
+     * @param out прямокутник для меж
+     * @return true, якщо HUD видимий
+     */
+    public boolean getOverlayBounds(AABB out) {
+        if (!overlayVisible) return false;
+        int rows;
+        synchronized (this) {
+            rows = Math.max(hudStats.length, phaseNames.size());
+        }
+        out.setRect(HUD_MARGIN, HUD_MARGIN, HUD_WIDTH, HUD_LINE_HEIGHT * (rows + 1) + 10);
+        return true;
+    }
+
+    /**
+     * Малює HUD з часом останнього кадру та перцентилями кожної фази.
+     *
+     * @param gc контекст для рендерингу
+     */
+    public void renderOverlay(GraphicsContext gc) {
+        if (!overlayVisible) return;
+        String[] names;
+        double[][] stats;
+        synchronized (this) {
+            if (frameCount - hudStatsFrame >= HUD_REFRESH_FRAMES) {
+                hudStats = computeStats();
+                hudStatsFrame = frameCount;
+            }
+            names = phaseNames.toArray(new String[0]);
+            stats = hudStats;
+        }
+
+        double lineHeight = HUD_LINE_HEIGHT;
+        double height = lineHeight * (stats.length + 1) + 10;
+        gc.setFill(HUD_BACKGROUND);
+        gc.fillRect(HUD_MARGIN, HUD_MARGIN, HUD_WIDTH, height);
+        gc.setFont(HUD_FONT);
+        gc.setFill(HUD_TEXT);
+        double y = HUD_MARGIN + lineHeight;
+        gc.fillText(String.format("%-18s %7s %7s %7s %7s", "фаза (мс)", "ост.", "p50", "p95", "p99"), 14, y);
+        for (int i = 0; i < stats.length && i < names.length; i++) {
+            y += lineHeight;
+            gc.fillText(String.format("%-18s %7.3f %7.3f %7.3f %7.3f",
+                    names[i], stats[i][0], stats[i][1], stats[i][2], stats[i][3]), 14, y);
+        }
+    }
+
+    /**
+     * Обчислює для кожної фази час останнього кадру та перцентилі p50/p95/p99 у мілісекундах.
+     */
+    private double[][] computeStats() {
+        int phases = phaseNames.size();
+        double[][] stats = new double[phases][4];
+        if (recordedFrames == 0) {
+            return stats;
+        }
+        int lastIndex = (historyIndex - 1 + HISTORY_SIZE) % HISTORY_SIZE;
+        for (int i = 0; i < phases; i++) {
+            long[] sorted = Arrays.copyOf(history[i], recordedFrames);
+            Arrays.sort(sorted);
+            stats[i][0] = history[i][lastIndex] / 1_000_000.0;
+            stats[i][1] = percentileOf(sorted, 50) / 1_000_000.0;
+            stats[i][2] = percentileOf(sorted, 95) / 1_000_000.0;
+            stats[i][3] = percentileOf(sorted, 99) / 1_000_000.0;
+        }
+        return stats;
+    }
+
+    /**
+     * Друкує в консоль зведення p50/p95/p99 для кожної фази.
+     */
+    public synchronized void printSummary() {
+        double[][] stats = computeStats();
+        System.out.printf("%-18s %9s %9s %9s%n", "фаза (мс)", "p50", "p95", "p99");
+        for (int i = 0; i < stats.length; i++) {
+            System.out.printf("%-18s %9.4f %9.4f %9.4f%n", phaseNames.get(i), stats[i][1], stats[i][2], stats[i][3]);
+        }
+    }
+
+    /**
+     * Вивантажує час фаз усіх кадрів із кільцевих буферів у CSV-файл у теці data/profiler.
+     * Кожен рядок — один кадр, стовпці — фази в мілісекундах.
+     *
+     * @return шлях до створеного файлу або null у разі помилки
+     */
+    public String exportCsv() {
+        String fileName = "frames_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv";
+        File directory = new File(EXPORT_DIR);
+        if (!directory.exists() && !directory.mkdirs()) {
+            System.err.println("Не вдалося створити теку профайлера: " + EXPORT_DIR);
+            return null;
+        }
+        File file = new File(directory, fileName);
+        StringBuilder csv = new StringBuilder();
+        synchronized (this) {
+            int phases = phaseNames.size();
+            csv.append("frame");
+            for (String name : phaseNames) {
+                csv.append(',').append(name);
+            }
+            csv.append('\n');
+            long firstFrame = frameCount - recordedFrames;
+            int firstIndex = (historyIndex - recordedFrames + HISTORY_SIZE) % HISTORY_SIZE;
+            for (int f = 0; f < recordedFrames; f++) {
+                int index = (firstIndex + f) % HISTORY_SIZE;
+                csv.append(firstFrame + f);
+                for (int i = 0; i < phases; i++) {
+                    csv.append(',').append(String.format(Locale.ROOT, "%.4f", history[i][index] / 1_000_000.0));
+                }
+                csv.append('\n');
+            }
+        }
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(csv.toString());
+        } catch (IOException e) {
+            System.err.println("Помилка при збереженні CSV профайлера: " + e.getMessage());
+            return null;
+        }
+        System.out.println("Профайлер збережено у " + file.getPath());
+        return file.getPath();
+    }
+}
@@ -4,8 +4,11 @@ import entities.*;
 import interfaces.GameObject;
 import javafx.geometry.BoundingBox;
 import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
 import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
 import javafx.scene.image.WritableImage;
+import javafx.scene.image.WritablePixelFormat;
 import javafx.scene.media.AudioClip;
 import managers.GameManager;
 import org.json.JSONArray;
@@ -16,13 +19,68 @@ import puzzles.LockPickPuzzle;
 import puzzles.Puzzle;
 
 import java.io.*;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Клас для завантаження ресурсів гри, створення об’єктів та обробки карт колізій.
  */
 public class GameLoader {
+    /** Спільний для всього процесу кеш декодованих зображень і спрайт-листів за шляхом. */
+    private static final Map<String, Image> SHEET_CACHE = new ConcurrentHashMap<>();
+
+    /** Кеш віддзеркалених спрайт-листів за шляхом. */
+    private static final Map<String, Image> MIRRORED_SHEET_CACHE = new ConcurrentHashMap<>();
+
+    /** Спільний кеш кадрів анімацій за ключем (шлях, кількість кадрів). */
+    private static final Map<String, SpriteFrame[]> CLIP_CACHE = new ConcurrentHashMap<>();
+
+    /** Кеш віддзеркалених кадрів анімацій за тим самим ключем. */
+    private static final Map<String, SpriteFrame[]> MIRRORED_CLIP_CACHE = new ConcurrentHashMap<>();
+
+    /** Кеш кадрів-заповнювачів безголового режиму за ключем (шлях, кількість кадрів, віддзеркалення). */
+    private static final Map<String, SpriteFrame[]> HEADLESS_CLIP_CACHE = new ConcurrentHashMap<>();
+
+    /** Кількість декодувань кожного спрайт-листа через кеш. */
+    private static final Map<String, AtomicInteger> SHEET_LOAD_COUNTS = new ConcurrentHashMap<>();
+
+    /** Кількість звернень до кешу, обслужених без декодування. */
+    private static final AtomicInteger CLIP_CACHE_HITS = new AtomicInteger();
+
+    /** Спрайти сутностей, потрібні на кожному рівні (гравець, поліція, камери, двері). */
+    private static final String[] ENTITY_SPRITES = {
+            "player/idle.png", "player/run.png", "player/beating.png", "player/shoot.png",
+            "police/idle.png", "police/run.png", "police/lay.png", "police/alarm.png", "police/question.png",
+            "camera/camera.png", "camera/gates.png",
+            "background/doors/close.png", "background/doors/closeLeft.png", "background/doors/closeRight.png",
+            "background/doors/leftLock.png", "background/doors/openLeft.png", "background/doors/openRight.png",
+            "background/doors/rightLock.png", "background/doors/stairsUp.png", "background/doors/stairsDown.png",
+            "background/doors/withLock.png", "background/doors/laserLocked.png", "background/doors/laserUnlocked.png"
+    };
+
+    /** Спрайти сутностей, для яких потрібна також віддзеркалена копія. */
+    private static final String[] MIRRORED_ENTITY_SPRITES = {
+            "player/idle.png", "player/run.png", "player/beating.png", "player/shoot.png",
+            "police/idle.png", "police/run.png", "police/lay.png", "police/alarm.png", "police/question.png",
+            "camera/camera.png", "background/doors/laserLocked.png", "background/doors/laserUnlocked.png"
+    };
+
+    /** Прямокутники спрайтів у сторінках поточного атласу за ключем атласу. */
+    private static final Map<String, SpriteFrame> ATLAS_REGIONS = new ConcurrentHashMap<>();
+
+    /** Сторінки поточного атласу. */
+    private static volatile List<TextureAtlas> atlasPages = List.of();
+
+    /** Ключі спрайтів, з яких побудовано поточний атлас. */
+    private static Set<String> atlasKeys = Set.of();
+
     /**
      * Завантажує JSON-файл із зазначеного шляху.
      *
@@ -47,9 +105,12 @@ public class GameLoader {
      * Завантажує зображення із зазначеного шляху, перевіряючи кілька можливих шляхів.
      *
      * @param path шлях до зображення
-     * @return об’єкт Image або null, якщо зображення не знайдено
+     * @return об’єкт Image або null, якщо зображення не знайдено чи гра працює в безголовому режимі
      */
     public Image loadImage(String path) {
+        if (skipsDecoding()) {
+            return null;
+        }
         try {
             String[] possiblePaths = {"assets/images/" + path, "assets/" + path, path};
             for (String possiblePath : possiblePaths) {
@@ -82,45 +143,367 @@ public class GameLoader {
     }
 
     /**
-     * Розбиває спрайт-лист на окремі кадри анімації.
+     * Розбиває спрайт-лист на окремі кадри анімації. Кадри посилаються на спільний лист
+     * і не копіюють пікселі.
      *
      * @param path шлях до спрайт-листа
      * @param frameCount кількість кадрів у спрайт-листі
-     * @return масив Image із кадрами або порожній масив у разі помилки
+     * @return масив кадрів або порожній масив у разі помилки
      */
-    public Image[] splitSpriteSheet(String path, int frameCount) {
-        Image spriteSheet = loadImage(path);
-        if (spriteSheet == null) {
-            System.err.println("Не вдалося завантажити спрайт-лист: " + path);
-            return new Image[0];
+    public SpriteFrame[] splitSpriteSheet(String path, int frameCount) {
+        return splitSpriteSheet(path, frameCount, false);
+    }
+
+    /**
+     * Повертає кадри анімації зі спільного кешу, розбиваючи спрайт-лист лише при першому зверненні.
+     * Масив спільний для всіх екземплярів, тому його не можна змінювати.
+     *
+     * @param path шлях до спрайт-листа
+     * @param frameCount кількість кадрів у спрайт-листі
+     * @return спільний масив кадрів або порожній масив, якщо спрайт-лист не вдалося завантажити
+     */
+    public SpriteFrame[] getAnimationClip(String path, int frameCount) {
+        return getClip(CLIP_CACHE, path, frameCount, false);
+    }
+
+    /**
+     * Повертає віддзеркалені кадри анімації зі спільного кешу. Кадри посилаються на віддзеркалений
+     * спрайт-лист, який створюється один раз для всіх анімацій з цього листа.
+     *
+     * @param path шлях до спрайт-листа
+     * @param frameCount кількість кадрів у спрайт-листі
+     * @return спільний масив віддзеркалених кадрів
+     */
+    public SpriteFrame[] getMirroredAnimationClip(String path, int frameCount) {
+        return getClip(MIRRORED_CLIP_CACHE, path, frameCount, true);
+    }
+
+    /**
+     * Повертає декодоване зображення зі спільного кешу, завантажуючи його лише при першому зверненні.
+     *
+     * @param path шлях до зображення
+     * @return спільне зображення або null, якщо його не вдалося завантажити чи гра працює в безголовому режимі
+     */
+    public Image getCachedImage(String path) {
+        if (skipsDecoding()) {
+            return null;
         }
+        Image image = SHEET_CACHE.get(path);
+        if (image != null) {
+            CLIP_CACHE_HITS.incrementAndGet();
+            return image;
+        }
+        return SHEET_CACHE.computeIfAbsent(path, p -> {
+            SHEET_LOAD_COUNTS.computeIfAbsent(p, key -> new AtomicInteger()).incrementAndGet();
+            return loadImage(p);
+        });
+    }
+
+    /**
+     * Повертає віддзеркалене зображення зі спільного кешу.
+     *
+     * @param path шлях до зображення
+     * @return спільне віддзеркалене зображення або null, якщо його не вдалося завантажити
+     *         чи гра працює в безголовому режимі
+     */
+    public Image getCachedMirroredImage(String path) {
+        if (skipsDecoding()) {
+            return null;
+        }
+        Image image = MIRRORED_SHEET_CACHE.get(path);
+        if (image != null) {
+            CLIP_CACHE_HITS.incrementAndGet();
+            return image;
+        }
+        Image source = getCachedImage(path);
+        if (source == null) return null;
+        return MIRRORED_SHEET_CACHE.computeIfAbsent(path, p -> mirrorImage(source));
+    }
+
+    /**
+     * Повертає кадри з кешу або розбиває спрайт-лист і зберігає результат. У безголовому режимі
+     * повертає кадри-заповнювачі без декодування, тож JavaFX toolkit не потрібен.
+     */
+    private SpriteFrame[] getClip(Map<String, SpriteFrame[]> cache, String path, int frameCount, boolean mirrored) {
+        if (skipsDecoding()) {
+            return HEADLESS_CLIP_CACHE.computeIfAbsent(atlasKey(clipKey(path, frameCount), mirrored),
+                    k -> placeholderClip(path, frameCount, mirrored));
+        }
+        String key = clipKey(path, frameCount);
+        SpriteFrame[] frames = cache.get(key);
+        if (frames != null) {
+            CLIP_CACHE_HITS.incrementAndGet();
+            return frames;
+        }
+        return cache.computeIfAbsent(key, k -> splitSpriteSheet(path, frameCount, mirrored));
+    }
+
+    /**
+     * Розбиває звичайний або віддзеркалений спрайт-лист на прямокутники кадрів. У віддзеркаленому
+     * листі кадр i лежить дзеркально відносно правого краю, тож порядок кадрів зберігається.
+     */
+    private SpriteFrame[] splitSpriteSheet(String path, int frameCount, boolean mirrored) {
+        // Якщо лист упаковано в атлас, кадри вирізаються з його прямокутника в сторінці атласу
+        SpriteFrame sheetRegion = ATLAS_REGIONS.get(atlasKey(path, mirrored));
+        if (sheetRegion == null) {
+            Image image = mirrored ? getCachedMirroredImage(path) : getCachedImage(path);
+            if (image == null) {
+                System.err.println("Не вдалося завантажити спрайт-лист: " + path);
+                return new SpriteFrame[0];
+            }
+            sheetRegion = new SpriteFrame(image, 0, 0, image.getWidth(), image.getHeight());
+        }
+        int animationId = animationId(path, frameCount, mirrored);
+        Image spriteSheet = sheetRegion.getSheet();
+        double originX = sheetRegion.getSourceX();
+        double originY = sheetRegion.getSourceY();
+        double spriteWidth = sheetRegion.getWidth();
+        double spriteHeight = sheetRegion.getHeight();
         if (frameCount <= 0) {
             System.err.println("Некоректна кількість кадрів: " + frameCount + " для " + path);
-            return new Image[]{spriteSheet};
+            return new SpriteFrame[]{wholeSheet(sheetRegion, animationId)};
         }
-        double spriteWidth = spriteSheet.getWidth();
-        double spriteHeight = spriteSheet.getHeight();
         double frameWidth = spriteWidth / frameCount;
         if (frameWidth < 1.0) {
             System.err.println("Занадто велика кількість кадрів: " + frameCount + " для ширини " + spriteWidth);
-            return new Image[]{spriteSheet};
+            return new SpriteFrame[]{wholeSheet(sheetRegion, animationId)};
         }
-        Image[] frames = new Image[frameCount];
-        PixelReader reader = spriteSheet.getPixelReader();
+        // Кадри цілочисельної ширини, як і при попередньому копіюванні пікселів
+        int width = (int) frameWidth;
+        int height = (int) spriteHeight;
+        SpriteFrame[] frames = new SpriteFrame[frameCount];
         for (int i = 0; i < frameCount; i++) {
-            WritableImage frame = new WritableImage((int) frameWidth, (int) spriteHeight);
-            try {
-                frame.getPixelWriter().setPixels(0, 0, (int) frameWidth, (int) spriteHeight,
-                        reader, (int) (i * frameWidth), 0);
-                frames[i] = frame;
-            } catch (Exception e) {
-                System.err.println("Помилка при вирізанні кадру " + i + " для " + path + ": " + e.getMessage());
-                frames[i] = null;
+            int sourceX = (int) (i * frameWidth);
+            if (mirrored) {
+                sourceX = (int) spriteWidth - sourceX - width;
             }
+            frames[i] = new SpriteFrame(spriteSheet, originX + sourceX, originY, width, height, animationId, i);
+        }
+        return frames;
+    }
+
+    /**
+     * Створює кадри без зображення для безголового режиму. Кількість кадрів така сама, як після
+     * розбиття листа, бо від неї залежить тривалість анімацій (наприклад, атаки гравця).
+     */
+    private static SpriteFrame[] placeholderClip(String path, int frameCount, boolean mirrored) {
+        int animationId = animationId(path, frameCount, mirrored);
+        SpriteFrame[] frames = new SpriteFrame[Math.max(frameCount, 1)];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = new SpriteFrame(null, 0, 0, 0, 0, animationId, i);
         }
         return frames;
     }
 
+    /**
+     * Повертає весь лист як єдиний кадр анімації.
+     */
+    private static SpriteFrame wholeSheet(SpriteFrame sheetRegion, int animationId) {
+        return new SpriteFrame(sheetRegion.getSheet(), sheetRegion.getSourceX(), sheetRegion.getSourceY(),
+                sheetRegion.getWidth(), sheetRegion.getHeight(), animationId, 0);
+    }
+
+    /**
+     * Повертає окремий спрайт (усе зображення) як кадр: з атласу, якщо зображення в нього упаковано.
+     *
+     * @param path шлях до зображення
+     * @return спільний кадр або null, якщо зображення не вдалося завантажити
+     */
+    public SpriteFrame getSprite(String path) {
+        SpriteFrame[] frames = getAnimationClip(path, 1);
+        return frames.length > 0 ? frames[0] : null;
+    }
+
+    /**
+     * Повертає віддзеркалений окремий спрайт як кадр.
+     *
+     * @param path шлях до зображення
+     * @return спільний віддзеркалений кадр або null, якщо зображення не вдалося завантажити
+     */
+    public SpriteFrame getMirroredSprite(String path) {
+        SpriteFrame[] frames = getMirroredAnimationClip(path, 1);
+        return frames.length > 0 ? frames[0] : null;
+    }
+
+    /**
+     * Пакує всі спрайти рівня (сутності та інтерактивні об'єкти з карти рівня) у текстурний атлас.
+     * Викликається до створення об'єктів рівня: кадри, отримані після цього, посилаються на сторінки
+     * атласу. Якщо набір спрайтів не змінився, використовується вже побудований атлас.
+     * У безголовому режимі атлас не будується.
+     *
+     * @param levelData JSON-дані рівня у форматі Tiled
+     * @return сторінки атласу
+     */
+    public synchronized List<TextureAtlas> buildLevelAtlas(JSONObject levelData) {
+        if (skipsDecoding()) {
+            return atlasPages;
+        }
+        Set<String> paths = new LinkedHashSet<>(List.of(ENTITY_SPRITES));
+        collectFileNames(levelData, paths);
+        Set<String> keys = new LinkedHashSet<>();
+        for (String path : paths) {
+            keys.add(atlasKey(path, false));
+        }
+        for (String path : MIRRORED_ENTITY_SPRITES) {
+            keys.add(atlasKey(path, true));
+        }
+        if (keys.equals(atlasKeys)) {
+            return atlasPages;
+        }
+
+        Map<String, Image> images = new LinkedHashMap<>();
+        for (String path : paths) {
+            images.put(atlasKey(path, false), getCachedImage(path));
+        }
+        for (String path : MIRRORED_ENTITY_SPRITES) {
+            images.put(atlasKey(path, true), getCachedMirroredImage(path));
+        }
+        List<TextureAtlas> pages = TextureAtlas.pack(images);
+
+        ATLAS_REGIONS.clear();
+        for (TextureAtlas page : pages) {
+            ATLAS_REGIONS.putAll(page.getRegions());
+        }
+        // Кадри, вирізані до побудови атласу, посилаються на окремі листи — їх потрібно вирізати заново
+        CLIP_CACHE.clear();
+        MIRRORED_CLIP_CACHE.clear();
+        atlasPages = pages;
+        atlasKeys = keys;
+        System.out.println("Текстурний атлас: " + ATLAS_REGIONS.size() + " спрайтів на " + pages.size() + " сторінках");
+        return pages;
+    }
+
+    /**
+     * Повертає кількість сторінок поточного текстурного атласу.
+     *
+     * @return кількість сторінок
+     */
+    public static int getAtlasPageCount() {
+        return atlasPages.size();
+    }
+
+    /**
+     * Додає шляхи зображень інтерактивних об'єктів (властивість fileName) з даних рівня.
+     */
+    private static void collectFileNames(Object node, Set<String> paths) {
+        if (node instanceof JSONObject object) {
+            if ("fileName".equals(object.optString("name")) && object.has("value")) {
+                paths.add("interactiveObjects/" + object.optString("value"));
+            }
+            for (String key : object.keySet()) {
+                collectFileNames(object.get(key), paths);
+            }
+        } else if (node instanceof JSONArray array) {
+            for (int i = 0; i < array.length(); i++) {
+                collectFileNames(array.get(i), paths);
+            }
+        }
+    }
+
+    /**
+     * Формує ключ спрайта в атласі.
+     */
+    private static String atlasKey(String path, boolean mirrored) {
+        return mirrored ? path + "#mirrored" : path;
+    }
+
+    /**
+     * Повертає, скільки разів спрайт-лист було декодовано через кеш. Для кожного листа очікується 1.
+     *
+     * @param path шлях до спрайт-листа
+     * @return кількість декодувань
+     */
+    public static int getSheetLoadCount(String path) {
+        AtomicInteger count = SHEET_LOAD_COUNTS.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Повертає загальну кількість декодувань спрайт-листів через кеш.
+     *
+     * @return кількість декодувань
+     */
+    public static int getTotalSheetLoads() {
+        int total = 0;
+        for (AtomicInteger count : SHEET_LOAD_COUNTS.values()) {
+            total += count.get();
+        }
+        return total;
+    }
+
+    /**
+     * Повертає кількість різних спрайт-листів, декодованих через кеш.
+     *
+     * @return кількість спрайт-листів
+     */
+    public static int getLoadedSheetCount() {
+        return SHEET_LOAD_COUNTS.size();
+    }
+
+    /**
+     * Повертає кількість звернень до кешу, обслужених без декодування.
+     *
+     * @return кількість влучань у кеш
+     */
+    public static int getClipCacheHits() {
+        return CLIP_CACHE_HITS.get();
+    }
+
+    /**
+     * Перевіряє, чи треба пропускати декодування зображень: у безголовому режимі GameManager
+     * ресурси не малюються.
+     */
+    private static boolean skipsDecoding() {
+        return GameManager.getInstance().isHeadless();
+    }
+
+    /**
+     * Формує ключ кешу анімацій.
+     */
+    private static String clipKey(String path, int frameCount) {
+        return path + '#' + frameCount;
+    }
+
+    /**
+     * Обчислює стабільний ідентифікатор анімації з шляху, кількості кадрів і віддзеркалення:
+     * на відміну від адрес об'єктів він однаковий між запусками і не залежить від атласу.
+     */
+    private static int animationId(String path, int frameCount, boolean mirrored) {
+        int id = atlasKey(clipKey(path, frameCount), mirrored).hashCode();
+        return id != SpriteFrame.NO_ANIMATION ? id : 1;
+    }
+
+    /**
+     * Створює горизонтально віддзеркалену копію зображення. Викликається один раз при завантаженні,
+     * щоб під час рендерингу напрямок погляду був лише вибором кадру, а не трансформацією контексту.
+     *
+     * @param image вихідне зображення
+     * @return віддзеркалене зображення або null, якщо вихідне зображення відсутнє
+     */
+    public Image mirrorImage(Image image) {
+        if (image == null) return null;
+        PixelReader reader = image.getPixelReader();
+        if (reader == null) {
+            System.err.println("Неможливо прочитати пікселі для віддзеркалення зображення");
+            return image;
+        }
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        WritableImage mirrored = new WritableImage(width, height);
+        PixelWriter writer = mirrored.getPixelWriter();
+        int[] row = new int[width];
+        int[] reversed = new int[width];
+        WritablePixelFormat<IntBuffer> format = PixelFormat.getIntArgbInstance();
+        for (int y = 0; y < height; y++) {
+            reader.getPixels(0, y, width, 1, format, row, 0, width);
+            for (int x = 0; x < width; x++) {
+                reversed[width - 1 - x] = row[x];
+            }
+            writer.setPixels(0, y, width, 1, format, reversed, 0, width);
+        }
+        return mirrored;
+    }
+
     /**
      * Парсить JSON у список ігрових об’єктів.
      *
@@ -139,7 +522,7 @@ public class GameLoader {
      */
     public List createObjectsFromJSON(JSONObject data) {
         List objects = new ArrayList<>();
-        List puzzles = new ArrayList<>();
+        List<Puzzle> puzzles = new ArrayList<>();
         if (data.has("layers")) {
             JSONArray layers = data.getJSONArray("layers");
             for (int i = 0; i < layers.length(); i++) {
@@ -183,7 +566,9 @@ public class GameLoader {
                 }
             }
         }
-        GameManager.getInstance().getPuzzles().addAll(puzzles);
+        for (Puzzle puzzle : puzzles) {
+            GameManager.getInstance().addPuzzle(puzzle);
+        }
         return objects;
     }
 
@@ -3,10 +3,12 @@ package utils;
 import javafx.scene.Scene;
 import javafx.scene.input.KeyCode;
 import javafx.geometry.Point2D;
+import java.util.EnumSet;
 import java.util.Set;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
 
 /**
  * Клас для обробки вводу з клавіатури та миші в грі.
@@ -15,7 +17,7 @@ public class InputHandler {
     /** Сцена для обробки подій вводу. */
     private Scene scene;
 
-    /** Набір натиснутих клавіш. */
+    /** Набір натиснутих клавіш (читається також потоком симуляції). */
     private Set<KeyCode> pressedKeys;
 
     /** Поточна позиція миші. */
@@ -24,6 +26,21 @@ public class InputHandler {
     /** Мапа колбеків для клавіш. */
     private Map<KeyCode, Runnable> inputCallbacks;
 
+    /** Налагоджувальні клавіші, які не записуються в повтор. */
+    private final Set<KeyCode> unrecordedKeys = EnumSet.noneOf(KeyCode.class);
+
+    /** Записувач вводу для повторів (null, якщо запис вимкнено). */
+    private InputRecorder recorder;
+
+    /** Джерело номера поточного кроку симуляції для запису. */
+    private LongSupplier tickSource;
+
+    /** Монітор, під яким застосовуються події, щоб упорядкувати їх відносно кроків симуляції. */
+    private Object eventLock = this;
+
+    /** Чи приймаються події зі сцени (вимикається під час повтору). */
+    private volatile boolean liveInputEnabled = true;
+
     /**
      * Конструктор для ініціалізації обробника вводу.
      *
@@ -31,7 +48,7 @@ public class InputHandler {
      */
     public InputHandler(Scene scene) {
         this.scene = scene;
-        this.pressedKeys = new HashSet<>();
+        this.pressedKeys = ConcurrentHashMap.newKeySet();
         this.mousePosition = new Point2D(0, 0);
         this.inputCallbacks = new HashMap<>();
     }
@@ -42,18 +59,88 @@ public class InputHandler {
      */
     public void setupKeyHandlers() {
         scene.setOnKeyPressed(event -> {
-            KeyCode key = event.getCode();
-            pressedKeys.add(key);
-            if (inputCallbacks.containsKey(key)) {
-                inputCallbacks.get(key).run();
+            if (liveInputEnabled) {
+                pressKey(event.getCode());
             }
         });
         scene.setOnKeyReleased(event -> {
-            KeyCode key = event.getCode();
-            pressedKeys.remove(key);
+            if (liveInputEnabled) {
+                releaseKey(event.getCode());
+            }
         });
     }
 
+    /**
+     * Застосовує натискання клавіші: оновлює стан, записує подію та виконує колбек.
+     * Використовується як обробниками сцени, так і повтором вводу.
+     *
+     * @param key код клавіші
+     */
+    public void pressKey(KeyCode key) {
+        synchronized (eventLock) {
+            pressedKeys.add(key);
+            recordEvent(key, true);
+            Runnable callback = inputCallbacks.get(key);
+            if (callback != null) {
+                callback.run();
+            }
+        }
+    }
+
+    /**
+     * Застосовує відпускання клавіші та записує подію.
+     *
+     * @param key код клавіші
+     */
+    public void releaseKey(KeyCode key) {
+        synchronized (eventLock) {
+            pressedKeys.remove(key);
+            recordEvent(key, false);
+        }
+    }
+
+    /**
+     * Передає подію записувачу, якщо запис увімкнено.
+     */
+    private void recordEvent(KeyCode key, boolean pressed) {
+        InputRecorder activeRecorder = recorder;
+        if (activeRecorder != null && !unrecordedKeys.contains(key)) {
+            activeRecorder.record(tickSource.getAsLong(), key, pressed);
+        }
+    }
+
+    /**
+     * Встановлює записувач вводу.
+     *
+     * @param recorder записувач або null, щоб вимкнути запис
+     * @param tickSource джерело номера останнього виконаного кроку симуляції
+     */
+    public void setRecorder(InputRecorder recorder, LongSupplier tickSource) {
+        synchronized (eventLock) {
+            this.tickSource = tickSource;
+            this.recorder = recorder;
+        }
+    }
+
+    /**
+     * Встановлює монітор, під яким застосовуються події клавіатури. GameManager передає
+     * сюди монітор симуляції, щоб подія не потрапляла всередину кроку потоку симуляції.
+     *
+     * @param eventLock монітор подій
+     */
+    public void setEventLock(Object eventLock) {
+        this.eventLock = eventLock != null ? eventLock : this;
+    }
+
+    /**
+     * Вмикає або вимикає прийом подій зі сцени. Під час повтору події надходять лише з файлу.
+     *
+     * @param enabled true, щоб приймати події сцени
+     */
+    public void setLiveInputEnabled(boolean enabled) {
+        this.liveInputEnabled = enabled;
+    }
+
     /**
      * Налаштовує обробники подій для миші.
      * Додає слухачі для подій руху та кліку миші.
@@ -95,4 +182,16 @@ public class InputHandler {
     public void registerCallback(KeyCode key, Runnable callback) {
         inputCallbacks.put(key, callback);
     }
+
+    /**
+     * Реєструє колбек налагоджувальної клавіші. Вона не впливає на стан гри,
+     * тому її натискання та відпускання не записуються в повтор.
+     *
+     * @param key код клавіші
+     * @param callback дія, яка виконується при натисканні клавіші
+     */
+    public void registerDebugCallback(KeyCode key, Runnable callback) {
+        unrecordedKeys.add(key);
+        inputCallbacks.put(key, callback);
+    }
 }
\ No newline at end of file
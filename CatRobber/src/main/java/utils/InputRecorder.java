@@ -0,0 +1,192 @@
+package utils;
+
+import javafx.scene.input.KeyCode;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Записувач вводу для детермінованих повторів. Кожне натискання та відпускання клавіші
+ * зберігається разом із номером кроку симуляції, після якого воно надійшло, і записується
+ * у компактний бінарний файл повтору, який відтворює {@link InputReplay}. Так само записуються
+ * результати взаємодій через інтерфейс (розв’язані головоломки), які не виводяться з клавіш гри.
+ *
+ * <p>Формат файлу: сигнатура {@code CRRP}, версія, ID рівня, ознака нової гри, зерно
+ * генератора випадкових чисел, таблиця назв клавіш, події у вигляді varint-різниць кроків
+ * та varint-кодів (два молодші біти — тип події, решта — індекс клавіші чи дверей), а наприкінці
+ * останній записаний крок і контрольна сума стану після нього.</p>
+ */
+public class InputRecorder {
+    /** Сигнатура файлу повтору ("CRRP"). */
+    static final int MAGIC = 0x43525250;
+
+    /** Версія формату файлу повтору. */
+    static final byte VERSION = 2;
+
+    /** Тип події: відпускання клавіші. */
+    static final int EVENT_KEY_RELEASED = 0;
+
+    /** Тип події: натискання клавіші. */
+    static final int EVENT_KEY_PRESSED = 1;
+
+    /** Тип події: головоломку дверей розв’язано (індекс дверей у {@link DoorRegistry#getDoors()}). */
+    static final int EVENT_PUZZLE_SOLVED = 2;
+
+    /** Кількість бітів типу в коді події. */
+    static final int EVENT_TYPE_BITS = 2;
+
+    /** ID записаного рівня. */
+    private final int levelId;
+
+    /** Чи був рівень завантажений як нова гра. */
+    private final boolean newGame;
+
+    /** Зерно генератора випадкових чисел GameManager на початку рівня. */
+    private final long seed;
+
+    /** Таблиця клавіш, що зустрічаються в записі. */
+    private final List<KeyCode> keyTable = new ArrayList<>();
+
+    /** Кроки симуляції подій. */
+    private long[] ticks = new long[256];
+
+    /** Коди подій: індекс клавіші чи дверей, зсунутий на {@link #EVENT_TYPE_BITS}, і тип події. */
+    private int[] codes = new int[256];
+
+    /** Кількість записаних подій. */
+    private int eventCount;
+
+    /** Останній записаний крок симуляції. */
+    private long endTick;
+
+    /** Контрольна сума стану після кроку {@link #endTick}. */
+    private long endChecksum;
+
+    /**
+     * Створює записувач для одного рівня.
+     *
+     * @param levelId ID рівня
+     * @param newGame чи завантажено рівень як нову гру
+     * @param seed зерно генератора випадкових чисел
+     */
+    public InputRecorder(int levelId, boolean newGame, long seed) {
+        this.levelId = levelId;
+        this.newGame = newGame;
+        this.seed = seed;
+    }
+
+    /**
+     * Записує подію клавіатури.
+     *
+     * @param tick номер останнього виконаного кроку симуляції
+     * @param key клавіша
+     * @param pressed true для натискання, false для відпускання
+     */
+    public synchronized void record(long tick, KeyCode key, boolean pressed) {
+        int keyIndex = keyTable.indexOf(key);
+        if (keyIndex < 0) {
+            keyTable.add(key);
+            keyIndex = keyTable.size() - 1;
+        }
+        addEvent(tick, keyIndex, pressed ? EVENT_KEY_PRESSED : EVENT_KEY_RELEASED);
+    }
+
+    /**
+     * Записує розв’язану головоломку дверей (результат взаємодії через інтерфейс).
+     *
+     * @param tick номер останнього виконаного кроку симуляції
+     * @param doorIndex індекс дверей у {@link DoorRegistry#getDoors()}
+     */
+    public synchronized void recordPuzzleSolved(long tick, int doorIndex) {
+        addEvent(tick, doorIndex, EVENT_PUZZLE_SOLVED);
+    }
+
+    /**
+     * Запам’ятовує стан після виконаного кроку; у файл потрапляє останній.
+     *
+     * @param tick номер виконаного кроку симуляції
+     * @param checksum контрольна сума стану після кроку
+     */
+    public synchronized void recordEndState(long tick, long checksum) {
+        endTick = tick;
+        endChecksum = checksum;
+    }
+
+    /**
+     * Додає подію в кінець запису.
+     */
+    private void addEvent(long tick, int index, int type) {
+        if (eventCount == ticks.length) {
+            ticks = Arrays.copyOf(ticks, eventCount * 2);
+            codes = Arrays.copyOf(codes, eventCount * 2);
+        }
+        ticks[eventCount] = tick;
+        codes[eventCount] = (index << EVENT_TYPE_BITS) | type;
+        eventCount++;
+    }
+
+    /**
+     * Повертає кількість записаних подій.
+     *
+     * @return кількість подій
+     */
+    public synchronized int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Зберігає запис у файл повтору, створюючи теки за потреби.
+     *
+     * @param path шлях до файлу
+     * @return true, якщо файл успішно записано
+     */
+    public synchronized boolean save(String path) {
+        File file = new File(path);
+        File directory = file.getParentFile();
+        if (directory != null && !directory.exists() && !directory.mkdirs()) {
+            System.err.println("Не вдалося створити теку для повтору: " + directory.getPath());
+            return false;
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(levelId);
+            out.writeBoolean(newGame);
+            out.writeLong(seed);
+            writeVarLong(out, keyTable.size());
+            for (KeyCode key : keyTable) {
+                out.writeUTF(key.name());
+            }
+            writeVarLong(out, eventCount);
+            long previousTick = 0;
+            for (int i = 0; i < eventCount; i++) {
+                writeVarLong(out, ticks[i] - previousTick);
+                writeVarLong(out, codes[i]);
+                previousTick = ticks[i];
+            }
+            writeVarLong(out, endTick);
+            out.writeLong(endChecksum);
+        } catch (IOException e) {
+            System.err.println("Помилка при збереженні повтору: " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Записує невід’ємне число у форматі varint (7 біт на байт).
+     */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
@@ -0,0 +1,260 @@
+package utils;
+
+import javafx.scene.input.KeyCode;
+import managers.GameManager;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Повтор вводу, записаного {@link InputRecorder}. Події подаються в {@link InputHandler}
+ * на межі кроків симуляції, тому той самий запис проходить через той самий конвеєр кроку
+ * і дає той самий результат (за умови того ж зерна генератора випадкових чисел). Результати
+ * взаємодій через інтерфейс (розв’язані головоломки) застосовуються на тих самих межах кроків,
+ * а після останнього записаного кроку контрольна сума стану порівнюється із записаною.
+ */
+public class InputReplay {
+    /** ID записаного рівня. */
+    private final int levelId;
+
+    /** Чи був рівень завантажений як нова гра. */
+    private final boolean newGame;
+
+    /** Зерно генератора випадкових чисел. */
+    private final long seed;
+
+    /** Кроки симуляції подій. */
+    private final long[] ticks;
+
+    /** Типи подій ({@code InputRecorder.EVENT_*}). */
+    private final int[] types;
+
+    /** Клавіші подій (null для подій інтерфейсу). */
+    private final KeyCode[] keys;
+
+    /** Індекси дверей подій інтерфейсу. */
+    private final int[] doorIndices;
+
+    /** Останній записаний крок симуляції. */
+    private final long endTick;
+
+    /** Контрольна сума стану після кроку {@link #endTick}. */
+    private final long endChecksum;
+
+    /** Індекс наступної події для відтворення. */
+    private int cursor;
+
+    /** Контрольна сума стану, отримана при відтворенні, якщо перевірку вже виконано. */
+    private Long replayedChecksum;
+
+    private InputReplay(int levelId, boolean newGame, long seed, long[] ticks, int[] types, KeyCode[] keys,
+                        int[] doorIndices, long endTick, long endChecksum) {
+        this.levelId = levelId;
+        this.newGame = newGame;
+        this.seed = seed;
+        this.ticks = ticks;
+        this.types = types;
+        this.keys = keys;
+        this.doorIndices = doorIndices;
+        this.endTick = endTick;
+        this.endChecksum = endChecksum;
+    }
+
+    /**
+     * Завантажує файл повтору.
+     *
+     * @param path шлях до файлу
+     * @return повтор або null, якщо файл не вдалося прочитати
+     */
+    public static InputReplay load(String path) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)))) {
+            if (in.readInt() != InputRecorder.MAGIC) {
+                System.err.println("Файл не є повтором CatRobber: " + path);
+                return null;
+            }
+            byte version = in.readByte();
+            if (version != InputRecorder.VERSION) {
+                System.err.println("Непідтримувана версія повтору: " + version);
+                return null;
+            }
+            int levelId = in.readInt();
+            boolean newGame = in.readBoolean();
+            long seed = in.readLong();
+            KeyCode[] keyTable = new KeyCode[(int) readVarLong(in)];
+            for (int i = 0; i < keyTable.length; i++) {
+                keyTable[i] = KeyCode.valueOf(in.readUTF());
+            }
+            int eventCount = (int) readVarLong(in);
+            long[] ticks = new long[eventCount];
+            int[] types = new int[eventCount];
+            KeyCode[] keys = new KeyCode[eventCount];
+            int[] doorIndices = new int[eventCount];
+            long tick = 0;
+            for (int i = 0; i < eventCount; i++) {
+                tick += readVarLong(in);
+                int code = (int) readVarLong(in);
+                int index = code >>> InputRecorder.EVENT_TYPE_BITS;
+                ticks[i] = tick;
+                types[i] = code & ((1 << InputRecorder.EVENT_TYPE_BITS) - 1);
+                if (types[i] == InputRecorder.EVENT_PUZZLE_SOLVED) {
+                    doorIndices[i] = index;
+                } else {
+                    keys[i] = keyTable[index];
+                }
+            }
+            long endTick = readVarLong(in);
+            long endChecksum = in.readLong();
+            return new InputReplay(levelId, newGame, seed, ticks, types, keys, doorIndices, endTick, endChecksum);
+        } catch (IOException | IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Помилка при завантаженні повтору " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Подає в обробник вводу всі події, записані не пізніше заданого кроку, а результати
+     * взаємодій через інтерфейс — у GameManager. Викликається перед виконанням кроку tick + 1.
+     *
+     * @param tick номер останнього виконаного кроку симуляції
+     * @param inputHandler обробник вводу
+     * @param gameManager менеджер гри, до якого застосовуються результати взаємодій
+     */
+    public void applyEvents(long tick, InputHandler inputHandler, GameManager gameManager) {
+        while (cursor < ticks.length && ticks[cursor] <= tick) {
+            switch (types[cursor]) {
+                case InputRecorder.EVENT_KEY_PRESSED:
+                    inputHandler.pressKey(keys[cursor]);
+                    break;
+                case InputRecorder.EVENT_KEY_RELEASED:
+                    inputHandler.releaseKey(keys[cursor]);
+                    break;
+                case InputRecorder.EVENT_PUZZLE_SOLVED:
+                    gameManager.applyReplayedPuzzleSolved(doorIndices[cursor]);
+                    break;
+                default:
+                    System.err.println("Невідомий тип події повтору: " + types[cursor]);
+                    break;
+            }
+            cursor++;
+        }
+    }
+
+    /**
+     * Порівнює контрольну суму стану після останнього записаного кроку із записаною.
+     *
+     * @param checksum контрольна сума стану, отримана при відтворенні
+     * @return true, якщо суми збігаються
+     */
+    public boolean verify(long checksum) {
+        replayedChecksum = checksum;
+        return checksum == endChecksum;
+    }
+
+    /**
+     * Перевіряє, чи вже виконано порівняння контрольних сум.
+     *
+     * @return true, якщо {@link #verify(long)} уже викликано
+     */
+    public boolean isVerified() {
+        return replayedChecksum != null;
+    }
+
+    /**
+     * Перевіряє, чи контрольна сума відтворення збіглася із записаною.
+     *
+     * @return true, якщо перевірку виконано і суми збігаються
+     */
+    public boolean isChecksumMatched() {
+        return replayedChecksum != null && replayedChecksum == endChecksum;
+    }
+
+    /**
+     * Перевіряє, чи відтворено всі події.
+     *
+     * @return true, якщо подій більше немає
+     */
+    public boolean isFinished() {
+        return cursor >= ticks.length;
+    }
+
+    /**
+     * Повертає крок останньої події.
+     *
+     * @return номер кроку або 0 для порожнього повтору
+     */
+    public long getLastTick() {
+        return ticks.length == 0 ? 0 : ticks[ticks.length - 1];
+    }
+
+    /**
+     * Повертає останній записаний крок симуляції, після якого перевіряється контрольна сума.
+     *
+     * @return номер кроку
+     */
+    public long getEndTick() {
+        return endTick;
+    }
+
+    /**
+     * Повертає контрольну суму стану, записану після останнього кроку.
+     *
+     * @return контрольна сума
+     */
+    public long getEndChecksum() {
+        return endChecksum;
+    }
+
+    /**
+     * Повертає кількість подій у повторі.
+     *
+     * @return кількість подій
+     */
+    public int getEventCount() {
+        return ticks.length;
+    }
+
+    /**
+     * Повертає ID записаного рівня.
+     *
+     * @return ID рівня
+     */
+    public int getLevelId() {
+        return levelId;
+    }
+
+    /**
+     * Перевіряє, чи рівень записано як нову гру.
+     *
+     * @return true для нової гри
+     */
+    public boolean isNewGame() {
+        return newGame;
+    }
+
+    /**
+     * Повертає зерно генератора випадкових чисел.
+     *
+     * @return зерно
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Читає невід’ємне число у форматі varint.
+     */
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+        }
+    }
+}
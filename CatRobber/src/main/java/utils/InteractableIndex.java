@@ -0,0 +1,199 @@
+package utils;
+
+import entities.Player;
+import interfaces.Interactable;
+import interfaces.RoomOccupant;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Широка фаза пошуку об’єктів для взаємодії. Нерухомі об’єкти (двері, інтерактивні об’єкти)
+ * розкладаються по кошиках кімнат, яких торкається їхня область взаємодії
+ * ({@link Interactable#getInteractionBounds(AABB)}), і сортуються в кошику за лівим краєм.
+ * Запит двійковим пошуком знаходить у кошику кімнати гравця об’єкти, чий x-інтервал може
+ * перетинати гравця, і вибирає серед них найближчий. Якщо гравець не вміщується в жодну кімнату,
+ * використовується кошик усіх об’єктів. Рухомі об’єкти ({@link RoomOccupant}, наприклад
+ * поліцейські) перевіряються окремо за їхніми поточними межами.
+ *
+ * <p>Індекс будується з нерухомих позицій, тому після переміщення двері чи об’єкта його треба
+ * перебудувати ({@link #rebuild(List, RoomGrid)}). Запит не створює об’єктів.</p>
+ */
+public final class InteractableIndex {
+    /** Кошики нерухомих об’єктів за індексом кімнати в {@link RoomGrid}. */
+    private Bucket[] roomBuckets = new Bucket[0];
+
+    /** Кошик усіх нерухомих об’єктів для гравця поза кімнатами. */
+    private Bucket allBucket = new Bucket(new ArrayList<>(), new ArrayList<>());
+
+    /** Рухомі об’єкти та їхній порядок у вихідному списку. */
+    private final List<Interactable> moving = new ArrayList<>();
+    private int[] movingOrder = new int[0];
+
+    /** Індекс кімнат, за яким побудовано кошики. */
+    private RoomGrid roomGrid = new RoomGrid(List.of());
+
+    /** Тимчасові прямокутники для запиту. */
+    private final AABB playerBounds = new AABB();
+    private final AABB roomBounds = new AABB();
+    private final AABB candidateBounds = new AABB();
+
+    /**
+     * Перебудовує індекс для списку об’єктів і кімнат рівня.
+     *
+     * @param interactables об’єкти для взаємодії в порядку завантаження
+     * @param roomGrid індекс кімнат рівня
+     */
+    public void rebuild(List<Interactable> interactables, RoomGrid roomGrid) {
+        this.roomGrid = roomGrid;
+        moving.clear();
+        List<Interactable> staticItems = new ArrayList<>();
+        List<Integer> staticOrder = new ArrayList<>();
+        List<Integer> order = new ArrayList<>();
+        AABB bounds = new AABB();
+        for (int i = 0; i < interactables.size(); i++) {
+            Interactable interactable = interactables.get(i);
+            if (interactable instanceof RoomOccupant) {
+                moving.add(interactable);
+                order.add(i);
+            } else if (interactable.getInteractionBounds(bounds.clear())) {
+                staticItems.add(interactable);
+                staticOrder.add(i);
+            }
+        }
+        movingOrder = order.stream().mapToInt(Integer::intValue).toArray();
+        allBucket = new Bucket(staticItems, staticOrder);
+
+        roomBuckets = new Bucket[roomGrid.size()];
+        for (int room = 0; room < roomBuckets.length; room++) {
+            List<Interactable> roomItems = new ArrayList<>();
+            List<Integer> roomOrder = new ArrayList<>();
+            for (int i = 0; i < staticItems.size(); i++) {
+                staticItems.get(i).getInteractionBounds(bounds.clear());
+                if (roomGrid.touches(room, bounds)) {
+                    roomItems.add(staticItems.get(i));
+                    roomOrder.add(staticOrder.get(i));
+                }
+            }
+            roomBuckets[room] = new Bucket(roomItems, roomOrder);
+        }
+    }
+
+    /**
+     * Знаходить найближчий до гравця об’єкт, з яким можна взаємодіяти. Відстань вимірюється
+     * між центрами колізійних меж гравця та області взаємодії; за рівної відстані перемагає
+     * об’єкт, раніший у вихідному списку.
+     *
+     * @param player гравець
+     * @return найближчий доступний об’єкт або null
+     */
+    public Interactable findNearest(Player player) {
+        player.getCollisionBounds(playerBounds);
+        double centerX = (playerBounds.getMinX() + playerBounds.getMaxX()) * 0.5;
+        double centerY = (playerBounds.getMinY() + playerBounds.getMaxY()) * 0.5;
+
+        // Кошик кімнати повний лише тоді, коли гравець цілком у ній: інакше його межі можуть
+        // торкатися об’єктів сусідньої кімнати
+        int room = roomGrid.findContainingRoomIndex(playerBounds, roomBounds);
+        Bucket bucket = room >= 0 && room < roomBuckets.length ? roomBuckets[room] : allBucket;
+
+        Interactable nearest = null;
+        double nearestDistance = Double.POSITIVE_INFINITY;
+        int nearestOrder = Integer.MAX_VALUE;
+
+        // Двійковий пошук першого об’єкта, чий лівий край може дістати до гравця
+        int index = bucket.firstWithMinXAtLeast(playerBounds.getMinX() - bucket.maxWidth);
+        for (; index < bucket.items.length && bucket.minX[index] <= playerBounds.getMaxX(); index++) {
+            if (bucket.maxX[index] < playerBounds.getMinX()
+                    || bucket.minY[index] > playerBounds.getMaxY() || bucket.maxY[index] < playerBounds.getMinY()) {
+                continue;
+            }
+            Interactable candidate = bucket.items[index];
+            if (!candidate.canInteract(player)) continue;
+            double dx = (bucket.minX[index] + bucket.maxX[index]) * 0.5 - centerX;
+            double dy = (bucket.minY[index] + bucket.maxY[index]) * 0.5 - centerY;
+            double distance = dx * dx + dy * dy;
+            if (distance < nearestDistance || distance == nearestDistance && bucket.order[index] < nearestOrder) {
+                nearest = candidate;
+                nearestDistance = distance;
+                nearestOrder = bucket.order[index];
+            }
+        }
+
+        // Рухомих об’єктів мало, і їхні межі змінюються щокадру, тож вони перевіряються напряму
+        for (int i = 0; i < moving.size(); i++) {
+            Interactable candidate = moving.get(i);
+            if (!candidate.getInteractionBounds(candidateBounds.clear())
+                    || !candidateBounds.touches(playerBounds) || !candidate.canInteract(player)) continue;
+            double dx = (candidateBounds.getMinX() + candidateBounds.getMaxX()) * 0.5 - centerX;
+            double dy = (candidateBounds.getMinY() + candidateBounds.getMaxY()) * 0.5 - centerY;
+            double distance = dx * dx + dy * dy;
+            if (distance < nearestDistance || distance == nearestDistance && movingOrder[i] < nearestOrder) {
+                nearest = candidate;
+                nearestDistance = distance;
+                nearestOrder = movingOrder[i];
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Кошик нерухомих об’єктів, відсортованих за лівим краєм області взаємодії.
+     */
+    private static final class Bucket {
+        private final Interactable[] items;
+        private final double[] minX, minY, maxX, maxY;
+        private final int[] order;
+        private final double maxWidth;
+
+        private Bucket(List<Interactable> source, List<Integer> sourceOrder) {
+            int count = source.size();
+            AABB bounds = new AABB();
+            double[] left = new double[count];
+            Integer[] sorted = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                source.get(i).getInteractionBounds(bounds.clear());
+                left[i] = bounds.getMinX();
+                sorted[i] = i;
+            }
+            // Стабільне сортування зберігає порядок завантаження для однакових лівих країв
+            Arrays.sort(sorted, (a, b) -> Double.compare(left[a], left[b]));
+            items = new Interactable[count];
+            minX = new double[count];
+            minY = new double[count];
+            maxX = new double[count];
+            maxY = new double[count];
+            order = new int[count];
+            double widest = 0;
+            for (int i = 0; i < count; i++) {
+                Interactable interactable = source.get(sorted[i]);
+                interactable.getInteractionBounds(bounds.clear());
+                items[i] = interactable;
+                minX[i] = bounds.getMinX();
+                minY[i] = bounds.getMinY();
+                maxX[i] = bounds.getMaxX();
+                maxY[i] = bounds.getMaxY();
+                order[i] = sourceOrder.get(sorted[i]);
+                widest = Math.max(widest, bounds.getWidth());
+            }
+            maxWidth = widest;
+        }
+
+        /**
+         * Повертає перший індекс, у якого лівий край не менший за x.
+         */
+        private int firstWithMinXAtLeast(double x) {
+            int low = 0, high = items.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (minX[middle] < x) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package utils;
+
+import interfaces.Renderable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Черга рендерингу з окремим кошиком для кожного шару. Об’єкти розкладаються по кошиках
+ * при додаванні, тож кадр малюється лінійним проходом без сортування та без створення компараторів.
+ * Усередині кошика зберігається порядок додавання, як і при стабільному сортуванні за шаром.
+ *
+ * <p>Для окремих шарів можна увімкнути стабільне сортування за нижнім краєм меж об’єкта
+ * ({@link Renderable#getRenderBounds(AABB)}), щоб нижчі на екрані об’єкти малювалися поверх.
+ * Сортування вставками працює на місці й на майже впорядкованих даних має лінійну вартість.</p>
+ */
+public class RenderQueue {
+    /** Кошики, впорядковані за зростанням шару. */
+    private final List<Bucket> buckets = new ArrayList<>();
+
+    /** Усі об’єкти в порядку малювання. */
+    private final List<Renderable> ordered = new ArrayList<>();
+
+    /** Незмінне подання порядку малювання, яке повертається назовні. */
+    private final List<Renderable> orderedView = Collections.unmodifiableList(ordered);
+
+    /** Чи потрібно перебудувати загальний порядок після зміни складу кошиків. */
+    private boolean orderDirty;
+
+    /** Тимчасовий прямокутник для обчислення ключів сортування. */
+    private final AABB scratch = new AABB();
+
+    /**
+     * Додає об’єкт у кінець кошика його шару.
+     *
+     * @param renderable об’єкт рендерингу
+     */
+    public void add(Renderable renderable) {
+        bucketFor(renderable.getRenderLayer()).items.add(renderable);
+        orderDirty = true;
+    }
+
+    /**
+     * Видаляє об’єкт із черги.
+     *
+     * @param renderable об’єкт рендерингу
+     * @return true, якщо об’єкт був у черзі
+     */
+    public boolean remove(Renderable renderable) {
+        for (Bucket bucket : buckets) {
+            if (bucket.items.remove(renderable)) {
+                orderDirty = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Переносить об’єкт у кошик його поточного шару. Викликається, коли об’єкт змінив шар;
+     * такі зміни також виявляються в {@link #prepare()}.
+     *
+     * @param renderable об’єкт рендерингу
+     */
+    public void updateLayer(Renderable renderable) {
+        if (remove(renderable)) {
+            add(renderable);
+        }
+    }
+
+    /**
+     * Видаляє всі об’єкти. Налаштування сортування шарів зберігаються.
+     */
+    public void clear() {
+        for (Bucket bucket : buckets) {
+            bucket.items.clear();
+        }
+        ordered.clear();
+        orderDirty = false;
+    }
+
+    /**
+     * Вмикає або вимикає стабільне сортування за y усередині шару.
+     *
+     * @param layer шар рендерингу
+     * @param ySorted true, щоб сортувати об’єкти шару за нижнім краєм меж
+     */
+    public void setYSorted(int layer, boolean ySorted) {
+        bucketFor(layer).ySorted = ySorted;
+        orderDirty = true;
+    }
+
+    /**
+     * Готує чергу до кадру: переносить об’єкти, що змінили шар, сортує шари з увімкненим
+     * сортуванням за y і повертає порядок малювання.
+     *
+     * @return об’єкти в порядку малювання (не змінювати; дійсний до наступної зміни черги)
+     */
+    public List<Renderable> prepare() {
+        relocateChangedLayers();
+        boolean sortedChanged = false;
+        for (int b = 0; b < buckets.size(); b++) {
+            Bucket bucket = buckets.get(b);
+            if (bucket.ySorted && sortByY(bucket)) {
+                sortedChanged = true;
+            }
+        }
+        if (orderDirty || sortedChanged) {
+            ordered.clear();
+            for (int b = 0; b < buckets.size(); b++) {
+                Bucket bucket = buckets.get(b);
+                for (int i = 0; i < bucket.items.size(); i++) {
+                    ordered.add(bucket.items.get(i));
+                }
+            }
+            orderDirty = false;
+        }
+        return orderedView;
+    }
+
+    /**
+     * Повертає кількість об’єктів у черзі.
+     *
+     * @return кількість об’єктів
+     */
+    public int size() {
+        int size = 0;
+        for (Bucket bucket : buckets) {
+            size += bucket.items.size();
+        }
+        return size;
+    }
+
+    /**
+     * Переносить у правильні кошики об’єкти, чий шар змінився з моменту додавання.
+     */
+    private void relocateChangedLayers() {
+        for (int b = 0; b < buckets.size(); b++) {
+            Bucket bucket = buckets.get(b);
+            for (int i = 0; i < bucket.items.size(); i++) {
+                Renderable renderable = bucket.items.get(i);
+                if (renderable.getRenderLayer() != bucket.layer) {
+                    bucket.items.remove(i--);
+                    add(renderable);
+                }
+            }
+        }
+    }
+
+    /**
+     * Стабільно сортує кошик вставками за нижнім краєм меж об’єктів.
+     *
+     * @return true, якщо порядок змінився
+     */
+    private boolean sortByY(Bucket bucket) {
+        List<Renderable> items = bucket.items;
+        int size = items.size();
+        if (bucket.keys.length < size) {
+            bucket.keys = Arrays.copyOf(bucket.keys, Math.max(size, bucket.keys.length * 2));
+        }
+        double[] keys = bucket.keys;
+        for (int i = 0; i < size; i++) {
+            scratch.clear();
+            items.get(i).getRenderBounds(scratch);
+            keys[i] = scratch.isEmpty() ? Double.NEGATIVE_INFINITY : scratch.getMaxY();
+        }
+        boolean changed = false;
+        for (int i = 1; i < size; i++) {
+            double key = keys[i];
+            if (keys[i - 1] <= key) continue;
+            Renderable renderable = items.get(i);
+            int j = i - 1;
+            while (j >= 0 && keys[j] > key) {
+                keys[j + 1] = keys[j];
+                items.set(j + 1, items.get(j));
+                j--;
+            }
+            keys[j + 1] = key;
+            items.set(j + 1, renderable);
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Повертає кошик шару, створюючи його на потрібному місці, якщо шару ще немає.
+     */
+    private Bucket bucketFor(int layer) {
+        int index = 0;
+        while (index < buckets.size() && buckets.get(index).layer < layer) {
+            index++;
+        }
+        if (index < buckets.size() && buckets.get(index).layer == layer) {
+            return buckets.get(index);
+        }
+        Bucket bucket = new Bucket(layer);
+        buckets.add(index, bucket);
+        return bucket;
+    }
+
+    /**
+     * Кошик об’єктів одного шару.
+     */
+    private static final class Bucket {
+        private final int layer;
+        private final List<Renderable> items = new ArrayList<>();
+        private boolean ySorted;
+        private double[] keys = new double[0];
+
+        private Bucket(int layer) {
+            this.layer = layer;
+        }
+    }
+}
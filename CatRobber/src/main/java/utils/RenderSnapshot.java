@@ -0,0 +1,88 @@
+package utils;
+
+import interfaces.Renderable;
+import javafx.scene.image.Image;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Незмінний знімок ігрового світу для одного кадру: фон, вже відсортовані за шаром
+ * копії стану рендерингу об’єктів і точка, на якій центрується камера. Створюється потоком симуляції після кожного кроку
+ * і малюється потоком JavaFX, тому жоден з потоків не бачить напівоновлених даних.
+ */
+public final class RenderSnapshot {
+    /** Номер кроку симуляції, після якого зроблено знімок. */
+    private final long tick;
+
+    /** Фонове зображення рівня. */
+    private final Image background;
+
+    /** Стани рендерингу об’єктів у порядку малювання. */
+    private final List<Renderable> renderables;
+
+    /** Точка фокусу камери (центр гравця); NaN, якщо гравець невидимий. */
+    private final double focusX, focusY;
+
+    /**
+     * Створює знімок кадру.
+     *
+     * @param tick номер кроку симуляції
+     * @param background фонове зображення рівня (може бути null)
+     * @param renderables стани рендерингу у порядку малювання
+     * @param focusX координата x фокусу камери або NaN
+     * @param focusY координата y фокусу камери або NaN
+     */
+    public RenderSnapshot(long tick, Image background, List<Renderable> renderables, double focusX, double focusY) {
+        this.tick = tick;
+        this.background = background;
+        this.renderables = Collections.unmodifiableList(renderables);
+        this.focusX = focusX;
+        this.focusY = focusY;
+    }
+
+    /**
+     * Повертає номер кроку симуляції, після якого зроблено знімок.
+     *
+     * @return номер кроку
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Повертає фонове зображення рівня.
+     *
+     * @return фонове зображення або null
+     */
+    public Image getBackground() {
+        return background;
+    }
+
+    /**
+     * Повертає стани рендерингу об’єктів у порядку малювання.
+     *
+     * @return незмінний список
+     */
+    public List<Renderable> getRenderables() {
+        return renderables;
+    }
+
+    /**
+     * Повертає координату x фокусу камери.
+     *
+     * @return координата x або NaN, якщо фокусу немає
+     */
+    public double getFocusX() {
+        return focusX;
+    }
+
+    /**
+     * Повертає координату y фокусу камери.
+     *
+     * @return координата y або NaN, якщо фокусу немає
+     */
+    public double getFocusY() {
+        return focusY;
+    }
+}
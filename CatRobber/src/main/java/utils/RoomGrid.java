@@ -0,0 +1,260 @@
+package utils;
+
+import javafx.geometry.Bounds;
+import managers.GameManager;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Просторовий індекс кімнат рівня на рівномірній сітці. Кожна клітинка зберігає індекси кімнат,
+ * межі яких її торкаються, тож запит «кімната в точці» або «кімнати поруч із прямокутником»
+ * перевіряє лише одну-дві кімнати замість усього списку. Межі кімнат зберігаються
+ * в примітивних масивах, щоб запити не зверталися до {@link Bounds}.
+ *
+ * <p>Межі кімнат вважаються замкненими, як у {@link Bounds#contains(double, double)}.
+ * Серед кількох кімнат, що містять точку, повертається перша за порядком у списку.</p>
+ */
+public final class RoomGrid {
+    /** Розмір клітинки сітки в пікселях. */
+    public static final double CELL_SIZE = 64.0;
+
+    /** Порожній індекс для рівня без кімнат. */
+    private static final int[] NO_ROOMS = new int[0];
+
+    /** Кімнати в порядку завантаження. */
+    private final GameManager.Room[] rooms;
+
+    /** Межі кімнат за індексом. */
+    private final double[] minX, minY, maxX, maxY;
+
+    /** Лівий верхній кут сітки та її розмір у клітинках. */
+    private final double originX, originY;
+    private final int columns, rows;
+
+    /** Індекси кімнат кожної клітинки (рядок за рядком), впорядковані за зростанням. */
+    private final int[][] cells;
+
+    /** Позначки кімнат, уже знайдених поточним запитом за прямокутником, та їхні індекси. */
+    private final int[] queryStamps;
+    private final int[] queryIndices;
+    private int queryStamp;
+
+    /**
+     * Будує індекс зі списку кімнат (результат {@link GameLoader#loadCollisionMap}).
+     *
+     * @param roomList кімнати рівня
+     */
+    public RoomGrid(List<GameManager.Room> roomList) {
+        int count = roomList.size();
+        rooms = roomList.toArray(new GameManager.Room[0]);
+        minX = new double[count];
+        minY = new double[count];
+        maxX = new double[count];
+        maxY = new double[count];
+        queryStamps = new int[count];
+        queryIndices = new int[count];
+        double left = Double.POSITIVE_INFINITY, top = Double.POSITIVE_INFINITY;
+        double right = Double.NEGATIVE_INFINITY, bottom = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            Bounds bounds = rooms[i].getBounds();
+            minX[i] = bounds.getMinX();
+            minY[i] = bounds.getMinY();
+            maxX[i] = bounds.getMaxX();
+            maxY[i] = bounds.getMaxY();
+            left = Math.min(left, minX[i]);
+            top = Math.min(top, minY[i]);
+            right = Math.max(right, maxX[i]);
+            bottom = Math.max(bottom, maxY[i]);
+        }
+        if (count == 0) {
+            originX = originY = 0;
+            columns = rows = 0;
+            cells = new int[0][];
+            return;
+        }
+        originX = left;
+        originY = top;
+        columns = (int) Math.floor((right - left) / CELL_SIZE) + 1;
+        rows = (int) Math.floor((bottom - top) / CELL_SIZE) + 1;
+
+        // Спершу рахуємо кімнати в кожній клітинці, потім заповнюємо масиви точного розміру
+        int[] cellCounts = new int[columns * rows];
+        for (int i = 0; i < count; i++) {
+            for (int row = rowOf(minY[i]); row <= rowOf(maxY[i]); row++) {
+                for (int column = columnOf(minX[i]); column <= columnOf(maxX[i]); column++) {
+                    cellCounts[row * columns + column]++;
+                }
+            }
+        }
+        cells = new int[columns * rows][];
+        for (int cell = 0; cell < cells.length; cell++) {
+            cells[cell] = cellCounts[cell] == 0 ? NO_ROOMS : new int[cellCounts[cell]];
+        }
+        Arrays.fill(cellCounts, 0);
+        for (int i = 0; i < count; i++) {
+            for (int row = rowOf(minY[i]); row <= rowOf(maxY[i]); row++) {
+                for (int column = columnOf(minX[i]); column <= columnOf(maxX[i]); column++) {
+                    int cell = row * columns + column;
+                    cells[cell][cellCounts[cell]++] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Повертає кімнату, що містить точку.
+     *
+     * @param x координата x
+     * @param y координата y
+     * @return перша кімната, що містить точку, або null
+     */
+    public GameManager.Room getRoomAt(double x, double y) {
+        int[] candidates = cellAt(x, y);
+        for (int index : candidates) {
+            if (contains(index, x, y)) {
+                return rooms[index];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Перевіряє, чи межі кімнати торкаються прямокутника (межі включно).
+     *
+     * @param index індекс кімнати
+     * @param area прямокутник
+     * @return true, якщо кімната і прямокутник перетинаються або дотикаються
+     */
+    public boolean touches(int index, AABB area) {
+        return area.getMinX() <= maxX[index] && minX[index] <= area.getMaxX()
+                && area.getMinY() <= maxY[index] && minY[index] <= area.getMaxY();
+    }
+
+    /**
+     * Перевіряє, чи прямокутник повністю лежить у якійсь кімнаті. Така кімната обов’язково
+     * містить лівий верхній кут прямокутника, тому перевіряється лише його клітинка.
+     *
+     * @return true, якщо знайдено кімнату, яка повністю містить прямокутник
+     */
+    public boolean containsRect(double rectMinX, double rectMinY, double rectMaxX, double rectMaxY) {
+        int[] candidates = cellAt(rectMinX, rectMinY);
+        for (int index : candidates) {
+            if (rectMinX >= minX[index] && rectMinY >= minY[index]
+                    && rectMaxX <= maxX[index] && rectMaxY <= maxY[index]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Знаходить кімнату, яка повністю містить прямокутник, і записує її межі.
+     *
+     * @param rect прямокутник
+     * @param out прямокутник для меж кімнати
+     * @return true, якщо таку кімнату знайдено
+     */
+    public boolean findContainingRoom(AABB rect, AABB out) {
+        return findContainingRoomIndex(rect, out) >= 0;
+    }
+
+    /**
+     * Знаходить кімнату, яка повністю містить прямокутник, і записує її межі.
+     *
+     * @param rect прямокутник
+     * @param out прямокутник для меж кімнати
+     * @return індекс кімнати або -1, якщо такої немає
+     */
+    public int findContainingRoomIndex(AABB rect, AABB out) {
+        int[] candidates = cellAt(rect.getMinX(), rect.getMinY());
+        for (int index : candidates) {
+            if (rect.getMinX() >= minX[index] && rect.getMinY() >= minY[index]
+                    && rect.getMaxX() <= maxX[index] && rect.getMaxY() <= maxY[index]) {
+                out.set(minX[index], minY[index], maxX[index], maxY[index]);
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Записує кімнати, межі яких торкаються прямокутника, у порядку завантаження.
+     *
+     * @param area прямокутник запиту
+     * @param out список для результату; попередній вміст видаляється
+     * @return той самий список
+     */
+    public List<GameManager.Room> getCandidates(AABB area, List<GameManager.Room> out) {
+        out.clear();
+        if (cells.length == 0 || area.getMinX() > area.getMaxX() || area.getMinY() > area.getMaxY()) {
+            return out;
+        }
+        if (++queryStamp == 0) { // Лічильник переповнився: скидаємо позначки
+            Arrays.fill(queryStamps, 0);
+            queryStamp = 1;
+        }
+        int firstColumn = Math.max(0, columnOf(area.getMinX())), lastColumn = Math.min(columns - 1, columnOf(area.getMaxX()));
+        int firstRow = Math.max(0, rowOf(area.getMinY())), lastRow = Math.min(rows - 1, rowOf(area.getMaxY()));
+        int found = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                for (int index : cells[row * columns + column]) {
+                    if (queryStamps[index] != queryStamp) {
+                        queryStamps[index] = queryStamp;
+                        if (touches(index, area)) { // Клітинка може містити кімнату, що лише поруч
+                            queryIndices[found++] = index;
+                        }
+                    }
+                }
+            }
+        }
+        // Кімнати з різних клітинок знайдено не за порядком завантаження
+        Arrays.sort(queryIndices, 0, found);
+        for (int i = 0; i < found; i++) {
+            out.add(rooms[queryIndices[i]]);
+        }
+        return out;
+    }
+
+    /**
+     * Повертає кількість кімнат в індексі.
+     *
+     * @return кількість кімнат
+     */
+    public int size() {
+        return rooms.length;
+    }
+
+    /**
+     * Повертає індекси кімнат клітинки, що містить точку, або порожній масив поза сіткою.
+     */
+    private int[] cellAt(double x, double y) {
+        int column = columnOf(x), row = rowOf(y);
+        if (column < 0 || row < 0 || column >= columns || row >= rows) {
+            return NO_ROOMS;
+        }
+        return cells[row * columns + column];
+    }
+
+    /**
+     * Перевіряє, чи кімната містить точку (межі включно).
+     */
+    private boolean contains(int index, double x, double y) {
+        return x >= minX[index] && x <= maxX[index] && y >= minY[index] && y <= maxY[index];
+    }
+
+    /**
+     * Повертає стовпець сітки для координати x.
+     */
+    private int columnOf(double x) {
+        return (int) Math.floor((x - originX) / CELL_SIZE);
+    }
+
+    /**
+     * Повертає рядок сітки для координати y.
+     */
+    private int rowOf(double y) {
+        return (int) Math.floor((y - originY) / CELL_SIZE);
+    }
+}
@@ -0,0 +1,154 @@
+package utils;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+
+/**
+ * Кадр спрайта: посилання на спільний спрайт-лист і прямокутник кадру в ньому.
+ * Кадр малюється дев'ятиаргументним {@link GraphicsContext#drawImage(Image, double, double, double, double,
+ * double, double, double, double)}, тому пікселі кадрів ніколи не копіюються в окремі зображення.
+ */
+public final class SpriteFrame {
+    /** Ідентифікатор кадру без анімації (окреме зображення або сторінка атласу). */
+    public static final int NO_ANIMATION = 0;
+
+    /** Спрайт-лист, що містить кадр. */
+    private final Image sheet;
+
+    /** Прямокутник кадру у спрайт-листі. */
+    private final double sourceX;
+    private final double sourceY;
+    private final double width;
+    private final double height;
+
+    /** Стабільний ідентифікатор анімації, з якої вирізано кадр. */
+    private final int animationId;
+
+    /** Номер кадру в анімації. */
+    private final int frameIndex;
+
+    /**
+     * Створює кадр як прямокутник у спрайт-листі, що не належить анімації.
+     *
+     * @param sheet спрайт-лист
+     * @param sourceX координата x кадру в листі
+     * @param sourceY координата y кадру в листі
+     * @param width ширина кадру
+     * @param height висота кадру
+     */
+    public SpriteFrame(Image sheet, double sourceX, double sourceY, double width, double height) {
+        this(sheet, sourceX, sourceY, width, height, NO_ANIMATION, 0);
+    }
+
+    /**
+     * Створює кадр анімації як прямокутник у спрайт-листі.
+     *
+     * @param sheet спрайт-лист або null для кадру-заповнювача безголового режиму
+     * @param sourceX координата x кадру в листі
+     * @param sourceY координата y кадру в листі
+     * @param width ширина кадру
+     * @param height висота кадру
+     * @param animationId стабільний ідентифікатор анімації
+     * @param frameIndex номер кадру в анімації
+     */
+    public SpriteFrame(Image sheet, double sourceX, double sourceY, double width, double height,
+                       int animationId, int frameIndex) {
+        this.sheet = sheet;
+        this.sourceX = sourceX;
+        this.sourceY = sourceY;
+        this.width = width;
+        this.height = height;
+        this.animationId = animationId;
+        this.frameIndex = frameIndex;
+    }
+
+    /**
+     * Повертає ключ вигляду кадру з ідентифікатора анімації та номера кадру. Ключ не залежить
+     * від адрес об'єктів, тому однаковий між запусками; null дає окремий ключ 0.
+     *
+     * @param frame кадр або null
+     * @return ключ вигляду кадру
+     */
+    public static long stateKey(SpriteFrame frame) {
+        if (frame == null) {
+            return 0;
+        }
+        return ((long) frame.animationId << 32) | (frame.frameIndex + 1L);
+    }
+
+    /**
+     * Малює кадр у заданий прямокутник на екрані.
+     *
+     * @param gc графічний контекст
+     * @param x координата x на екрані
+     * @param y координата y на екрані
+     * @param renderWidth ширина на екрані
+     * @param renderHeight висота на екрані
+     */
+    public void draw(GraphicsContext gc, double x, double y, double renderWidth, double renderHeight) {
+        gc.drawImage(sheet, sourceX, sourceY, width, height, x, y, renderWidth, renderHeight);
+    }
+
+    /**
+     * Повертає спрайт-лист, що містить кадр.
+     *
+     * @return спрайт-лист
+     */
+    public Image getSheet() {
+        return sheet;
+    }
+
+    /**
+     * Повертає координату x кадру в спрайт-листі.
+     *
+     * @return координата x
+     */
+    public double getSourceX() {
+        return sourceX;
+    }
+
+    /**
+     * Повертає координату y кадру в спрайт-листі.
+     *
+     * @return координата y
+     */
+    public double getSourceY() {
+        return sourceY;
+    }
+
+    /**
+     * Повертає ширину кадру.
+     *
+     * @return ширина кадру
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * Повертає висоту кадру.
+     *
+     * @return висота кадру
+     */
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * Повертає стабільний ідентифікатор анімації, з якої вирізано кадр.
+     *
+     * @return ідентифікатор анімації або {@link #NO_ANIMATION}
+     */
+    public int getAnimationId() {
+        return animationId;
+    }
+
+    /**
+     * Повертає номер кадру в анімації.
+     *
+     * @return номер кадру
+     */
+    public int getFrameIndex() {
+        return frameIndex;
+    }
+}
@@ -0,0 +1,165 @@
+package utils;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сторінка текстурного атласу: одне велике зображення, у яке упаковано багато спрайтів.
+ * Коли всі спрайти сутностей лежать у кількох сторінках, послідовні виклики drawImage
+ * використовують ту саму текстуру, і конвеєр рендерингу рідше перемикає текстури.
+ *
+ * <p>Спрайти пакуються полицями: вони сортуються за висотою, розкладаються зліва направо
+ * в рядки, а коли сторінка заповнюється — починається нова. Кожен спрайт оточено рамкою з копій
+ * його крайніх пікселів: вибірка на межі прямокутника (часткове покриття пікселя при дробовій
+ * позиції) бере ті самі пікселі, що й для окремого зображення, а не сусідній спрайт.</p>
+ */
+public final class TextureAtlas {
+    /** Максимальна ширина та висота сторінки атласу. */
+    public static final int MAX_PAGE_SIZE = 2048;
+
+    /** Ширина рамки з крайніх пікселів навколо кожного спрайта. */
+    private static final int BORDER = 2;
+
+    /** Зображення сторінки. */
+    private final WritableImage page;
+
+    /** Прямокутники спрайтів у сторінці за назвою. */
+    private final Map<String, SpriteFrame> regions;
+
+    private TextureAtlas(WritableImage page, Map<String, SpriteFrame> regions) {
+        this.page = page;
+        this.regions = regions;
+    }
+
+    /**
+     * Пакує зображення в одну або кілька сторінок атласу. Зображення, більші за сторінку,
+     * або без доступу до пікселів пропускаються і мають малюватися окремо.
+     *
+     * @param images зображення за назвою
+     * @return сторінки атласу
+     */
+    public static List<TextureAtlas> pack(Map<String, Image> images) {
+        List<Map.Entry<String, Image>> entries = new ArrayList<>();
+        for (Map.Entry<String, Image> entry : images.entrySet()) {
+            Image image = entry.getValue();
+            if (image == null || image.getPixelReader() == null) continue;
+            if (image.getWidth() + 2 * BORDER > MAX_PAGE_SIZE || image.getHeight() + 2 * BORDER > MAX_PAGE_SIZE) {
+                System.err.println("Зображення завелике для атласу, буде малюватися окремо: " + entry.getKey());
+                continue;
+            }
+            entries.add(entry);
+        }
+        // Вищі спрайти першими: полиці заповнюються щільніше
+        entries.sort((a, b) -> Double.compare(b.getValue().getHeight(), a.getValue().getHeight()));
+
+        List<TextureAtlas> pages = new ArrayList<>();
+        List<Map.Entry<String, Image>> pageEntries = new ArrayList<>();
+        List<int[]> placements = new ArrayList<>();
+        int shelfX = 0, shelfY = 0, shelfHeight = 0, pageWidth = 0, pageHeight = 0;
+        for (Map.Entry<String, Image> entry : entries) {
+            // Розмір комірки разом із рамкою
+            int width = (int) Math.ceil(entry.getValue().getWidth()) + 2 * BORDER;
+            int height = (int) Math.ceil(entry.getValue().getHeight()) + 2 * BORDER;
+            if (shelfX + width > MAX_PAGE_SIZE) { // Нова полиця
+                shelfX = 0;
+                shelfY += shelfHeight;
+                shelfHeight = 0;
+            }
+            if (shelfY + height > MAX_PAGE_SIZE) { // Нова сторінка
+                pages.add(createPage(pageEntries, placements, pageWidth, pageHeight));
+                pageEntries.clear();
+                placements.clear();
+                shelfX = 0;
+                shelfY = 0;
+                shelfHeight = 0;
+                pageWidth = 0;
+                pageHeight = 0;
+            }
+            pageEntries.add(entry);
+            placements.add(new int[]{shelfX, shelfY, width, height});
+            pageWidth = Math.max(pageWidth, shelfX + width);
+            pageHeight = Math.max(pageHeight, shelfY + height);
+            shelfX += width;
+            shelfHeight = Math.max(shelfHeight, height);
+        }
+        if (!pageEntries.isEmpty()) {
+            pages.add(createPage(pageEntries, placements, pageWidth, pageHeight));
+        }
+        return pages;
+    }
+
+    /**
+     * Створює сторінку заданого розміру і копіює в неї пікселі розміщених зображень разом із рамками.
+     */
+    private static TextureAtlas createPage(List<Map.Entry<String, Image>> entries, List<int[]> placements,
+                                           int width, int height) {
+        WritableImage page = new WritableImage(width, height);
+        Map<String, SpriteFrame> regions = new HashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            Image image = entries.get(i).getValue();
+            int[] placement = placements.get(i);
+            int x = placement[0] + BORDER;
+            int y = placement[1] + BORDER;
+            copyWithBorder(image, page.getPixelWriter(), x, y);
+            regions.put(entries.get(i).getKey(), new SpriteFrame(page, x, y, image.getWidth(), image.getHeight()));
+        }
+        return new TextureAtlas(page, regions);
+    }
+
+    /**
+     * Копіює зображення в сторінку і заповнює рамку навколо нього копіями крайніх пікселів.
+     */
+    private static void copyWithBorder(Image image, PixelWriter writer, int x, int y) {
+        PixelReader reader = image.getPixelReader();
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        writer.setPixels(x, y, width, height, reader, 0, 0);
+        for (int b = 1; b <= BORDER; b++) {
+            for (int row = 0; row < height; row++) {
+                writer.setArgb(x - b, y + row, reader.getArgb(0, row));
+                writer.setArgb(x + width - 1 + b, y + row, reader.getArgb(width - 1, row));
+            }
+            for (int column = -b; column < width + b; column++) {
+                int sourceColumn = Math.max(0, Math.min(width - 1, column));
+                writer.setArgb(x + column, y - b, reader.getArgb(sourceColumn, 0));
+                writer.setArgb(x + column, y + height - 1 + b, reader.getArgb(sourceColumn, height - 1));
+            }
+        }
+    }
+
+    /**
+     * Повертає прямокутник спрайта в сторінці.
+     *
+     * @param name назва спрайта
+     * @return прямокутник або null, якщо спрайт не упаковано в цю сторінку
+     */
+    public SpriteFrame getRegion(String name) {
+        return regions.get(name);
+    }
+
+    /**
+     * Повертає прямокутники всіх спрайтів сторінки.
+     *
+     * @return незмінна мапа назва → прямокутник
+     */
+    public Map<String, SpriteFrame> getRegions() {
+        return Collections.unmodifiableMap(regions);
+    }
+
+    /**
+     * Повертає зображення сторінки.
+     *
+     * @return зображення сторінки
+     */
+    public Image getPage() {
+        return page;
+    }
+}
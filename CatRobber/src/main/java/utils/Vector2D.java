@@ -53,6 +53,57 @@ public class Vector2D {
         return new Vector2D(this.x * scalar, this.y * scalar);
     }
 
+    /**
+     * Встановлює обидві координати на місці.
+     *
+     * @param x нове значення для x
+     * @param y нове значення для y
+     * @return цей вектор
+     */
+    public Vector2D set(double x, double y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    /**
+     * Додає зміщення до поточного вектора на місці, без створення нового.
+     *
+     * @param dx зміщення по x
+     * @param dy зміщення по y
+     * @return цей вектор
+     */
+    public Vector2D addLocal(double dx, double dy) {
+        x += dx;
+        y += dy;
+        return this;
+    }
+
+    /**
+     * Множить поточний вектор на скаляр на місці, без створення нового.
+     *
+     * @param scalar скаляр для множення
+     * @return цей вектор
+     */
+    public Vector2D multiplyLocal(double scalar) {
+        x *= scalar;
+        y *= scalar;
+        return this;
+    }
+
+    /**
+     * Обчислює квадрат відстані до точки (без кореня, для порівнянь).
+     *
+     * @param otherX координата x точки
+     * @param otherY координата y точки
+     * @return квадрат евклідової відстані
+     */
+    public double distanceSquared(double otherX, double otherY) {
+        double dx = this.x - otherX;
+        double dy = this.y - otherY;
+        return dx * dx + dy * dy;
+    }
+
     /**
      * Встановлює значення координати x.
      *
@@ -62,6 +113,15 @@ public class Vector2D {
         this.x = v;
     }
 
+    /**
+     * Встановлює значення координати y.
+     *
+     * @param v нове значення для y
+     */
+    public void setY(double v) {
+        this.y = v;
+    }
+
     /**
      * Повертає значення координати x.
      *
@@ -0,0 +1,91 @@
+package managers;
+
+import javafx.scene.input.KeyCode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import utils.AllocationProbe;
+import utils.InputHandler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Перевіряє, що крок симуляції не виділяє пам’яті під час гри: рівень проходиться зі скриптованим
+ * рухом ліворуч-праворуч і натисканнями E, а після прогріву JIT загальне виділення за прогін
+ * порівнюється з бюджетом {@link AllocationProbe#DEFAULT_RUN_BUDGET}. Гра працює в безголовому режимі,
+ * тож ні JavaFX toolkit, ні дисплей не потрібні; якщо JVM не рахує виділення, тест падає, а не
+ * пропускається.
+ */
+class TickAllocationTest {
+    /** Кроки прогріву JIT перед вимірюванням. */
+    private static final int WARMUP_TICKS = 2_000;
+
+    /** Виміряні кроки: 16 байтів на кожному кроці вже перевищують бюджет. */
+    private static final int MEASURED_TICKS = 50_000;
+
+    /** Скільки кроків утримується одна клавіша руху. */
+    private static final int MOVE_PERIOD = 120;
+
+    /** Інтервал натискань E у кроках. */
+    private static final int INTERACT_PERIOD = 400;
+
+    @BeforeAll
+    static void checkProbe() {
+        assertTrue(AllocationProbe.getInstance().isSupported(), "JVM не рахує виділення пам’яті по потоках");
+        SoundManager.setSilent(true);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3})
+    void scriptedPlayStaysWithinAllocationBudget(int levelId) {
+        GameManager gameManager = GameManager.getInstance();
+        gameManager.setHeadless(true);
+        InputHandler inputHandler = new InputHandler(null);
+        gameManager.registerInteractionCallback(inputHandler);
+        gameManager.setRandomSeed(levelId);
+        gameManager.loadLevel(levelId, true);
+
+        AllocationProbe probe = AllocationProbe.getInstance();
+        int site = probe.registerSite("test.scriptedTick");
+        probe.setEnabled(false);
+        for (int tick = 0; tick < WARMUP_TICKS + MEASURED_TICKS; tick++) {
+            if (tick == WARMUP_TICKS) {
+                probe.reset();
+                probe.setEnabled(true);
+            }
+            if (gameManager.getGameState() != GameManager.GameState.PLAYING) {
+                break;
+            }
+            long start = probe.start();
+            applyScript(inputHandler, tick); // Взаємодії за E виконуються в межах виміру
+            gameManager.storePreviousPositions();
+            gameManager.tick(inputHandler, GameManager.SIMULATION_STEP);
+            probe.record(site, start);
+        }
+        probe.setEnabled(false);
+
+        assertEquals(MEASURED_TICKS, probe.getSampleCount(site),
+                "Рівень " + levelId + " завершився до кінця прогону (" + gameManager.getGameState() + ")");
+        long allocated = probe.getAllocatedBytes(site);
+        assertTrue(allocated <= AllocationProbe.DEFAULT_RUN_BUDGET, () -> "Рівень " + levelId + ": виділено "
+                + allocated + " байтів за " + MEASURED_TICKS + " кроків (бюджет " + AllocationProbe.DEFAULT_RUN_BUDGET
+                + ")" + System.lineSeparator() + probe.formatReport());
+    }
+
+    /**
+     * Скрипт вводу: рух ліворуч і праворуч по черзі та періодичні натискання E.
+     */
+    private static void applyScript(InputHandler inputHandler, int tick) {
+        if (tick % MOVE_PERIOD == 0) {
+            boolean right = (tick / MOVE_PERIOD) % 2 == 0;
+            inputHandler.releaseKey(right ? KeyCode.A : KeyCode.D);
+            inputHandler.pressKey(right ? KeyCode.D : KeyCode.A);
+        }
+        if (tick % INTERACT_PERIOD == 0) {
+            inputHandler.pressKey(KeyCode.E);
+        } else if (tick % INTERACT_PERIOD == 1) {
+            inputHandler.releaseKey(KeyCode.E);
+        }
+    }
+}
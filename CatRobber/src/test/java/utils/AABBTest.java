@@ -0,0 +1,133 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тести перетину прямокутника з трикутником (теорема про розділову вісь) та обмеження
+ * горизонтального руху {@link AABB#sweepX(double, AABB)}.
+ */
+class AABBTest {
+    /** Одиничний квадрат (0, 0) – (1, 1). */
+    private final AABB unit = new AABB().set(0, 0, 1, 1);
+
+    @Test
+    void triangleInsideBoxIntersects() {
+        assertTrue(unit.intersectsTriangle(0.2, 0.2, 0.8, 0.2, 0.5, 0.8));
+    }
+
+    @Test
+    void boxInsideTriangleIntersects() {
+        assertTrue(unit.intersectsTriangle(-10, -10, 10, -10, 0, 10));
+    }
+
+    @Test
+    void triangleBeyondBoxAxisIsSeparated() {
+        assertFalse(unit.intersectsTriangle(2, 0, 3, 0, 2.5, 1));
+        assertFalse(unit.intersectsTriangle(0, -3, 1, -3, 0.5, -2));
+    }
+
+    @Test
+    void vertexTouchingCornerIntersects() {
+        assertTrue(unit.intersectsTriangle(1, 1, 2, 1, 2, 2));
+    }
+
+    @Test
+    void edgeTouchingSideIntersects() {
+        assertTrue(unit.intersectsTriangle(1, -1, 2, 0.5, 1, 2));
+    }
+
+    @Test
+    void hypotenuseTouchingCornerIntersects() {
+        // Ребро лежить на прямій x + y = 2 і торкається кута (1, 1)
+        assertTrue(unit.intersectsTriangle(2, 0, 0, 2, 2, 2));
+    }
+
+    @Test
+    void hypotenuseSeparatesWhenOnlyBoundsOverlap() {
+        // Межі трикутника перекривають квадрат, але розділяє нормаль ребра x + y = 2.1
+        assertFalse(unit.intersectsTriangle(2.1, 0, 0, 2.1, 2.1, 2.1));
+    }
+
+    @Test
+    void windingOrderDoesNotMatter() {
+        assertTrue(unit.intersectsTriangle(2, 2, 0, 2, 2, 0));
+        assertFalse(unit.intersectsTriangle(2.1, 2.1, 0, 2.1, 2.1, 0));
+    }
+
+    @Test
+    void degenerateSegmentCrossingBoxIntersects() {
+        assertTrue(unit.intersectsTriangle(-1, 0.5, 2, 0.5, 0.5, 0.5));
+        assertTrue(unit.intersectsTriangle(-1, -1, 2, 2, 2, 2));
+    }
+
+    @Test
+    void degenerateSegmentPastCornerIsSeparated() {
+        // Відрізок на прямій x + y = 2.5 проходить повз кут (1, 1)
+        assertFalse(unit.intersectsTriangle(0, 2.5, 2.5, 0, 1.25, 1.25));
+    }
+
+    @Test
+    void degeneratePointIntersectsOnlyInsideOrOnBorder() {
+        assertTrue(unit.intersectsTriangle(0.5, 0.5, 0.5, 0.5, 0.5, 0.5));
+        assertTrue(unit.intersectsTriangle(1, 0.5, 1, 0.5, 1, 0.5));
+        assertFalse(unit.intersectsTriangle(1.5, 0.5, 1.5, 0.5, 1.5, 0.5));
+    }
+
+    @Test
+    void emptyBoxNeverIntersects() {
+        assertFalse(new AABB().intersectsTriangle(-10, -10, 10, -10, 0, 10));
+    }
+
+    @Test
+    void sweepRightStopsAtObstacle() {
+        AABB box = new AABB().set(0, 0, 10, 10);
+        AABB obstacle = new AABB().set(15, 0, 20, 10);
+        assertEquals(5, box.sweepX(8, obstacle));
+        assertEquals(3, box.sweepX(3, obstacle));
+    }
+
+    @Test
+    void sweepLeftStopsAtObstacle() {
+        AABB box = new AABB().set(0, 0, 10, 10);
+        AABB obstacle = new AABB().set(-20, 0, -5, 10);
+        assertEquals(-5, box.sweepX(-8, obstacle));
+        assertEquals(-3, box.sweepX(-3, obstacle));
+    }
+
+    @Test
+    void sweepFromContactAllowsNoMovement() {
+        AABB box = new AABB().set(0, 0, 10, 10);
+        assertEquals(0, box.sweepX(4, new AABB().set(10, 0, 20, 10)));
+        assertEquals(0, box.sweepX(-4, new AABB().set(-10, 0, 0, 10)));
+    }
+
+    @Test
+    void sweepIgnoresObstacleBehind() {
+        AABB box = new AABB().set(0, 0, 10, 10);
+        assertEquals(-8, box.sweepX(-8, new AABB().set(15, 0, 20, 10)));
+        assertEquals(8, box.sweepX(8, new AABB().set(-20, 0, -5, 10)));
+    }
+
+    @Test
+    void sweepIgnoresObstacleWithoutVerticalOverlap() {
+        AABB box = new AABB().set(0, 0, 10, 10);
+        assertEquals(8, box.sweepX(8, new AABB().set(15, 10, 20, 20))); // Дотик по y не рахується
+        assertEquals(8, box.sweepX(8, new AABB().set(15, -20, 20, 0)));
+    }
+
+    @Test
+    void sweepIgnoresOverlappingObstacle() {
+        AABB box = new AABB().set(0, 0, 10, 10);
+        assertEquals(8, box.sweepX(8, new AABB().set(5, 0, 20, 10)));
+    }
+
+    @Test
+    void sweepWithoutMovementIsZero() {
+        AABB box = new AABB().set(0, 0, 10, 10);
+        assertEquals(0, box.sweepX(0, new AABB().set(15, 0, 20, 10)));
+    }
+}
@@ -0,0 +1,228 @@
+package utils;
+
+import interfaces.EntityListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тести відкладених змін реєстру сутностей: між {@link EntityRegistry#beginUpdate()}
+ * і {@link EntityRegistry#endUpdate()} списки та слухачі не бачать доданих і видалених
+ * сутностей, а ID призначаються і знімаються одразу.
+ */
+class EntityRegistryTest {
+    private final EntityRegistry<Entity> registry = new EntityRegistry<>();
+    private final List<String> events = new ArrayList<>();
+
+    EntityRegistryTest() {
+        registry.addListener(new EntityListener<>() {
+            @Override
+            public void onEntityAdded(Entity entity) {
+                events.add("+" + entity.name);
+            }
+
+            @Override
+            public void onEntityRemoved(Entity entity) {
+                events.add("-" + entity.name);
+            }
+        });
+    }
+
+    @Test
+    void addOutsideUpdateIsImmediate() {
+        Entity guard = new Guard("guard");
+        int id = registry.add(guard);
+        assertEquals(List.of(guard), registry.getAll());
+        assertSame(guard, registry.get(id));
+        assertEquals(List.of("+guard"), events);
+    }
+
+    @Test
+    void addDuringUpdateIsDeferredButGetsIdAtOnce() {
+        Entity existing = new Guard("existing");
+        registry.add(existing);
+        List<Guard> guards = registry.getAll(Guard.class);
+        events.clear();
+
+        registry.beginUpdate();
+        Guard added = new Guard("added");
+        int id = registry.add(added);
+        assertEquals(List.of(existing), registry.getAll());
+        assertEquals(1, guards.size());
+        assertSame(added, registry.get(id));
+        assertEquals(id, registry.getId(added));
+        assertTrue(events.isEmpty());
+        registry.endUpdate();
+
+        assertEquals(List.of(existing, added), registry.getAll());
+        assertEquals(List.of(existing, added), guards);
+        assertEquals(List.of("+added"), events);
+    }
+
+    @Test
+    void removeDuringUpdateIsDeferredButDropsIdAtOnce() {
+        Guard guard = new Guard("guard");
+        int id = registry.add(guard);
+        events.clear();
+
+        registry.beginUpdate();
+        assertTrue(registry.remove(guard));
+        assertEquals(List.of(guard), registry.getAll());
+        assertEquals(List.of(guard), registry.getAll(Guard.class));
+        assertNull(registry.get(id));
+        assertEquals(EntityRegistry.NO_ID, registry.getId(guard));
+        assertTrue(events.isEmpty());
+        registry.endUpdate();
+
+        assertTrue(registry.getAll().isEmpty());
+        assertTrue(registry.getAll(Guard.class).isEmpty());
+        assertEquals(List.of("-guard"), events);
+    }
+
+    @Test
+    void pendingChangesApplyInCallOrder() {
+        Entity first = new Guard("first");
+        Entity second = new Camera("second");
+        Entity third = new Guard("third");
+        registry.add(first);
+        events.clear();
+
+        registry.beginUpdate();
+        registry.add(second);
+        registry.remove(first);
+        registry.add(third);
+        registry.endUpdate();
+
+        assertEquals(List.of(second, third), registry.getAll());
+        assertEquals(List.of(third), registry.getAll(Guard.class));
+        assertEquals(List.of(second), registry.getAll(Camera.class));
+        assertEquals(List.of("+second", "-first", "+third"), events);
+    }
+
+    @Test
+    void addAndRemoveInSameUpdateLeavesNothing() {
+        Entity transient_ = new Guard("transient");
+        registry.beginUpdate();
+        registry.add(transient_);
+        assertTrue(registry.remove(transient_));
+        registry.endUpdate();
+
+        assertTrue(registry.getAll().isEmpty());
+        assertEquals(EntityRegistry.NO_ID, registry.getId(transient_));
+        assertEquals(List.of("+transient", "-transient"), events);
+    }
+
+    @Test
+    void removeAndReAddInSameUpdateGetsNewIdAndMovesToEnd() {
+        Entity moved = new Guard("moved");
+        Entity other = new Guard("other");
+        int oldId = registry.add(moved);
+        registry.add(other);
+
+        registry.beginUpdate();
+        registry.remove(moved);
+        int newId = registry.add(moved);
+        assertNotEquals(oldId, newId);
+        registry.endUpdate();
+
+        assertEquals(List.of(other, moved), registry.getAll());
+        assertEquals(newId, registry.getId(moved));
+        assertNull(registry.get(oldId));
+    }
+
+    @Test
+    void nestedUpdatesApplyAfterOutermostEnd() {
+        Entity guard = new Guard("guard");
+        registry.beginUpdate();
+        registry.beginUpdate();
+        registry.add(guard);
+        registry.endUpdate();
+        assertTrue(registry.getAll().isEmpty());
+        registry.endUpdate();
+        assertEquals(List.of(guard), registry.getAll());
+    }
+
+    @Test
+    void typeViewCreatedDuringUpdateSeesOnlyAppliedEntities() {
+        Guard applied = new Guard("applied");
+        registry.add(applied);
+        registry.beginUpdate();
+        Guard pending = new Guard("pending");
+        registry.add(pending);
+        List<Guard> guards = registry.getAll(Guard.class);
+        assertEquals(List.of(applied), guards);
+        registry.endUpdate();
+        assertEquals(List.of(applied, pending), guards);
+    }
+
+    @Test
+    void listenerChangesDuringApplyAreApplied() {
+        Entity spawned = new Camera("spawned");
+        registry.addListener(new EntityListener<>() {
+            @Override
+            public void onEntityAdded(Entity entity) {
+                if (entity.name.equals("spawner")) {
+                    registry.add(spawned);
+                }
+            }
+
+            @Override
+            public void onEntityRemoved(Entity entity) {
+            }
+        });
+        Entity spawner = new Guard("spawner");
+        registry.beginUpdate();
+        registry.add(spawner);
+        registry.endUpdate();
+        assertEquals(List.of(spawner, spawned), registry.getAll());
+    }
+
+    @Test
+    void clearDropsPendingChanges() {
+        registry.beginUpdate();
+        registry.add(new Guard("pending"));
+        registry.clear();
+        registry.endUpdate();
+        assertTrue(registry.getAll().isEmpty());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void endWithoutBeginThrows() {
+        assertThrows(IllegalStateException.class, registry::endUpdate);
+    }
+
+    /** Базова сутність із назвою для журналу подій. */
+    private static class Entity {
+        final String name;
+
+        Entity(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static final class Guard extends Entity {
+        Guard(String name) {
+            super(name);
+        }
+    }
+
+    private static final class Camera extends Entity {
+        Camera(String name) {
+            super(name);
+        }
+    }
+}
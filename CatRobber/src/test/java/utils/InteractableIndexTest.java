@@ -0,0 +1,170 @@
+package utils;
+
+import entities.Player;
+import interfaces.Interactable;
+import interfaces.RoomOccupant;
+import javafx.geometry.BoundingBox;
+import managers.GameManager;
+import managers.SoundManager;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Тести вибору найближчого об’єкта для взаємодії: відстань між центрами, а за рівної
+ * відстані — порядок у вихідному списку, зокрема між нерухомими й рухомими об’єктами
+ * та коли гравець стоїть на межі кімнат.
+ */
+class InteractableIndexTest {
+    /** Дві кімнати 200×100, що стикуються по x = 200. */
+    private static final RoomGrid ROOMS = new RoomGrid(List.of(
+            new GameManager.Room(1, new BoundingBox(0, 0, 200, 100)),
+            new GameManager.Room(2, new BoundingBox(200, 0, 200, 100))));
+
+    @BeforeAll
+    static void useHeadlessMode() {
+        SoundManager.setSilent(true);
+        GameManager.getInstance().setHeadless(true); // Гравець отримує кадри без декодування, дисплей не потрібен
+    }
+
+    @Test
+    void equidistantStaticObjectsPreferEarlierInList() {
+        Player player = playerAt(90, 40);
+        StaticObject left = new StaticObject(80, 40, 90, 60);
+        StaticObject right = new StaticObject(110, 40, 120, 60);
+        assertSame(left, nearest(player, left, right));
+        assertSame(right, nearest(player, right, left));
+    }
+
+    @Test
+    void nearerObjectWinsOverEarlierOne() {
+        Player player = playerAt(90, 40);
+        StaticObject far = new StaticObject(70, 40, 90, 60);
+        StaticObject near = new StaticObject(95, 40, 105, 60);
+        assertSame(near, nearest(player, far, near));
+    }
+
+    @Test
+    void identicalBoundsPreferEarlierInList() {
+        Player player = playerAt(90, 40);
+        StaticObject first = new StaticObject(95, 40, 105, 60);
+        StaticObject second = new StaticObject(95, 40, 105, 60);
+        assertSame(first, nearest(player, first, second));
+        assertSame(second, nearest(player, second, first));
+    }
+
+    @Test
+    void tieBetweenStaticAndMovingFollowsListOrder() {
+        Player player = playerAt(90, 40);
+        StaticObject door = new StaticObject(80, 40, 90, 60);
+        MovingObject police = new MovingObject(110, 40, 120, 60);
+        assertSame(door, nearest(player, door, police));
+        assertSame(police, nearest(player, police, door));
+    }
+
+    @Test
+    void playerAcrossRoomEdgeSeesBothRooms() {
+        Player player = playerAt(190, 40); // Межі гравця 190..210 перетинають x = 200
+        StaticObject leftRoom = new StaticObject(180, 40, 190, 60);
+        StaticObject rightRoom = new StaticObject(210, 40, 220, 60);
+        assertSame(leftRoom, nearest(player, leftRoom, rightRoom));
+        assertSame(rightRoom, nearest(player, rightRoom, leftRoom));
+    }
+
+    @Test
+    void unavailableObjectIsSkippedEvenIfNearer() {
+        Player player = playerAt(90, 40);
+        StaticObject locked = new StaticObject(95, 40, 105, 60);
+        locked.available = false;
+        StaticObject open = new StaticObject(70, 40, 90, 60);
+        assertSame(open, nearest(player, locked, open));
+    }
+
+    /**
+     * Будує індекс для об’єктів у заданому порядку і шукає найближчий до гравця.
+     */
+    private static Interactable nearest(Player player, Interactable... interactables) {
+        InteractableIndex index = new InteractableIndex();
+        index.rebuild(List.of(interactables), ROOMS);
+        return index.findNearest(player);
+    }
+
+    /**
+     * Створює гравця з колізійним прямокутником 20×20 з лівим верхнім кутом у (x, y).
+     */
+    private static Player playerAt(double x, double y) {
+        JSONObject data = new JSONObject()
+                .put("width", 20).put("height", 20)
+                .put("widthColl", 20).put("hightColl", 20)
+                .put("collX", x).put("collY", y);
+        return new Player(new Vector2D(x, y + 20), data);
+    }
+
+    /**
+     * Нерухомий об’єкт із фіксованою областю взаємодії; доступний, коли гравець її торкається.
+     */
+    private static class StaticObject implements Interactable {
+        private final AABB area;
+        private final AABB playerBounds = new AABB();
+        boolean available = true;
+
+        StaticObject(double minX, double minY, double maxX, double maxY) {
+            area = new AABB().set(minX, minY, maxX, maxY);
+        }
+
+        @Override
+        public void interact(Player player) {
+        }
+
+        @Override
+        public boolean canInteract(Player player) {
+            return available && player.getCollisionBounds(playerBounds).touches(area);
+        }
+
+        @Override
+        public boolean getInteractionBounds(AABB out) {
+            out.set(area);
+            return true;
+        }
+
+        @Override
+        public double getInteractionRange() {
+            return 0;
+        }
+
+        @Override
+        public String getInteractionPrompt() {
+            return "";
+        }
+    }
+
+    /**
+     * Рухомий об’єкт: індекс перевіряє його напряму, а не через кошики кімнат.
+     */
+    private static final class MovingObject extends StaticObject implements RoomOccupant {
+        private int roomId = NO_ROOM;
+
+        MovingObject(double minX, double minY, double maxX, double maxY) {
+            super(minX, minY, maxX, maxY);
+        }
+
+        @Override
+        public int getCurrentRoomId() {
+            return roomId;
+        }
+
+        @Override
+        public void setCurrentRoomId(int roomId) {
+            this.roomId = roomId;
+        }
+
+        @Override
+        public AABB getCollisionBounds(AABB out) {
+            return getInteractionBounds(out) ? out : out.clear();
+        }
+    }
+}
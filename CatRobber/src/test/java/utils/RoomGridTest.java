@@ -0,0 +1,128 @@
+package utils;
+
+import javafx.geometry.BoundingBox;
+import managers.GameManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тести сітки кімнат на межах клітинок: кімнати стикуються саме по лініях сітки
+ * ({@link RoomGrid#CELL_SIZE}), а межі кімнат замкнені.
+ */
+class RoomGridTest {
+    private static final double CELL = RoomGrid.CELL_SIZE;
+
+    /** Ліва кімната: одна клітинка від початку сітки. */
+    private final GameManager.Room left = room(1, 0, 0, CELL, CELL);
+
+    /** Права кімната: стикується з лівою по лінії x = CELL. */
+    private final GameManager.Room right = room(2, CELL, 0, 2 * CELL, CELL);
+
+    /** Нижня кімната на всю ширину: стикується з обома по лінії y = CELL. */
+    private final GameManager.Room bottom = room(3, 0, CELL, 2 * CELL, 3 * CELL);
+
+    private final RoomGrid grid = new RoomGrid(List.of(left, right, bottom));
+
+    @Test
+    void pointOnSharedEdgeBelongsToFirstRoomInLoadOrder() {
+        assertSame(left, grid.getRoomAt(CELL, CELL / 2));
+        assertSame(left, grid.getRoomAt(CELL, CELL));
+        assertSame(right, grid.getRoomAt(CELL + 0.001, CELL / 2));
+        assertSame(bottom, grid.getRoomAt(CELL + 0.001, CELL + 0.001));
+    }
+
+    @Test
+    void sharedEdgeFollowsLoadOrderWhenReversed() {
+        RoomGrid reversed = new RoomGrid(List.of(right, left));
+        assertSame(right, reversed.getRoomAt(CELL, CELL / 2));
+    }
+
+    @Test
+    void outerEdgesAreInsideAndBeyondIsOutside() {
+        assertSame(left, grid.getRoomAt(0, 0));
+        assertSame(right, grid.getRoomAt(2 * CELL, 0));
+        assertSame(bottom, grid.getRoomAt(2 * CELL, 3 * CELL));
+        assertNull(grid.getRoomAt(-0.001, 0));
+        assertNull(grid.getRoomAt(2 * CELL + 0.001, CELL / 2));
+        assertNull(grid.getRoomAt(0, 3 * CELL + 0.001));
+    }
+
+    @Test
+    void gridOriginFollowsRooms() {
+        GameManager.Room shifted = room(4, 100, 50, 100 + CELL, 50 + CELL);
+        GameManager.Room next = room(5, 100 + CELL, 50, 100 + 2 * CELL, 50 + CELL);
+        RoomGrid shiftedGrid = new RoomGrid(List.of(shifted, next));
+        assertSame(shifted, shiftedGrid.getRoomAt(100, 50));
+        assertSame(shifted, shiftedGrid.getRoomAt(100 + CELL, 50));
+        assertSame(next, shiftedGrid.getRoomAt(100 + CELL + 0.001, 50 + CELL));
+        assertNull(shiftedGrid.getRoomAt(99.999, 50));
+    }
+
+    @Test
+    void rectangleOnCellBoundaryIsContainedByItsRoom() {
+        AABB rect = new AABB().set(CELL, 0, 2 * CELL, CELL);
+        AABB roomBounds = new AABB();
+        assertEquals(1, grid.findContainingRoomIndex(rect, roomBounds));
+        assertTrue(roomBounds.sameAs(rect));
+        assertTrue(grid.containsRect(CELL, 0, 2 * CELL, CELL));
+    }
+
+    @Test
+    void rectangleAcrossSharedEdgeIsNotContained() {
+        AABB rect = new AABB().set(CELL - 1, 10, CELL + 1, 20);
+        assertEquals(-1, grid.findContainingRoomIndex(rect, new AABB()));
+        assertFalse(grid.findContainingRoom(rect, new AABB()));
+        assertFalse(grid.containsRect(CELL - 1, 10, CELL + 1, 20));
+    }
+
+    @Test
+    void candidatesIncludeRoomsTouchingAtCellBoundary() {
+        List<GameManager.Room> candidates = new ArrayList<>();
+        grid.getCandidates(new AABB().set(CELL, 10, CELL, 20), candidates);
+        assertEquals(List.of(left, right), candidates);
+        grid.getCandidates(new AABB().set(10, CELL, 20, CELL), candidates);
+        assertEquals(List.of(left, bottom), candidates);
+    }
+
+    @Test
+    void candidatesExcludeRoomsSharingOnlyTheCell() {
+        // Ліва кімната потрапляє в клітинку x = CELL..2 * CELL своєю правою межею, але прямокутника не торкається
+        List<GameManager.Room> candidates = new ArrayList<>();
+        grid.getCandidates(new AABB().set(CELL + 10, 10, CELL + 20, 20), candidates);
+        assertEquals(List.of(right), candidates);
+    }
+
+    @Test
+    void candidatesKeepLoadOrderAcrossCells() {
+        RoomGrid reversed = new RoomGrid(List.of(bottom, right, left));
+        List<GameManager.Room> candidates = new ArrayList<>();
+        reversed.getCandidates(new AABB().set(0, 0, 2 * CELL, 2 * CELL), candidates);
+        assertEquals(List.of(bottom, right, left), candidates);
+    }
+
+    @Test
+    void touchesIncludesEdges() {
+        assertTrue(grid.touches(0, new AABB().set(CELL, CELL, CELL + 5, CELL + 5)));
+        assertFalse(grid.touches(0, new AABB().set(CELL + 0.001, 0, CELL + 5, 5)));
+    }
+
+    @Test
+    void emptyGridFindsNothing() {
+        RoomGrid empty = new RoomGrid(List.of());
+        assertEquals(0, empty.size());
+        assertNull(empty.getRoomAt(0, 0));
+        assertTrue(empty.getCandidates(new AABB().set(0, 0, 10, 10), new ArrayList<>()).isEmpty());
+    }
+
+    private static GameManager.Room room(int id, double minX, double minY, double maxX, double maxY) {
+        return new GameManager.Room(id, new BoundingBox(minX, minY, maxX - minX, maxY - minY));
+    }
+}